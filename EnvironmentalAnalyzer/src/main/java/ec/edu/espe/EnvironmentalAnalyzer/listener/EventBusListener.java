@@ -1,7 +1,8 @@
 package ec.edu.espe.EnvironmentalAnalyzer.listener;
 
-import ec.edu.espe.EnvironmentalAnalyzer.dto.NewSensorReadingEvent;
 import ec.edu.espe.EnvironmentalAnalyzer.service.AnalysisService;
+import ec.edu.espe.EnvironmentalEvents.dto.NewSensorReadingEvent;
+import ec.edu.espe.EnvironmentalEvents.util.ScaledValues;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,7 +25,7 @@ public class EventBusListener {
     )
     public void handleGlobalEvent(NewSensorReadingEvent event) {
         log.info("Evento NewSensorReadingEvent recibido: sensor={}, tipo={}, valor={}", 
-                event.getSensorId(), event.getType(), event.getValue());
+                event.getSensorId(), event.getType(), ScaledValues.toString(event.getValue()));
         
         try {
             analysisService.analyzeSensorReading(event);
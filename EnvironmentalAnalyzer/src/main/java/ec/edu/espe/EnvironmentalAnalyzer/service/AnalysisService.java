@@ -1,9 +1,11 @@
 package ec.edu.espe.EnvironmentalAnalyzer.service;
 
-import ec.edu.espe.EnvironmentalAnalyzer.dto.AlertEvent;
-import ec.edu.espe.EnvironmentalAnalyzer.dto.NewSensorReadingEvent;
 import ec.edu.espe.EnvironmentalAnalyzer.entity.Alert;
 import ec.edu.espe.EnvironmentalAnalyzer.repository.AlertRepository;
+import ec.edu.espe.EnvironmentalEvents.dto.AlertEvent;
+import ec.edu.espe.EnvironmentalEvents.dto.NewSensorReadingEvent;
+import ec.edu.espe.EnvironmentalEvents.util.ScaledValues;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,7 +13,6 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.time.ZonedDateTime;
 import java.util.HashMap;
@@ -38,6 +39,11 @@ public class AnalysisService {
     @Value("${app-config.thresholds.seismic}")
     private double seismicThreshold;
 
+    // Umbrales escalados x100 para comparar directamente con el valor del evento (ver ScaledValues)
+    private long tempThresholdScaled;
+    private long humidityThresholdScaled;
+    private long seismicThresholdScaled;
+
     // Tipos de sensores
     @Value("${app-config.sensor-types.temperature}")
     private String temperatureSensorType;
@@ -70,32 +76,34 @@ public class AnalysisService {
     // Constante para evitar duplicación de literales
     private static final String TIMESTAMP_KEY = "timestamp";
 
+    @PostConstruct
+    void scaleThresholds() {
+        tempThresholdScaled = ScaledValues.fromDouble(tempThreshold);
+        humidityThresholdScaled = ScaledValues.fromDouble(humidityThreshold);
+        seismicThresholdScaled = ScaledValues.fromDouble(seismicThreshold);
+    }
+
     /**
      * Analiza las lecturas de sensores y genera alertas según los umbrales definidos
      * Recibe eventos desde la cola q.events.environmental-analyzer
      */
     public void analyzeSensorReading(NewSensorReadingEvent event) {
         log.info("Analizando lectura del sensor {}: tipo={}, valor={} (desde cola q.events.environmental-analyzer)", 
-                event.getSensorId(), event.getType(), event.getValue());
-
-        if (event.getValue() == null) {
-            log.warn("Valor nulo recibido para el sensor {}", event.getSensorId());
-            return;
-        }
+                event.getSensorId(), event.getType(), ScaledValues.toString(event.getValue()));
 
         switch (event.getType().toLowerCase()) {
             case "temperature":
-                if (event.getValue().doubleValue() > tempThreshold) {
+                if (event.getValue() > tempThresholdScaled) {
                     createAndPublishAlert(event, highTempAlertType, tempThreshold);
                 }
                 break;
             case "humidity":
-                if (event.getValue().doubleValue() < humidityThreshold) {
+                if (event.getValue() < humidityThresholdScaled) {
                     createAndPublishAlert(event, lowHumidityWarningType, humidityThreshold);
                 }
                 break;
             case "seismic":
-                if (event.getValue().doubleValue() > seismicThreshold) {
+                if (event.getValue() > seismicThresholdScaled) {
                     createAndPublishAlert(event, seismicActivityDetectedType, seismicThreshold);
                 }
                 break;
@@ -109,7 +117,7 @@ public class AnalysisService {
      */
     private void createAndPublishAlert(NewSensorReadingEvent reading, String alertType, double threshold) {
         log.warn("¡ALERTA GENERADA! Tipo: {}, Sensor: {}, Valor: {}, Umbral: {}", 
-                alertType, reading.getSensorId(), reading.getValue(), threshold);
+                alertType, reading.getSensorId(), ScaledValues.toString(reading.getValue()), threshold);
         
         try {
             // 1. Crear y persistir la alerta en la base de datos
@@ -117,7 +125,7 @@ public class AnalysisService {
                     .alertId("ALT-" + String.format("%03d", (int)(Math.random() * 1000)))
                     .type(alertType)
                     .sensorId(reading.getSensorId())
-                    .value(reading.getValue().doubleValue()) // Convertir BigDecimal a Double para la entidad
+                    .value(ScaledValues.toDouble(reading.getValue())) // Convertir el valor escalado a Double para la entidad
                     .threshold(threshold)
                     .timestamp(ZonedDateTime.now())
                     .build();
@@ -130,11 +138,11 @@ public class AnalysisService {
                     .alertId(alert.getAlertId())
                     .type(alertType)
                     .sensorId(reading.getSensorId())
-                    .value(reading.getValue()) // Mantener BigDecimal en el DTO
+                    .value(reading.getValue()) // Mantener el valor escalado en el DTO
                     .threshold(threshold)
                     .timestamp(OffsetDateTime.now()) // Usar OffsetDateTime para compatibilidad
                     .message(String.format("Sensor %s reportó valor %s que excede umbral %s", 
-                            reading.getSensorId(), reading.getValue(), threshold))
+                            reading.getSensorId(), ScaledValues.toString(reading.getValue()), threshold))
                     .severity(determineSeverity(alertType))
                     .build();
 
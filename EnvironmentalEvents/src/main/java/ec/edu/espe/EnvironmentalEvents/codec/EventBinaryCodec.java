@@ -0,0 +1,430 @@
+package ec.edu.espe.EnvironmentalEvents.codec;
+
+import ec.edu.espe.EnvironmentalEvents.dto.AlertEvent;
+import ec.edu.espe.EnvironmentalEvents.dto.NewSensorReadingEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Codificación binaria compacta de los eventos entre servicios.
+ *
+ * Formato (versión 1): [0xEE][versión][tipo de evento] seguido de campos [etiqueta][valor]...
+ * La etiqueta es (número de campo << 3) | tipo de dato. Los campos nulos no se escriben y los
+ * campos desconocidos se saltan según su tipo de dato, así que una versión posterior puede añadir
+ * campos sin romper a los consumidores existentes. Un cambio incompatible requiere un content-type nuevo.
+ *
+ * Los números de campo corresponden al nombre de la propiedad y se comparten entre tipos de evento:
+ * al decodificar en una clase distinta de la publicada se copian las propiedades con el mismo nombre,
+ * igual que hace Jackson con el tipo inferido del listener.
+ */
+public final class EventBinaryCodec {
+
+    public static final String CONTENT_TYPE = "application/x-environmental-event";
+    public static final int VERSION = 1;
+
+    private static final int MAGIC = 0xEE;
+    private static final int TYPE_SENSOR_READING = 1;
+    private static final int TYPE_ALERT = 2;
+
+    // Tipos de dato
+    private static final int WIRE_VARINT = 0;    // long en zigzag + varint
+    private static final int WIRE_STRING = 1;    // longitud varint + UTF-8
+    private static final int WIRE_UUID = 2;      // 16 bytes; identificadores con formato UUID canónico
+    private static final int WIRE_FIXED64 = 3;   // 8 bytes (double IEEE-754)
+    private static final int WIRE_TIMESTAMP = 4; // segundos epoch (zigzag) + nanos + offset en segundos (zigzag)
+
+    // Números de campo
+    private static final int F_EVENT_ID = 1;
+    private static final int F_SENSOR_ID = 2;
+    private static final int F_TYPE = 3;
+    private static final int F_VALUE = 4;
+    private static final int F_TIMESTAMP = 5;
+    private static final int F_ALERT_ID = 6;
+    private static final int F_THRESHOLD = 7;
+    private static final int F_MESSAGE = 8;
+    private static final int F_SEVERITY = 9;
+
+    private EventBinaryCodec() {
+    }
+
+    public static boolean supports(Class<?> type) {
+        return type == NewSensorReadingEvent.class || type == AlertEvent.class;
+    }
+
+    /**
+     * @throws IllegalArgumentException si el objeto no es un evento soportado.
+     */
+    public static byte[] encode(Object event) {
+        Writer out = new Writer();
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        if (event instanceof NewSensorReadingEvent reading) {
+            out.writeByte(TYPE_SENSOR_READING);
+            out.writeId(F_EVENT_ID, reading.getEventId());
+            out.writeString(F_SENSOR_ID, reading.getSensorId());
+            out.writeString(F_TYPE, reading.getType());
+            out.writeLong(F_VALUE, reading.getValue());
+            out.writeTimestamp(F_TIMESTAMP, reading.getTimestamp());
+        } else if (event instanceof AlertEvent alert) {
+            out.writeByte(TYPE_ALERT);
+            out.writeId(F_ALERT_ID, alert.getAlertId());
+            out.writeString(F_TYPE, alert.getType());
+            out.writeString(F_SENSOR_ID, alert.getSensorId());
+            out.writeLong(F_VALUE, alert.getValue());
+            out.writeDouble(F_THRESHOLD, alert.getThreshold());
+            out.writeTimestamp(F_TIMESTAMP, alert.getTimestamp());
+            out.writeString(F_MESSAGE, alert.getMessage());
+            out.writeString(F_SEVERITY, alert.getSeverity());
+        } else {
+            throw new IllegalArgumentException("Tipo de evento no soportado: "
+                    + (event == null ? "null" : event.getClass().getName()));
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodifica el evento en el tipo con el que fue publicado.
+     */
+    public static Object decode(byte[] body) {
+        return decode(body, Object.class);
+    }
+
+    /**
+     * Decodifica el evento en la clase indicada (NewSensorReadingEvent, AlertEvent u Object para
+     * usar el tipo publicado).
+     * @throws IllegalArgumentException si el mensaje no es válido o la clase no está soportada.
+     */
+    public static <T> T decode(byte[] body, Class<T> target) {
+        Reader in = new Reader(body);
+        if (in.readByte() != MAGIC) {
+            throw new IllegalArgumentException("El mensaje no es un evento binario");
+        }
+        if (in.readByte() < 1) {
+            throw new IllegalArgumentException("Versión de evento binario inválida");
+        }
+        int eventType = in.readByte();
+        Fields fields = new Fields();
+        while (in.hasRemaining()) {
+            fields.read(in);
+        }
+
+        Class<?> resolved = target;
+        if (resolved == Object.class) {
+            resolved = switch (eventType) {
+                case TYPE_SENSOR_READING -> NewSensorReadingEvent.class;
+                case TYPE_ALERT -> AlertEvent.class;
+                default -> throw new IllegalArgumentException("Tipo de evento binario desconocido: " + eventType);
+            };
+        }
+        if (resolved == NewSensorReadingEvent.class) {
+            return target.cast(fields.toSensorReading());
+        }
+        if (resolved == AlertEvent.class) {
+            return target.cast(fields.toAlert());
+        }
+        throw new IllegalArgumentException("Tipo de destino no soportado: " + target.getName());
+    }
+
+    private static final class Fields {
+        private String eventId;
+        private String sensorId;
+        private String type;
+        private long value;
+        private OffsetDateTime timestamp;
+        private String alertId;
+        private Double threshold;
+        private String message;
+        private String severity;
+
+        void read(Reader in) {
+            int tag = (int) in.readVarint();
+            int wire = tag & 0x7;
+            switch (tag >>> 3) {
+                case F_EVENT_ID -> eventId = in.readText(wire);
+                case F_SENSOR_ID -> sensorId = in.readText(wire);
+                case F_TYPE -> type = in.readText(wire);
+                case F_VALUE -> value = in.readLongField(wire);
+                case F_TIMESTAMP -> timestamp = in.readTimestampField(wire);
+                case F_ALERT_ID -> alertId = in.readText(wire);
+                case F_THRESHOLD -> threshold = in.readDoubleField(wire);
+                case F_MESSAGE -> message = in.readText(wire);
+                case F_SEVERITY -> severity = in.readText(wire);
+                default -> in.skip(wire);
+            }
+        }
+
+        NewSensorReadingEvent toSensorReading() {
+            return new NewSensorReadingEvent(eventId, sensorId, type, value, timestamp);
+        }
+
+        AlertEvent toAlert() {
+            return new AlertEvent(alertId, type, sensorId, value, threshold, timestamp, message, severity);
+        }
+    }
+
+    private static final class Writer {
+        private byte[] buffer = new byte[96];
+        private int position;
+
+        void writeByte(int b) {
+            ensureCapacity(1);
+            buffer[position++] = (byte) b;
+        }
+
+        void writeVarint(long v) {
+            ensureCapacity(10);
+            while ((v & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buffer[position++] = (byte) v;
+        }
+
+        void writeFixed64(long v) {
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (v >>> shift);
+            }
+        }
+
+        void writeTag(int field, int wire) {
+            writeVarint(((long) field << 3) | wire);
+        }
+
+        void writeLong(int field, long v) {
+            writeTag(field, WIRE_VARINT);
+            writeVarint(zigzag(v));
+        }
+
+        void writeDouble(int field, Double v) {
+            if (v == null) {
+                return;
+            }
+            writeTag(field, WIRE_FIXED64);
+            writeFixed64(Double.doubleToRawLongBits(v));
+        }
+
+        void writeTimestamp(int field, OffsetDateTime v) {
+            if (v == null) {
+                return;
+            }
+            writeTag(field, WIRE_TIMESTAMP);
+            writeVarint(zigzag(v.toEpochSecond()));
+            writeVarint(v.getNano());
+            writeVarint(zigzag(v.getOffset().getTotalSeconds()));
+        }
+
+        // Los identificadores generados con UUID.toString() ocupan 16 bytes en lugar de 36
+        void writeId(int field, String v) {
+            if (v != null && isCanonicalUuid(v)) {
+                writeTag(field, WIRE_UUID);
+                writeFixed64(parseHex(v, 0, 8) << 32 | parseHex(v, 9, 13) << 16 | parseHex(v, 14, 18));
+                writeFixed64(parseHex(v, 19, 23) << 48 | parseHex(v, 24, 36));
+            } else {
+                writeString(field, v);
+            }
+        }
+
+        void writeString(int field, String v) {
+            if (v == null) {
+                return;
+            }
+            writeTag(field, WIRE_STRING);
+            int length = v.length();
+            boolean ascii = true;
+            for (int i = 0; i < length && ascii; i++) {
+                ascii = v.charAt(i) < 0x80;
+            }
+            if (ascii) {
+                writeVarint(length);
+                ensureCapacity(length);
+                for (int i = 0; i < length; i++) {
+                    buffer[position++] = (byte) v.charAt(i);
+                }
+            } else {
+                byte[] utf8 = v.getBytes(StandardCharsets.UTF_8);
+                writeVarint(utf8.length);
+                ensureCapacity(utf8.length);
+                System.arraycopy(utf8, 0, buffer, position, utf8.length);
+                position += utf8.length;
+            }
+        }
+
+        byte[] toByteArray() {
+            byte[] result = new byte[position];
+            System.arraycopy(buffer, 0, result, 0, position);
+            return result;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (position + extra > buffer.length) {
+                byte[] grown = new byte[Math.max(buffer.length * 2, position + extra)];
+                System.arraycopy(buffer, 0, grown, 0, position);
+                buffer = grown;
+            }
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] buffer;
+        private int position;
+
+        Reader(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        boolean hasRemaining() {
+            return position < buffer.length;
+        }
+
+        int readByte() {
+            require(1);
+            return buffer[position++] & 0xFF;
+        }
+
+        long readVarint() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("Varint inválido en el evento binario");
+        }
+
+        long readFixed64() {
+            require(8);
+            long result = 0;
+            for (int i = 0; i < 8; i++) {
+                result = (result << 8) | (buffer[position++] & 0xFF);
+            }
+            return result;
+        }
+
+        String readText(int wire) {
+            if (wire == WIRE_UUID) {
+                long high = readFixed64();
+                long low = readFixed64();
+                char[] text = new char[36];
+                writeHex(text, 0, high >>> 32, 8);
+                text[8] = '-';
+                writeHex(text, 9, high >>> 16, 4);
+                text[13] = '-';
+                writeHex(text, 14, high, 4);
+                text[18] = '-';
+                writeHex(text, 19, low >>> 48, 4);
+                text[23] = '-';
+                writeHex(text, 24, low, 12);
+                return new String(text);
+            }
+            expect(wire, WIRE_STRING);
+            int length = readLength();
+            String text = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return text;
+        }
+
+        long readLongField(int wire) {
+            expect(wire, WIRE_VARINT);
+            return unzigzag(readVarint());
+        }
+
+        Double readDoubleField(int wire) {
+            expect(wire, WIRE_FIXED64);
+            return Double.longBitsToDouble(readFixed64());
+        }
+
+        OffsetDateTime readTimestampField(int wire) {
+            expect(wire, WIRE_TIMESTAMP);
+            long seconds = unzigzag(readVarint());
+            long nanos = readVarint();
+            int offsetSeconds = (int) unzigzag(readVarint());
+            return OffsetDateTime.ofInstant(Instant.ofEpochSecond(seconds, nanos), ZoneOffset.ofTotalSeconds(offsetSeconds));
+        }
+
+        void skip(int wire) {
+            switch (wire) {
+                case WIRE_VARINT -> readVarint();
+                case WIRE_STRING -> position += readLength();
+                case WIRE_UUID -> {
+                    require(16);
+                    position += 16;
+                }
+                case WIRE_FIXED64 -> {
+                    require(8);
+                    position += 8;
+                }
+                case WIRE_TIMESTAMP -> {
+                    readVarint();
+                    readVarint();
+                    readVarint();
+                }
+                default -> throw new IllegalArgumentException("Tipo de dato desconocido en el evento binario: " + wire);
+            }
+        }
+
+        private int readLength() {
+            long length = readVarint();
+            if (length < 0 || length > buffer.length - position) {
+                throw new IllegalArgumentException("Evento binario truncado");
+            }
+            return (int) length;
+        }
+
+        private void require(int bytes) {
+            if (buffer.length - position < bytes) {
+                throw new IllegalArgumentException("Evento binario truncado");
+            }
+        }
+
+        private static void expect(int wire, int expected) {
+            if (wire != expected) {
+                throw new IllegalArgumentException("Tipo de dato inesperado en el evento binario: " + wire);
+            }
+        }
+    }
+
+    private static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    private static boolean isCanonicalUuid(String v) {
+        if (v.length() != 36) {
+            return false;
+        }
+        for (int i = 0; i < 36; i++) {
+            char c = v.charAt(i);
+            boolean dash = i == 8 || i == 13 || i == 18 || i == 23;
+            if (dash ? c != '-' : !((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long parseHex(String v, int from, int to) {
+        long result = 0;
+        for (int i = from; i < to; i++) {
+            result = (result << 4) | Character.digit(v.charAt(i), 16);
+        }
+        return result;
+    }
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static void writeHex(char[] text, int offset, long v, int digits) {
+        for (int i = digits - 1; i >= 0; i--) {
+            text[offset + i] = HEX[(int) (v & 0xF)];
+            v >>>= 4;
+        }
+    }
+}
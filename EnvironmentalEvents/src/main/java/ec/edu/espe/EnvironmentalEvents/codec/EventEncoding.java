@@ -0,0 +1,12 @@
+package ec.edu.espe.EnvironmentalEvents.codec;
+
+/**
+ * Formato con el que un servicio publica sus eventos. Al recibir siempre se aceptan ambos,
+ * según el content-type del mensaje (ver EventMessageConverter).
+ */
+public enum EventEncoding {
+    // application/json (Jackson), el formato original
+    JSON,
+    // application/x-environmental-event (EventBinaryCodec)
+    BINARY
+}
@@ -0,0 +1,57 @@
+package ec.edu.espe.EnvironmentalEvents.codec;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractMessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.lang.reflect.Type;
+
+/**
+ * MessageConverter de los eventos entre servicios que negocia por content-type:
+ * publica en el formato configurado (EventEncoding) y al recibir decodifica según el content-type
+ * del mensaje, de modo que productores JSON y binarios pueden convivir durante la migración.
+ * Los mensajes que no son binarios (y los objetos que no son eventos) se delegan al convertidor JSON.
+ */
+public class EventMessageConverter extends AbstractMessageConverter {
+
+    private final MessageConverter jsonConverter;
+    private final EventEncoding encoding;
+
+    public EventMessageConverter(MessageConverter jsonConverter, EventEncoding encoding) {
+        this.jsonConverter = jsonConverter;
+        this.encoding = encoding;
+    }
+
+    @Override
+    protected Message createMessage(Object object, MessageProperties messageProperties) {
+        if (encoding == EventEncoding.BINARY && EventBinaryCodec.supports(object.getClass())) {
+            byte[] body = EventBinaryCodec.encode(object);
+            messageProperties.setContentType(EventBinaryCodec.CONTENT_TYPE);
+            messageProperties.setContentLength(body.length);
+            return new Message(body, messageProperties);
+        }
+        return jsonConverter.toMessage(object, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) throws MessageConversionException {
+        MessageProperties properties = message.getMessageProperties();
+        if (properties != null && isBinary(properties.getContentType())) {
+            // El listener publica su tipo de parámetro como tipo inferido; sin él se usa el tipo publicado
+            Type inferred = properties.getInferredArgumentType();
+            Class<?> target = inferred instanceof Class<?> type && EventBinaryCodec.supports(type) ? type : Object.class;
+            try {
+                return EventBinaryCodec.decode(message.getBody(), target);
+            } catch (IllegalArgumentException e) {
+                throw new MessageConversionException("No se pudo decodificar el evento binario", e);
+            }
+        }
+        return jsonConverter.fromMessage(message);
+    }
+
+    private static boolean isBinary(String contentType) {
+        return contentType != null && contentType.startsWith(EventBinaryCodec.CONTENT_TYPE);
+    }
+}
@@ -1,18 +1,21 @@
-package ec.edu.espe.EnvironmentalAnalyzer.dto;
+package ec.edu.espe.EnvironmentalEvents.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import ec.edu.espe.EnvironmentalEvents.util.ScaledValueJson;
+import ec.edu.espe.EnvironmentalEvents.util.ScaledValues;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.io.Serializable;
-import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 
 /**
  * DTO para eventos de alerta generados por el EnvironmentalAnalyzer
  * Este DTO será enviado vía RabbitMQ al NotificationDispatcher
- * IMPORTANTE: Debe coincidir con el AlertEvent del NotificationDispatcher
+ * Contrato compartido: lo usan tanto el EnvironmentalAnalyzer como el NotificationDispatcher
  */
 @Data
 @Builder
@@ -23,7 +26,10 @@ public class AlertEvent implements Serializable {
     private String alertId;
     private String type; // ej. "HighTemperatureAlert", "SeismicActivityDetected", "LowHumidityWarning"
     private String sensorId;
-    private BigDecimal value;      // Valor que disparó la alerta
+    // Valor que disparó la alerta, escalado x100 (ver ScaledValues); en el JSON sigue siendo decimal
+    @JsonSerialize(using = ScaledValueJson.Serializer.class)
+    @JsonDeserialize(using = ScaledValueJson.Deserializer.class)
+    private long value;
     private Double threshold;      // Umbral que se superó
     private OffsetDateTime timestamp; // Momento de la alerta
     
@@ -34,6 +40,6 @@ public class AlertEvent implements Serializable {
     @Override
     public String toString() {
         return String.format("AlertEvent{id='%s', type='%s', sensor='%s', value=%s, threshold=%s}", 
-                alertId, type, sensorId, value, threshold);
+                alertId, type, sensorId, ScaledValues.toString(value), threshold);
     }
 }
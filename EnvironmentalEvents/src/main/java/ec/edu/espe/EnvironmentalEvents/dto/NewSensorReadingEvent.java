@@ -0,0 +1,31 @@
+package ec.edu.espe.EnvironmentalEvents.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import ec.edu.espe.EnvironmentalEvents.util.ScaledValueJson;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+
+/**
+ * DTO para eventos de nueva lectura de sensor
+ * Contrato compartido: lo publica el SensorDataCollector y lo consume el EnvironmentalAnalyzer
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NewSensorReadingEvent implements Serializable {
+    // Serializable es importante para que RabbitMQ pueda procesar el objeto.
+
+    private String eventId;
+    private String sensorId;
+    private String type;
+    // Valor escalado x100 (ver ScaledValues); en el mensaje JSON sigue siendo un número decimal
+    @JsonSerialize(using = ScaledValueJson.Serializer.class)
+    @JsonDeserialize(using = ScaledValueJson.Deserializer.class)
+    private long value;
+    private OffsetDateTime timestamp;
+}
\ No newline at end of file
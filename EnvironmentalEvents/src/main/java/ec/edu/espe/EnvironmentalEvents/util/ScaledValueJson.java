@@ -0,0 +1,58 @@
+package ec.edu.espe.EnvironmentalEvents.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Serialización JSON de los valores escalados (ver ScaledValues): en el JSON siguen siendo números
+ * decimales (23.45), de modo que el contrato entre servicios y con los clientes no cambia.
+ * La conversión trabaja directamente sobre los caracteres, sin crear BigDecimal.
+ */
+public final class ScaledValueJson {
+
+    private ScaledValueJson() {
+    }
+
+    public static class Serializer extends StdSerializer<Long> {
+
+        public Serializer() {
+            super(Long.class);
+        }
+
+        @Override
+        public void serialize(Long value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            char[] buffer = new char[24];
+            gen.writeNumber(buffer, 0, ScaledValues.format(value, buffer));
+        }
+    }
+
+    public static class Deserializer extends StdDeserializer<Long> {
+
+        public Deserializer() {
+            super(Long.class);
+        }
+
+        @Override
+        public Long deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken token = p.currentToken();
+            if (token == JsonToken.VALUE_NUMBER_INT) {
+                return Math.multiplyExact(p.getLongValue(), ScaledValues.FACTOR);
+            }
+            if (token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_STRING) {
+                try {
+                    return ScaledValues.parse(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+                } catch (IllegalArgumentException | ArithmeticException e) {
+                    return (Long) ctxt.handleWeirdStringValue(Long.class, p.getText(), e.getMessage());
+                }
+            }
+            return (Long) ctxt.handleUnexpectedToken(Long.class, p);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package ec.edu.espe.EnvironmentalEvents.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Representación de punto fijo de los valores de lectura: un long con el valor multiplicado por 100
+ * (dos decimales, igual que la columna DECIMAL(10,2)). Evita BigDecimal en la ruta de procesamiento;
+ * BigDecimal solo aparece en los bordes (JPA y conversiones explícitas).
+ */
+public final class ScaledValues {
+
+    public static final int SCALE = 2;
+    public static final long FACTOR = 100;
+
+    private ScaledValues() {
+    }
+
+    public static long fromBigDecimal(BigDecimal value) {
+        return value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long scaled) {
+        return BigDecimal.valueOf(scaled, SCALE);
+    }
+
+    public static long fromDouble(double value) {
+        return Math.round(value * FACTOR);
+    }
+
+    public static double toDouble(long scaled) {
+        return scaled / (double) FACTOR;
+    }
+
+    /**
+     * Convierte un número decimal en texto ("-12.345", "40", "7.5") a su valor escalado, redondeando
+     * al segundo decimal (HALF_UP). Las notaciones poco comunes (exponentes) usan BigDecimal.
+     * @throws IllegalArgumentException si el texto no es un número.
+     */
+    public static long parse(char[] text, int offset, int length) {
+        int i = offset;
+        int end = offset + length;
+        boolean negative = false;
+        if (i < end && (text[i] == '-' || text[i] == '+')) {
+            negative = text[i] == '-';
+            i++;
+        }
+        long integerPart = 0;
+        int integerDigits = 0;
+        while (i < end && text[i] >= '0' && text[i] <= '9') {
+            integerPart = Math.addExact(Math.multiplyExact(integerPart, 10), text[i] - '0');
+            integerDigits++;
+            i++;
+        }
+        long fraction = 0;
+        int fractionDigits = 0;
+        boolean roundUp = false;
+        if (i < end && text[i] == '.') {
+            i++;
+            while (i < end && text[i] >= '0' && text[i] <= '9') {
+                if (fractionDigits < SCALE) {
+                    fraction = fraction * 10 + (text[i] - '0');
+                } else if (fractionDigits == SCALE) {
+                    roundUp = text[i] >= '5';
+                }
+                fractionDigits++;
+                i++;
+            }
+        }
+        if (i != end || (integerDigits == 0 && fractionDigits == 0)) {
+            return parseSlow(text, offset, length);
+        }
+        for (int d = fractionDigits; d < SCALE; d++) {
+            fraction *= 10;
+        }
+        long magnitude = Math.addExact(Math.multiplyExact(integerPart, FACTOR), fraction + (roundUp ? 1 : 0));
+        return negative ? -magnitude : magnitude;
+    }
+
+    public static long parse(String text) {
+        return parse(text.toCharArray(), 0, text.length());
+    }
+
+    private static long parseSlow(char[] text, int offset, int length) {
+        try {
+            return fromBigDecimal(new BigDecimal(text, offset, length));
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException("Valor numérico inválido: " + new String(text, offset, length), e);
+        }
+    }
+
+    /**
+     * Escribe el valor con dos decimales en el buffer (al menos 21 caracteres) y devuelve la longitud.
+     */
+    public static int format(long scaled, char[] buffer) {
+        int pos = 0;
+        long magnitude = scaled;
+        if (scaled < 0) {
+            buffer[pos++] = '-';
+            magnitude = -scaled;
+        }
+        long integerPart = magnitude / FACTOR;
+        int fraction = (int) (magnitude % FACTOR);
+        int start = pos;
+        do {
+            buffer[pos++] = (char) ('0' + integerPart % 10);
+            integerPart /= 10;
+        } while (integerPart > 0);
+        for (int a = start, b = pos - 1; a < b; a++, b--) {
+            char tmp = buffer[a];
+            buffer[a] = buffer[b];
+            buffer[b] = tmp;
+        }
+        buffer[pos++] = '.';
+        buffer[pos++] = (char) ('0' + fraction / 10);
+        buffer[pos++] = (char) ('0' + fraction % 10);
+        return pos;
+    }
+
+    public static String toString(long scaled) {
+        char[] buffer = new char[24];
+        return new String(buffer, 0, format(scaled, buffer));
+    }
+}
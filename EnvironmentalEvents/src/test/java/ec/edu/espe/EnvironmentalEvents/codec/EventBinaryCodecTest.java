@@ -0,0 +1,85 @@
+package ec.edu.espe.EnvironmentalEvents.codec;
+
+import ec.edu.espe.EnvironmentalEvents.dto.AlertEvent;
+import ec.edu.espe.EnvironmentalEvents.dto.NewSensorReadingEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventBinaryCodecTest {
+
+	private static final OffsetDateTime TIMESTAMP = OffsetDateTime.of(2025, 7, 1, 12, 30, 15, 123456789, ZoneOffset.ofHours(-5));
+
+	@Test
+	void sensorReadingRoundTrips() {
+		NewSensorReadingEvent event = new NewSensorReadingEvent(UUID.randomUUID().toString(), "sensor-001", "temperature", -1234, TIMESTAMP);
+		assertEquals(event, EventBinaryCodec.decode(EventBinaryCodec.encode(event)));
+	}
+
+	@Test
+	void alertRoundTripsWithNonUuidIdsAndNulls() {
+		AlertEvent alert = AlertEvent.builder()
+				.alertId("ALERT-ÁÉ-1")
+				.type("HighTemperatureAlert")
+				.sensorId("sensor-001")
+				.value(4550)
+				.threshold(40.0)
+				.timestamp(TIMESTAMP)
+				.severity("CRITICAL")
+				.build();
+		assertEquals(alert, EventBinaryCodec.decode(EventBinaryCodec.encode(alert)));
+	}
+
+	@Test
+	void decodesIntoListenerTypeByPropertyName() {
+		AlertEvent alert = AlertEvent.builder().alertId("a1").type("LowHumidityWarning").sensorId("s1").value(1500).timestamp(TIMESTAMP).build();
+		NewSensorReadingEvent reading = EventBinaryCodec.decode(EventBinaryCodec.encode(alert), NewSensorReadingEvent.class);
+		assertNull(reading.getEventId());
+		assertEquals("s1", reading.getSensorId());
+		assertEquals("LowHumidityWarning", reading.getType());
+		assertEquals(1500, reading.getValue());
+		assertEquals(TIMESTAMP, reading.getTimestamp());
+	}
+
+	@Test
+	void rejectsTruncatedMessages() {
+		byte[] body = EventBinaryCodec.encode(new NewSensorReadingEvent("e1", "s1", "humidity", 1, TIMESTAMP));
+		assertThrows(IllegalArgumentException.class, () -> EventBinaryCodec.decode(Arrays.copyOf(body, body.length - 2)));
+		assertThrows(IllegalArgumentException.class, () -> EventBinaryCodec.decode(new byte[] {'{', '}'}));
+	}
+
+	@Test
+	void converterNegotiatesOnContentType() {
+		Jackson2JsonMessageConverter json = new Jackson2JsonMessageConverter();
+		EventMessageConverter binaryProducer = new EventMessageConverter(json, EventEncoding.BINARY);
+		EventMessageConverter jsonProducer = new EventMessageConverter(json, EventEncoding.JSON);
+		NewSensorReadingEvent event = new NewSensorReadingEvent(UUID.randomUUID().toString(), "sensor-001", "temperature", 2555, TIMESTAMP);
+
+		Message binary = binaryProducer.toMessage(event, new MessageProperties());
+		Message text = jsonProducer.toMessage(event, new MessageProperties());
+		assertEquals(EventBinaryCodec.CONTENT_TYPE, binary.getMessageProperties().getContentType());
+		assertEquals(MessageProperties.CONTENT_TYPE_JSON, text.getMessageProperties().getContentType());
+		assertTrue(binary.getBody().length * 2 < text.getBody().length);
+
+		// Un consumidor configurado en JSON acepta ambos formatos
+		binary.getMessageProperties().setInferredArgumentType(NewSensorReadingEvent.class);
+		text.getMessageProperties().setInferredArgumentType(NewSensorReadingEvent.class);
+		assertEquals(event, jsonProducer.fromMessage(binary));
+		NewSensorReadingEvent fromJson = (NewSensorReadingEvent) binaryProducer.fromMessage(text);
+		assertEquals(event.getValue(), fromJson.getValue());
+		assertEquals(event.getTimestamp().toInstant(), fromJson.getTimestamp().toInstant());
+		assertArrayEquals(binary.getBody(), EventBinaryCodec.encode(event));
+	}
+}
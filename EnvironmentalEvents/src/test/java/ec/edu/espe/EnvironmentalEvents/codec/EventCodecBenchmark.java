@@ -0,0 +1,91 @@
+package ec.edu.espe.EnvironmentalEvents.codec;
+
+import ec.edu.espe.EnvironmentalEvents.dto.NewSensorReadingEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el costo de publicar y recibir un NewSensorReadingEvent con el convertidor JSON original
+ * y con el binario, tal como los usa RabbitTemplate y el listener (incluye MessageProperties).
+ *
+ * Ejecutar con:
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) ec.edu.espe.EnvironmentalEvents.codec.EventCodecBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventCodecBenchmark {
+
+    private EventMessageConverter jsonConverter;
+    private EventMessageConverter binaryConverter;
+    private NewSensorReadingEvent event;
+    private Message jsonMessage;
+    private Message binaryMessage;
+
+    @Setup
+    public void setUp() {
+        Jackson2JsonMessageConverter json = new Jackson2JsonMessageConverter();
+        jsonConverter = new EventMessageConverter(json, EventEncoding.JSON);
+        binaryConverter = new EventMessageConverter(json, EventEncoding.BINARY);
+        event = new NewSensorReadingEvent(UUID.randomUUID().toString(), "sensor-001", "temperature", 2555,
+                OffsetDateTime.of(2025, 7, 1, 12, 30, 15, 123456789, ZoneOffset.UTC));
+        jsonMessage = received(jsonConverter.toMessage(event, new MessageProperties()));
+        binaryMessage = received(binaryConverter.toMessage(event, new MessageProperties()));
+    }
+
+    private static Message received(Message message) {
+        message.getMessageProperties().setInferredArgumentType(NewSensorReadingEvent.class);
+        return message;
+    }
+
+    @Benchmark
+    public Message encodeJson() {
+        return jsonConverter.toMessage(event, new MessageProperties());
+    }
+
+    @Benchmark
+    public Message encodeBinary() {
+        return binaryConverter.toMessage(event, new MessageProperties());
+    }
+
+    @Benchmark
+    public Object decodeJson() {
+        return jsonConverter.fromMessage(jsonMessage);
+    }
+
+    @Benchmark
+    public Object decodeBinary() {
+        return binaryConverter.fromMessage(binaryMessage);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        EventCodecBenchmark sizes = new EventCodecBenchmark();
+        sizes.setUp();
+        System.out.printf("Tamaño del mensaje: JSON=%d bytes, binario=%d bytes%n",
+                sizes.jsonMessage.getBody().length, sizes.binaryMessage.getBody().length);
+        new Runner(new OptionsBuilder().include(EventCodecBenchmark.class.getSimpleName()).build()).run();
+    }
+}
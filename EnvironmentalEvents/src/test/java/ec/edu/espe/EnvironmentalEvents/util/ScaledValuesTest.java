@@ -0,0 +1,35 @@
+package ec.edu.espe.EnvironmentalEvents.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ScaledValuesTest {
+
+	@Test
+	void parseMatchesBigDecimalRounding() {
+		String[] samples = {"0", "40", "-40", "7.5", "25.55", "-12.345", "1.005", "-1.005", "99.999", ".5", "1e2", "+3.14"};
+		for (String sample : samples) {
+			assertEquals(ScaledValues.fromBigDecimal(new BigDecimal(sample)), ScaledValues.parse(sample), sample);
+		}
+	}
+
+	@Test
+	void formatRoundTrips() {
+		long[] samples = {0, 5, -5, 100, -100, 2555, -1235, 10000, -10000, Long.MAX_VALUE};
+		for (long sample : samples) {
+			String text = ScaledValues.toString(sample);
+			assertEquals(ScaledValues.toBigDecimal(sample).toPlainString(), text);
+			assertEquals(sample, ScaledValues.parse(text));
+		}
+	}
+
+	@Test
+	void parseRejectsGarbage() {
+		assertThrows(IllegalArgumentException.class, () -> ScaledValues.parse("abc"));
+		assertThrows(IllegalArgumentException.class, () -> ScaledValues.parse("-"));
+	}
+}
@@ -1,5 +1,7 @@
 package ec.edu.espe.NotificationDispatcher.config;
 
+import ec.edu.espe.EnvironmentalEvents.codec.EventEncoding;
+import ec.edu.espe.EnvironmentalEvents.codec.EventMessageConverter;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.FanoutExchange;
@@ -12,6 +14,7 @@ import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 
 /**
  * Configuración de RabbitMQ para el NotificationDispatcher
@@ -26,6 +29,14 @@ public class RabbitMQConfig {
     @Value("${app-config.queues.dispatcher}")
     private String dispatcherQueueName;
 
+    // Formato con el que se publican los eventos (JSON o BINARY); al recibir se aceptan ambos
+    @Value("${app-config.events.encoding:JSON}")
+    private EventEncoding eventEncoding;
+
+    // Perfil virtual-threads (application-virtual-threads.yaml)
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
     @Bean
     public FanoutExchange globalEventsExchange() {
         return new FanoutExchange(globalEventsExchangeName, true, false);
@@ -43,10 +54,10 @@ public class RabbitMQConfig {
         return BindingBuilder.bind(dispatcherQueue).to(globalEventsExchange);
     }
 
+    // Publica en el formato configurado y al recibir negocia por content-type (JSON o binario)
     @Bean
-    public MessageConverter jsonMessageConverter() {
-        Jackson2JsonMessageConverter converter = new Jackson2JsonMessageConverter();
-        // Incluir información de tipo para mejorar la deserialización
+    public MessageConverter eventMessageConverter() {
+        EventMessageConverter converter = new EventMessageConverter(new Jackson2JsonMessageConverter(), eventEncoding);
         converter.setCreateMessageIds(true);
         return converter;
     }
@@ -54,7 +65,7 @@ public class RabbitMQConfig {
     @Bean
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
         RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
-        rabbitTemplate.setMessageConverter(jsonMessageConverter());
+        rabbitTemplate.setMessageConverter(eventMessageConverter());
         return rabbitTemplate;
     }
 
@@ -62,7 +73,11 @@ public class RabbitMQConfig {
     public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(ConnectionFactory connectionFactory) {
         SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
         factory.setConnectionFactory(connectionFactory);
-        factory.setMessageConverter(jsonMessageConverter());
+        factory.setMessageConverter(eventMessageConverter());
+        if (virtualThreads) {
+            // Esta fábrica no es la autoconfigurada, por lo que spring.threads.virtual.enabled no le aplica sola
+            factory.setTaskExecutor(new VirtualThreadTaskExecutor("rabbit-listener-"));
+        }
         return factory;
     }
 }
@@ -1,6 +1,7 @@
 package ec.edu.espe.NotificationDispatcher.listener;
 
-import ec.edu.espe.NotificationDispatcher.dto.AlertEvent;
+import ec.edu.espe.EnvironmentalEvents.dto.AlertEvent;
+import ec.edu.espe.EnvironmentalEvents.util.ScaledValues;
 import ec.edu.espe.NotificationDispatcher.service.NotificationService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
@@ -28,7 +29,7 @@ public class AlertEventListener {
     )
     public void handleGlobalEvent(AlertEvent event) {
         log.info("📨 AlertEvent recibido: tipo={}, sensor={}, valor={}", 
-                event.getType(), event.getSensorId(), event.getValue());
+                event.getType(), event.getSensorId(), ScaledValues.toString(event.getValue()));
         
         try {
             notificationService.processAlert(event);
@@ -1,6 +1,7 @@
 package ec.edu.espe.NotificationDispatcher.service;
 
-import ec.edu.espe.NotificationDispatcher.dto.AlertEvent;
+import ec.edu.espe.EnvironmentalEvents.dto.AlertEvent;
+import ec.edu.espe.EnvironmentalEvents.util.ScaledValues;
 import ec.edu.espe.NotificationDispatcher.model.NotificationLog;
 import ec.edu.espe.NotificationDispatcher.repository.NotificationLogRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -127,7 +128,7 @@ public class NotificationService {
     private void sendEmailNotification(AlertEvent event, AlertPriority priority) {
         try {
             log.info("📧 [SIMULACIÓN CORREO] Enviando a '{}': {} - Sensor {} reportó valor {}", 
-                    defaultEmailRecipient, event.getType(), event.getSensorId(), event.getValue());
+                    defaultEmailRecipient, event.getType(), event.getSensorId(), ScaledValues.toString(event.getValue()));
             
             saveNotificationLog(event, emailChannel, statusSent, defaultEmailRecipient, priority);
             
@@ -143,7 +144,7 @@ public class NotificationService {
     private void sendSmsNotification(AlertEvent event, AlertPriority priority) {
         try {
             log.info("📱 [SIMULACIÓN SMS] Enviando a '{}': Alerta: {}, Sensor: {}, Valor: {}", 
-                    defaultSmsRecipient, event.getType(), event.getSensorId(), event.getValue());
+                    defaultSmsRecipient, event.getType(), event.getSensorId(), ScaledValues.toString(event.getValue()));
             
             saveNotificationLog(event, smsChannel, statusSent, defaultSmsRecipient, priority);
             
@@ -161,7 +162,7 @@ public class NotificationService {
             System.out.println("🔔 ================= PUSH NOTIFICATION ==================");
             System.out.printf("📢 ALERTA %s: %s\n", priority.name(), event.getType());
             System.out.printf("🌡️  Sensor: %s\n", event.getSensorId());
-            System.out.printf("📊 Valor: %s (Umbral: %s)\n", event.getValue(), event.getThreshold());
+            System.out.printf("📊 Valor: %s (Umbral: %s)\n", ScaledValues.toString(event.getValue()), event.getThreshold());
             System.out.printf("⏰ Timestamp: %s\n", event.getTimestamp());
             System.out.println("======================================================");
             
@@ -2,8 +2,10 @@ package ec.edu.espe.SensorDataCollector;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling // Para el relay del outbox y demás tareas @Scheduled
 public class SensorDataCollectorApplication {
 
 	public static void main(String[] args) {
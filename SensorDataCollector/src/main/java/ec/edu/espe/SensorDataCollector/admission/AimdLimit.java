@@ -0,0 +1,99 @@
+package ec.edu.espe.SensorDataCollector.admission;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Límite de concurrencia adaptativo AIMD (additive increase, multiplicative decrease).
+ * Cada trabajo admitido devuelve su latencia al terminar: si supera latencyThreshold o falló, el límite
+ * se multiplica por backoffRatio (como máximo una vez por latencia observada, para que una ráfaga de
+ * respuestas lentas cuente como una sola señal); si fue rápido y el límite se estaba usando, crece
+ * en 1/limit, es decir, alrededor de una unidad por cada "ronda" de trabajos.
+ */
+public class AimdLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+    private volatile double averageLatencyNanos;
+    private long lastDecreaseNanos = Long.MIN_VALUE; // MIN_VALUE: aún sin reducciones
+
+    public AimdLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio, long latencyThresholdMs) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Se requiere 1 <= minLimit <= maxLimit");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio debe estar entre 0 y 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMs);
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * @return true si el trabajo fue admitido; en ese caso debe llamarse a release al terminar.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param latencyNanos Duración del trabajo, o un valor negativo si no debe usarse como muestra.
+     * @param failed true si el trabajo falló por sobrecarga o por error de la base de datos o del broker.
+     */
+    public void release(long latencyNanos, boolean failed) {
+        int before = inFlight.getAndDecrement();
+        if (latencyNanos < 0 && !failed) {
+            return;
+        }
+        synchronized (this) {
+            if (latencyNanos >= 0) {
+                double average = averageLatencyNanos;
+                averageLatencyNanos = average == 0 ? latencyNanos : average * 0.9 + latencyNanos * 0.1;
+            }
+            long now = System.nanoTime();
+            if (failed || latencyNanos > latencyThresholdNanos) {
+                if (lastDecreaseNanos == Long.MIN_VALUE
+                        || now - lastDecreaseNanos >= Math.max(latencyNanos, latencyThresholdNanos)) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastDecreaseNanos = now;
+                }
+            } else if (before * 2 >= limit) {
+                // Solo crece si el límite actual se está usando; si no, no hay evidencia de que sobre capacidad
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Segundos sugeridos antes de reintentar: el tiempo estimado para que se libere el trabajo en curso
+     * (en curso / límite rondas de la latencia media reciente), acotado entre 1 y maxSeconds.
+     */
+    public long retryAfterSeconds(long maxSeconds) {
+        double rounds = (double) inFlight.get() / Math.max(1, (int) limit);
+        double seconds = rounds * averageLatencyNanos / 1_000_000_000d;
+        return Math.max(1, Math.min(maxSeconds, (long) Math.ceil(seconds)));
+    }
+}
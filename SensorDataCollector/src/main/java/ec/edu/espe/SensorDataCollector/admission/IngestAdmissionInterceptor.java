@@ -0,0 +1,89 @@
+package ec.edu.espe.SensorDataCollector.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Control de admisión de la ingesta HTTP (POST /sensor-readings y /sensor-readings/batch).
+ * Antes de leer el cuerpo, cada petición pide un lugar en un límite de concurrencia AIMD que se
+ * ajusta con la latencia de las peticiones admitidas (escritura en la base de datos y envío a RabbitMQ)
+ * y con sus fallos (5xx, incluido el 503 del buffer write-behind lleno). Sin lugar, se responde 429
+ * con Retry-After de inmediato, en lugar de dejar la petición esperando en un hilo de Tomcat.
+ */
+@Component
+@Slf4j
+public class IngestAdmissionInterceptor implements HandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = IngestAdmissionInterceptor.class.getName() + ".start";
+
+    private final AimdLimit limit;
+    private final Counter rejectedCounter;
+
+    @Value("${app.ingest.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.ingest.admission.max-retry-after-seconds:30}")
+    private long maxRetryAfterSeconds;
+
+    public IngestAdmissionInterceptor(MeterRegistry meterRegistry,
+                                      @Value("${app.ingest.admission.initial-limit:100}") int initialLimit,
+                                      @Value("${app.ingest.admission.min-limit:10}") int minLimit,
+                                      @Value("${app.ingest.admission.max-limit:1000}") int maxLimit,
+                                      @Value("${app.ingest.admission.backoff-ratio:0.9}") double backoffRatio,
+                                      @Value("${app.ingest.admission.latency-threshold-ms:250}") long latencyThresholdMs) {
+        this.limit = new AimdLimit(initialLimit, minLimit, maxLimit, backoffRatio, latencyThresholdMs);
+
+        Gauge.builder("sensor.ingest.admission.limit", limit, AimdLimit::getLimit)
+                .description("Peticiones de ingesta concurrentes admitidas como máximo (límite AIMD actual)")
+                .register(meterRegistry);
+        Gauge.builder("sensor.ingest.admission.in-flight", limit, AimdLimit::getInFlight)
+                .description("Peticiones de ingesta admitidas en curso")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("sensor.ingest.admission.rejected")
+                .description("Peticiones de ingesta rechazadas con 429 por sobrecarga")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!enabled || !"POST".equals(request.getMethod())) {
+            return true;
+        }
+        if (limit.tryAcquire()) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+            return true;
+        }
+        rejectedCounter.increment();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(limit.retryAfterSeconds(maxRetryAfterSeconds)));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("Colector sobrecargado, reintente más tarde.");
+        return false;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (start == null) {
+            return;
+        }
+        request.removeAttribute(START_ATTRIBUTE);
+        boolean failed = ex != null || response.getStatus() >= 500;
+        // Un lote tarda más que una lectura sin indicar sobrecarga: solo aporta su resultado, no su latencia
+        boolean batch = request.getRequestURI().endsWith("/batch");
+        limit.release(batch ? -1 : System.nanoTime() - (long) start, failed);
+    }
+}
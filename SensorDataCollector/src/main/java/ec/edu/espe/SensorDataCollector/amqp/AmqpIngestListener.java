@@ -0,0 +1,138 @@
+package ec.edu.espe.SensorDataCollector.amqp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ec.edu.espe.SensorDataCollector.dto.BatchIngestResponse;
+import ec.edu.espe.SensorDataCollector.dto.SensorReadingRequest;
+import ec.edu.espe.SensorDataCollector.service.SensorDataService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ingesta directa desde RabbitMQ para gateways de alto volumen: consume la cola de ingesta del colector
+ * en lotes de mensajes (readingIngestContainerFactory) y los pasa a SensorDataService.processBatch,
+ * con la misma validación, deduplicación, escritura multi-fila y publicación que POST /sensor-readings/batch.
+ *
+ * El contenedor confirma el lote completo con un solo ack al volver de onReadings. Cada tramo de processBatch
+ * es su propia transacción y se reintenta hasta max-attempts veces; un tramo que falla no repite los que ya se
+ * guardaron. Si alguno agota sus intentos, el lote se rechaza sin reencolar y va a la cola de dead letters;
+ * al reinyectarlo, lo que ya se guardó se descarta como duplicado. Las lecturas mal formadas o inválidas se
+ * cuentan y se descartan (no tienen a quién responder).
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.ingest.amqp.enabled", havingValue = "true", matchIfMissing = true)
+public class AmqpIngestListener {
+
+    private final SensorDataService sensorDataService;
+    private final ObjectMapper objectMapper;
+
+    private final Counter messages;
+    private final Counter readings;
+    private final Counter malformed;
+    private final Counter rejected;
+    private final Counter failed;
+
+    @Value("${app.ingest.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    @Value("${app.ingest.amqp.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.ingest.amqp.retry-backoff-ms:200}")
+    private long retryBackoffMs;
+
+    public AmqpIngestListener(SensorDataService sensorDataService,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry) {
+        this.sensorDataService = sensorDataService;
+        this.objectMapper = objectMapper;
+
+        this.messages = Counter.builder("sensor.ingest.amqp.messages")
+                .description("Mensajes consumidos de la cola de ingesta")
+                .register(meterRegistry);
+        this.readings = Counter.builder("sensor.ingest.amqp.readings")
+                .description("Lecturas recibidas por la cola de ingesta")
+                .register(meterRegistry);
+        this.malformed = Counter.builder("sensor.ingest.amqp.malformed")
+                .description("Mensajes o líneas de la cola de ingesta que no se pudieron interpretar")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("sensor.ingest.amqp.rejected")
+                .description("Lecturas de la cola de ingesta rechazadas por la validación")
+                .register(meterRegistry);
+        this.failed = Counter.builder("sensor.ingest.amqp.failed")
+                .description("Lecturas de la cola de ingesta que no se pudieron guardar y fueron a dead letters")
+                .register(meterRegistry);
+    }
+
+    @RabbitListener(
+        queues = "${app.rabbitmq.queue-name}",
+        containerFactory = "readingIngestContainerFactory"
+    )
+    public void onReadings(List<Message> batch) {
+        // El contenedor puede usar varios consumidores en paralelo; el parser no es thread-safe
+        ReadingMessageParser parser = new ReadingMessageParser(objectMapper);
+        List<SensorReadingRequest> requests = new ArrayList<>();
+        int malformedCount = 0;
+        for (Message message : batch) {
+            malformedCount += parser.parse(message.getBody(), message.getMessageProperties().getContentType(), requests);
+        }
+        messages.increment(batch.size());
+        readings.increment(requests.size());
+        if (malformedCount > 0) {
+            malformed.increment(malformedCount);
+            log.warn("{} lecturas de {} mensajes AMQP no se pudieron interpretar", malformedCount, batch.size());
+        }
+
+        // Un mensaje puede traer un arreglo grande: cada tramo es una transacción de processBatch
+        int failedCount = 0;
+        RuntimeException lastError = null;
+        for (int from = 0; from < requests.size(); from += maxBatchSize) {
+            List<SensorReadingRequest> chunk = requests.subList(from, Math.min(from + maxBatchSize, requests.size()));
+            try {
+                BatchIngestResponse response = processChunk(chunk);
+                if (response.getRejected() > 0) {
+                    rejected.increment(response.getRejected());
+                    log.debug("{} de {} lecturas AMQP rechazadas", response.getRejected(), chunk.size());
+                }
+            } catch (RuntimeException e) {
+                failedCount += chunk.size();
+                lastError = e;
+            }
+        }
+        if (lastError != null) {
+            failed.increment(failedCount);
+            log.error("{} de {} lecturas AMQP no se pudieron guardar tras {} intentos; el lote va a dead letters. Error: {}",
+                    failedCount, requests.size(), maxAttempts, lastError.getMessage());
+            throw new AmqpRejectAndDontRequeueException("Lote de ingesta no guardado", lastError);
+        }
+    }
+
+    private BatchIngestResponse processChunk(List<SensorReadingRequest> chunk) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return sensorDataService.processBatch(chunk);
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                log.warn("Intento {} de guardar {} lecturas AMQP falló: {}", attempt, chunk.size(), e.getMessage());
+                try {
+                    Thread.sleep(retryBackoffMs * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package ec.edu.espe.SensorDataCollector.amqp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import ec.edu.espe.SensorDataCollector.dto.SensorReadingRequest;
+import ec.edu.espe.SensorDataCollector.nio.ReadingLineParser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Convierte el cuerpo de un mensaje de la cola de ingesta en lecturas. Formatos aceptados:
+ * - application/json (o sin content-type): una lectura con el mismo JSON que POST /sensor-readings,
+ *   o un arreglo de lecturas.
+ * - text/plain o text/csv: una lectura por línea en el formato compacto de ReadingLineParser.
+ * Cada instancia debe usarse desde un único hilo (ReadingLineParser reutiliza sus buffers).
+ */
+public class ReadingMessageParser {
+
+    private final ObjectReader singleReader;
+    private final ObjectReader listReader;
+    private final ReadingLineParser lineParser = new ReadingLineParser();
+    private final List<ReadingLineParser.Line> lines = new ArrayList<>();
+
+    public ReadingMessageParser(ObjectMapper objectMapper) {
+        this.singleReader = objectMapper.readerFor(SensorReadingRequest.class);
+        this.listReader = objectMapper.readerForListOf(SensorReadingRequest.class);
+    }
+
+    /**
+     * Agrega a out las lecturas del mensaje.
+     * @return Cantidad de lecturas (o mensajes completos, si el JSON no es válido) que no se pudieron interpretar.
+     */
+    public int parse(byte[] body, String contentType, List<SensorReadingRequest> out) {
+        if (contentType != null && contentType.startsWith("text/")) {
+            return parseLines(body, out);
+        }
+        try {
+            if (startsWithArray(body)) {
+                List<SensorReadingRequest> requests = listReader.readValue(body);
+                for (SensorReadingRequest request : requests) {
+                    // Un null dentro del arreglo no es una lectura
+                    if (request != null) {
+                        out.add(request);
+                    }
+                }
+            } else {
+                out.add(singleReader.readValue(body));
+            }
+            return 0;
+        } catch (IOException e) {
+            return 1;
+        }
+    }
+
+    private int parseLines(byte[] body, List<SensorReadingRequest> out) {
+        lines.clear();
+        lineParser.parseLines(ByteBuffer.wrap(body), true, lines);
+        int malformed = 0;
+        for (ReadingLineParser.Line line : lines) {
+            if (line.request() != null) {
+                out.add(line.request());
+            } else {
+                malformed++;
+            }
+        }
+        return malformed;
+    }
+
+    private static boolean startsWithArray(byte[] body) {
+        for (byte b : body) {
+            if (b != ' ' && b != '\t' && b != '\r' && b != '\n') {
+                return b == '[';
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,49 @@
+package ec.edu.espe.SensorDataCollector.archive;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Puntos archivados de un sensor en orden cronológico, mezclando los segmentos (merge de k vías): los
+ * segmentos adicionales de un día re-archivado intercalan sus timestamps con los del primero.
+ * Tras crearlo queda en el primer punto; hasPoint() indica si queda alguno.
+ */
+public final class ArchiveCursor {
+
+    private final PriorityQueue<SegmentFile.Cursor> heads =
+            new PriorityQueue<>(Comparator.comparingLong(SegmentFile.Cursor::getTimestamp));
+    private SegmentFile.Cursor current;
+
+    ArchiveCursor(List<SegmentFile.Cursor> cursors) {
+        for (SegmentFile.Cursor cursor : cursors) {
+            if (cursor.next()) {
+                heads.add(cursor);
+            }
+        }
+        current = heads.poll();
+    }
+
+    public boolean hasPoint() {
+        return current != null;
+    }
+
+    public String getType() {
+        return current.getType();
+    }
+
+    public long getTimestamp() {
+        return current.getTimestamp();
+    }
+
+    public long getValue() {
+        return current.getValue();
+    }
+
+    public void advance() {
+        if (current.next()) {
+            heads.add(current);
+        }
+        current = heads.poll();
+    }
+}
@@ -0,0 +1,38 @@
+package ec.edu.espe.SensorDataCollector.archive;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Archivo frío de lecturas en segmentos columnares (app.archive en application.yaml).
+ */
+@Data
+@ConfigurationProperties(prefix = "app.archive")
+public class ArchiveProperties {
+
+    // Activa la lectura de los segmentos en las consultas por rango
+    private boolean enabled = false;
+
+    // Activa la tarea que mueve lecturas de la base de datos a los segmentos; con varias instancias, en una sola
+    private boolean jobEnabled = true;
+
+    // Directorio de los segmentos; con varias instancias debe ser compartido por todas
+    private String directory = "data/archive";
+
+    // Antigüedad a partir de la cual los días completos se mueven al archivo
+    private Duration archiveAfter = Duration.ofDays(180);
+
+    // Filas por viaje a la base de datos al leer el día a archivar
+    private int fetchSize = 5000;
+
+    // IDs por DELETE al quitar de la tabla las lecturas ya archivadas
+    private int deleteChunkSize = 1000;
+
+    // Pausa mínima entre borrados; si un borrado tarda más, la pausa se alarga a su duración
+    private Duration pause = Duration.ofMillis(100);
+
+    // Tiempo máximo de una ejecución; la siguiente continúa desde el mismo sensor
+    private Duration maxRunDuration = Duration.ofHours(1);
+}
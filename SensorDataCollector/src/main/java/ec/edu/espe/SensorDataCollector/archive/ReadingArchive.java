@@ -0,0 +1,224 @@
+package ec.edu.espe.SensorDataCollector.archive;
+
+import ec.edu.espe.SensorDataCollector.dto.ReadingPoint;
+import ec.edu.espe.SensorDataCollector.model.EpochMicros;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Segmentos del archivo frío en disco: un directorio por sensor y un archivo por día
+ * (directory/{sensorId}/2025-07-01.seg). Si un día se archiva de nuevo (lecturas que llegaron tarde o una
+ * ejecución interrumpida) se agrega otro segmento del mismo día (2025-07-01.1.seg). Un segmento solo se
+ * reemplaza (de forma atómica) o se borra cuando la purga de retención quita sus puntos vencidos.
+ */
+@Component
+@EnableConfigurationProperties(ArchiveProperties.class)
+public class ReadingArchive {
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final ArchiveProperties properties;
+    private final Path root;
+    private final Counter segmentsRead;
+
+    public ReadingArchive(ArchiveProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.root = Paths.get(properties.getDirectory());
+        this.segmentsRead = Counter.builder("sensor.archive.segments.read")
+                .description("Segmentos del archivo leídos por las consultas")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Ruta libre para un nuevo segmento del sensor y el día, creando su directorio si hace falta.
+     */
+    public Path newSegmentPath(String sensorId, LocalDate day) throws IOException {
+        Path sensorDir = Files.createDirectories(root.resolve(directoryName(sensorId)));
+        Path path = sensorDir.resolve(day + SEGMENT_SUFFIX);
+        for (int sequence = 1; Files.exists(path); sequence++) {
+            path = sensorDir.resolve(day + "." + sequence + SEGMENT_SUFFIX);
+        }
+        return path;
+    }
+
+    /**
+     * Puntos archivados del sensor con timestamp en [from, to), en orden cronológico.
+     * @param to Límite superior exclusivo, o null.
+     */
+    public List<ReadingPoint> find(String sensorId, OffsetDateTime from, OffsetDateTime to) {
+        List<ReadingPoint> points = new ArrayList<>();
+        ArchiveCursor cursor = open(sensorId, from, to);
+        for (; cursor.hasPoint(); cursor.advance()) {
+            points.add(new ReadingPoint(cursor.getType(), cursor.getValue(), EpochMicros.toOffsetDateTime(cursor.getTimestamp())));
+        }
+        return points;
+    }
+
+    /**
+     * Cursor en orden cronológico sobre los puntos archivados del sensor con timestamp en [from, to), sin
+     * crear objetos por punto. Mapea los segmentos de los días del rango.
+     * @param to Límite superior exclusivo, o null.
+     */
+    public ArchiveCursor open(String sensorId, OffsetDateTime from, OffsetDateTime to) {
+        List<SegmentFile.Cursor> cursors = new ArrayList<>();
+        Path sensorDir = root.resolve(directoryName(sensorId));
+        if (!Files.isDirectory(sensorDir)) {
+            return new ArchiveCursor(cursors);
+        }
+        long fromMicros = EpochMicros.of(from);
+        long toMicros = to != null ? EpochMicros.of(to) : Long.MAX_VALUE;
+        LocalDate firstDay = from.withOffsetSameInstant(ZoneOffset.UTC).toLocalDate();
+        LocalDate lastDay = to != null ? to.withOffsetSameInstant(ZoneOffset.UTC).toLocalDate() : LocalDate.MAX;
+        try (DirectoryStream<Path> segments = Files.newDirectoryStream(sensorDir, "*" + SEGMENT_SUFFIX)) {
+            for (Path path : segments) {
+                LocalDate day = dayOf(path);
+                if (day != null && !day.isBefore(firstDay) && !day.isAfter(lastDay)) {
+                    cursors.add(SegmentFile.open(path).cursor(fromMicros, toMicros));
+                    segmentsRead.increment();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al leer el archivo del sensor " + sensorId, e);
+        }
+        return new ArchiveCursor(cursors);
+    }
+
+    /**
+     * Fin (exclusivo, inicio del día siguiente) del día archivado más reciente del sensor dentro de [from, to),
+     * o null si el archivo no tiene segmentos del sensor en el rango.
+     * @param from Inicio del rango, o null para desde el principio.
+     * @param to Límite superior exclusivo, o null.
+     */
+    public OffsetDateTime findArchivedUntil(String sensorId, OffsetDateTime from, OffsetDateTime to) {
+        Path sensorDir = root.resolve(directoryName(sensorId));
+        if (!Files.isDirectory(sensorDir)) {
+            return null;
+        }
+        LocalDate firstDay = from != null ? from.withOffsetSameInstant(ZoneOffset.UTC).toLocalDate() : LocalDate.MIN;
+        LocalDate lastDay = to != null ? to.withOffsetSameInstant(ZoneOffset.UTC).toLocalDate() : LocalDate.MAX;
+        LocalDate latest = null;
+        try (DirectoryStream<Path> segments = Files.newDirectoryStream(sensorDir, "*" + SEGMENT_SUFFIX)) {
+            for (Path path : segments) {
+                LocalDate day = dayOf(path);
+                if (day != null && !day.isBefore(firstDay) && !day.isAfter(lastDay)
+                        && (latest == null || day.isAfter(latest))) {
+                    latest = day;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al leer el archivo del sensor " + sensorId, e);
+        }
+        if (latest == null) {
+            return null;
+        }
+        OffsetDateTime end = latest.plusDays(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+        return to != null && to.isBefore(end) ? to : end;
+    }
+
+    /**
+     * Quita de los segmentos los puntos vencidos según los TTL por tipo, con el mismo criterio que la purga de
+     * sensor_readings. Solo se revisan los segmentos de días anteriores al vencimiento más reciente; el que
+     * pierde puntos se reescribe con los que quedan (o se borra si no queda ninguno).
+     * @param latestCutoff Vencimiento más reciente de todos los tipos.
+     * @param cutoffByType Tipo en minúsculas -> instante antes del cual sus lecturas vencen.
+     * @param defaultCutoff Vencimiento de los demás tipos, o null para conservarlos.
+     * @return Puntos quitados del archivo.
+     */
+    public long purgeExpired(OffsetDateTime latestCutoff, Map<String, OffsetDateTime> cutoffByType,
+                             OffsetDateTime defaultCutoff) throws IOException {
+        if (!Files.isDirectory(root)) {
+            return 0;
+        }
+        LocalDate lastDay = latestCutoff.withOffsetSameInstant(ZoneOffset.UTC).toLocalDate();
+        Map<String, Long> cutoffMicrosByType = new HashMap<>();
+        cutoffByType.forEach((type, cutoff) -> cutoffMicrosByType.put(type, EpochMicros.of(cutoff)));
+        long defaultCutoffMicros = defaultCutoff != null ? EpochMicros.of(defaultCutoff) : Long.MIN_VALUE;
+        long removed = 0;
+        try (DirectoryStream<Path> sensorDirs = Files.newDirectoryStream(root, Files::isDirectory)) {
+            for (Path sensorDir : sensorDirs) {
+                try (DirectoryStream<Path> segments = Files.newDirectoryStream(sensorDir, "*" + SEGMENT_SUFFIX)) {
+                    for (Path path : segments) {
+                        LocalDate day = dayOf(path);
+                        if (day != null && !day.isAfter(lastDay)) {
+                            removed += purgeSegment(path, cutoffMicrosByType, defaultCutoffMicros);
+                        }
+                    }
+                }
+            }
+        }
+        return removed;
+    }
+
+    private static int purgeSegment(Path path, Map<String, Long> cutoffMicrosByType, long defaultCutoffMicros)
+            throws IOException {
+        SegmentFile segment = SegmentFile.open(path);
+        SegmentWriter kept = new SegmentWriter();
+        segment.forEach(Long.MIN_VALUE, Long.MAX_VALUE, (type, timestampMicros, value) -> {
+            long cutoff = cutoffMicrosByType.getOrDefault(type.toLowerCase(Locale.ROOT), defaultCutoffMicros);
+            if (timestampMicros >= cutoff) {
+                kept.add(type, timestampMicros, value);
+            }
+        });
+        int removed = segment.getCount() - kept.getCount();
+        if (removed == 0) {
+            return 0;
+        }
+        // Las consultas en curso conservan su mapeo del segmento anterior
+        if (kept.getCount() == 0) {
+            Files.delete(path);
+        } else {
+            kept.writeTo(path);
+        }
+        return removed;
+    }
+
+    private static LocalDate dayOf(Path path) {
+        String name = path.getFileName().toString();
+        try {
+            return name.length() < 10 ? null : LocalDate.parse(name.substring(0, 10));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Nombre de directorio seguro para cualquier sensorId: letras, dígitos, '-' y '_' quedan igual y el
+     * resto se escribe como %XX (incluido '.', para que ningún sensorId salga del directorio raíz).
+     */
+    static String directoryName(String sensorId) {
+        StringBuilder name = new StringBuilder(sensorId.length() + 8);
+        for (byte b : sensorId.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-' || c == '_') {
+                name.append(c);
+            } else {
+                name.append('%').append(Character.toUpperCase(Character.forDigit(c >> 4, 16)))
+                        .append(Character.toUpperCase(Character.forDigit(c & 0xF, 16)));
+            }
+        }
+        return name.toString();
+    }
+}
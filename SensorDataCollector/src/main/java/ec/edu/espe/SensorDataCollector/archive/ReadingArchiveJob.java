@@ -0,0 +1,164 @@
+package ec.edu.espe.SensorDataCollector.archive;
+
+import ec.edu.espe.SensorDataCollector.model.EpochMicros;
+import ec.edu.espe.SensorDataCollector.repository.ReadConsistency;
+import ec.edu.espe.SensorDataCollector.repository.SensorReadingJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mueve a segmentos del archivo frío (ReadingArchive) las lecturas de sensor_readings de los días completos
+ * más antiguos que app.archive.archive-after. Recorre los sensores en orden de sensor_id y, por cada uno, sus
+ * días a archivar del más antiguo al más reciente: lee el día, escribe y sincroniza el segmento y recién
+ * entonces borra esas filas por ID en lotes pausados, como la purga de retención.
+ *
+ * Si el proceso cae entre la escritura y el borrado, el día se archiva otra vez en un segmento adicional; las
+ * consultas descartan los puntos repetidos. Una ejecución que agota max-run-duration continúa en la siguiente
+ * desde el mismo sensor.
+ */
+@Component
+@Slf4j
+public class ReadingArchiveJob {
+
+    private final SensorReadingJdbcRepository sensorReadingJdbcRepository;
+    private final ReadingArchive readingArchive;
+    private final ArchiveProperties properties;
+    private final TransactionTemplate readOnlyTransaction;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong runArchived = new AtomicLong();
+    private final Counter archivedCounter;
+    private final Counter segmentsCounter;
+    private final Timer runTimer;
+
+    // Sensor en el que se detuvo la ejecución anterior por max-run-duration, o null para empezar desde el inicio
+    private volatile String resumeSensor;
+
+    public ReadingArchiveJob(SensorReadingJdbcRepository sensorReadingJdbcRepository,
+                             ReadingArchive readingArchive,
+                             ArchiveProperties properties,
+                             TransactionTemplate transactionTemplate,
+                             MeterRegistry meterRegistry) {
+        this.sensorReadingJdbcRepository = sensorReadingJdbcRepository;
+        this.readingArchive = readingArchive;
+        this.properties = properties;
+        // La lectura de cada día usa un cursor con fetch size, que el driver solo respeta dentro de una transacción
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+
+        Gauge.builder("sensor.archive.run.archived", runArchived, AtomicLong::get)
+                .description("Lecturas archivadas por la ejecución en curso (o la última)")
+                .register(meterRegistry);
+        Gauge.builder("sensor.archive.run.active", running, r -> r.get() ? 1 : 0)
+                .description("1 mientras hay un archivado en curso")
+                .register(meterRegistry);
+        this.archivedCounter = Counter.builder("sensor.archive.readings")
+                .description("Lecturas movidas de la base de datos al archivo")
+                .register(meterRegistry);
+        this.segmentsCounter = Counter.builder("sensor.archive.segments.written")
+                .description("Segmentos escritos en el archivo")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("sensor.archive.run")
+                .description("Duración de cada ejecución del archivado")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.archive.cron:0 45 3 * * *}")
+    public void archiveOldReadings() {
+        if (!properties.isEnabled() || !properties.isJobEnabled()) {
+            return;
+        }
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            archive(start);
+        } catch (Exception e) {
+            log.error("Error en el archivado de lecturas. Se continuará en la próxima ejecución. Error: {}", e.getMessage());
+        } finally {
+            runTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            running.set(false);
+        }
+    }
+
+    private void archive(long startNanos) throws IOException, InterruptedException {
+        // Solo días completos: el corte cae al inicio de un día UTC
+        OffsetDateTime cutoff = LocalDate.now(ZoneOffset.UTC)
+                .minusDays(properties.getArchiveAfter().toDays())
+                .atStartOfDay().atOffset(ZoneOffset.UTC);
+        long deadline = startNanos + properties.getMaxRunDuration().toNanos();
+
+        String sensorId = resumeSensor != null ? resumeSensor : sensorReadingJdbcRepository.findNextSensorId("");
+        if (resumeSensor == null) {
+            runArchived.set(0);
+        }
+        log.info("Archivado de lecturas anteriores a {} iniciado (desde sensor={})", cutoff, sensorId);
+
+        while (sensorId != null) {
+            OffsetDateTime oldest;
+            while ((oldest = sensorReadingJdbcRepository.findOldestTimestampBefore(sensorId, cutoff)) != null) {
+                if (System.nanoTime() > deadline) {
+                    resumeSensor = sensorId;
+                    log.info("Archivado pausado tras {}: {} lecturas archivadas, continúa en la próxima ejecución",
+                            properties.getMaxRunDuration(), runArchived.get());
+                    return;
+                }
+                OffsetDateTime dayStart = oldest.withOffsetSameInstant(ZoneOffset.UTC).toLocalDate()
+                        .atStartOfDay().atOffset(ZoneOffset.UTC);
+                OffsetDateTime dayEnd = dayStart.plusDays(1).isAfter(cutoff) ? cutoff : dayStart.plusDays(1);
+                archiveDay(sensorId, dayStart, dayEnd);
+            }
+            sensorId = sensorReadingJdbcRepository.findNextSensorId(sensorId);
+        }
+        resumeSensor = null;
+        log.info("Archivado de lecturas terminado: {} lecturas archivadas", runArchived.get());
+    }
+
+    private void archiveDay(String sensorId, OffsetDateTime dayStart, OffsetDateTime dayEnd)
+            throws IOException, InterruptedException {
+        SegmentWriter writer = new SegmentWriter();
+        List<UUID> ids = new ArrayList<>();
+        readOnlyTransaction.executeWithoutResult(status -> sensorReadingJdbcRepository.streamChronological(
+                sensorId, dayStart, dayEnd, properties.getFetchSize(), ReadConsistency.STRONG, reading -> {
+                    writer.add(reading.getType(), EpochMicros.of(reading.getTimestamp()), reading.getValue());
+                    ids.add(reading.getId());
+                }));
+        if (ids.isEmpty()) {
+            return;
+        }
+        Path segment = readingArchive.newSegmentPath(sensorId, dayStart.toLocalDate());
+        writer.writeTo(segment);
+        segmentsCounter.increment();
+
+        // El segmento ya está en disco: recién ahora se quitan las filas de la tabla
+        long minPauseNanos = properties.getPause().toNanos();
+        for (int from = 0; from < ids.size(); from += properties.getDeleteChunkSize()) {
+            long chunkStart = System.nanoTime();
+            List<UUID> chunk = ids.subList(from, Math.min(from + properties.getDeleteChunkSize(), ids.size()));
+            sensorReadingJdbcRepository.deleteByIds(chunk);
+            // Ritmo: al menos la pausa configurada y nunca más del 50% del tiempo ocupado en la base de datos
+            TimeUnit.NANOSECONDS.sleep(Math.max(minPauseNanos, System.nanoTime() - chunkStart));
+        }
+        archivedCounter.increment(ids.size());
+        runArchived.addAndGet(ids.size());
+        log.debug("Sensor {} del {}: {} lecturas archivadas en {}", sensorId, dayStart.toLocalDate(), ids.size(), segment);
+    }
+}
@@ -0,0 +1,221 @@
+package ec.edu.espe.SensorDataCollector.archive;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Segmento inmutable del archivo frío: las lecturas de un sensor en un día, por columnas y comprimidas.
+ * Se lee con un MappedByteBuffer, sin copiar el archivo al heap.
+ *
+ * Formato (big-endian):
+ * <pre>
+ * int magic | int count | long minTimestamp | long maxTimestamp
+ * short typeCount | typeCount x (short length | bytes UTF-8)
+ * int blockCount | blockCount x (long firstTimestamp | int timestampOffset | int valueOffset)   (índice)
+ * int timestampColumnLength | int valueColumnLength
+ * columna de tipos: count bytes con el índice del tipo (se omite si typeCount == 1)
+ * columna de timestamps | columna de valores
+ * </pre>
+ * Los puntos se agrupan en bloques de BLOCK_SIZE. En cada bloque, el primer timestamp (microsegundos) y el
+ * primer valor (escalado x100) van completos en 8 bytes; el resto, como delta del delta (timestamps) y
+ * delta (valores) en varint zigzag. El índice permite saltar los bloques fuera del rango consultado.
+ */
+public final class SegmentFile {
+
+    static final int MAGIC = 0x53524731; // "SRG1"
+    static final int BLOCK_SIZE = 1024;
+    static final int MAX_TYPES = 127;
+    static final int FIXED_HEADER_SIZE = 38;
+    static final int INDEX_ENTRY_SIZE = 16;
+    static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * Recibe los puntos de un segmento sin crear objetos por punto.
+     */
+    @FunctionalInterface
+    public interface PointVisitor {
+        void accept(String type, long timestampMicros, long value);
+    }
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final long minTimestamp;
+    private final long maxTimestamp;
+    private final String[] types;
+    private final long[] blockFirstTimestamps;
+    private final int[] timestampOffsets;
+    private final int[] valueOffsets;
+    private final int typeColumnStart;
+    private final int timestampColumnStart;
+    private final int valueColumnStart;
+
+    private SegmentFile(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("No es un segmento de lecturas");
+        }
+        this.count = buffer.getInt();
+        this.minTimestamp = buffer.getLong();
+        this.maxTimestamp = buffer.getLong();
+        this.types = new String[buffer.getShort()];
+        for (int i = 0; i < types.length; i++) {
+            byte[] name = new byte[buffer.getShort()];
+            buffer.get(name);
+            types[i] = new String(name, StandardCharsets.UTF_8);
+        }
+        int blockCount = buffer.getInt();
+        this.blockFirstTimestamps = new long[blockCount];
+        this.timestampOffsets = new int[blockCount];
+        this.valueOffsets = new int[blockCount];
+        for (int block = 0; block < blockCount; block++) {
+            blockFirstTimestamps[block] = buffer.getLong();
+            timestampOffsets[block] = buffer.getInt();
+            valueOffsets[block] = buffer.getInt();
+        }
+        int timestampColumnLength = buffer.getInt();
+        buffer.getInt(); // Largo de la columna de valores: llega hasta el final del archivo
+        this.typeColumnStart = buffer.position();
+        this.timestampColumnStart = typeColumnStart + (types.length > 1 ? count : 0);
+        this.valueColumnStart = timestampColumnStart + timestampColumnLength;
+    }
+
+    /**
+     * Mapea el segmento en memoria; el mapeo sigue válido después de cerrar el canal.
+     */
+    public static SegmentFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new SegmentFile(mapped);
+        }
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getMinTimestamp() {
+        return minTimestamp;
+    }
+
+    public long getMaxTimestamp() {
+        return maxTimestamp;
+    }
+
+    /**
+     * Recorre en orden cronológico los puntos con timestamp en [from, to).
+     */
+    public void forEach(long from, long to, PointVisitor visitor) {
+        Cursor cursor = cursor(from, to);
+        while (cursor.next()) {
+            visitor.accept(cursor.getType(), cursor.getTimestamp(), cursor.getValue());
+        }
+    }
+
+    /**
+     * Cursor sobre los puntos con timestamp en [from, to), para mezclar varios segmentos en orden.
+     */
+    public Cursor cursor(long from, long to) {
+        return new Cursor(from, to);
+    }
+
+    /**
+     * Recorrido en orden cronológico que se avanza con next(); salta los bloques anteriores a from.
+     */
+    public final class Cursor {
+
+        private final long from;
+        private final long to;
+        private final int[] timestampPosition = new int[1];
+        private final int[] valuePosition = new int[1];
+        private int block;
+        private int index;
+        private int end;
+        private long timestamp;
+        private long value;
+        private long delta;
+        private boolean exhausted;
+
+        private Cursor(long from, long to) {
+            this.from = from;
+            this.to = to;
+            int blockCount = blockFirstTimestamps.length;
+            block = -1;
+            if (maxTimestamp < from || minTimestamp >= to) {
+                exhausted = true;
+                return;
+            }
+            // Primer bloque que puede contener from: el siguiente empieza en from o después
+            int first = 0;
+            while (first + 1 < blockCount && blockFirstTimestamps[first + 1] < from) {
+                first++;
+            }
+            block = first - 1;
+        }
+
+        /**
+         * Avanza al siguiente punto del rango.
+         * @return false si no quedan puntos.
+         */
+        public boolean next() {
+            while (!exhausted) {
+                if (block >= 0 && index + 1 < end) {
+                    index++;
+                    delta += readVarLong(timestampPosition);
+                    timestamp += delta;
+                    value += readVarLong(valuePosition);
+                } else if (block + 1 < blockFirstTimestamps.length) {
+                    block++;
+                    index = block * BLOCK_SIZE;
+                    end = Math.min(index + BLOCK_SIZE, count);
+                    timestampPosition[0] = timestampColumnStart + timestampOffsets[block];
+                    valuePosition[0] = valueColumnStart + valueOffsets[block];
+                    timestamp = buffer.getLong(timestampPosition[0]);
+                    value = buffer.getLong(valuePosition[0]);
+                    timestampPosition[0] += Long.BYTES;
+                    valuePosition[0] += Long.BYTES;
+                    delta = 0;
+                } else {
+                    exhausted = true;
+                    break;
+                }
+                if (timestamp >= to) {
+                    exhausted = true;
+                    break;
+                }
+                if (timestamp >= from) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public String getType() {
+            return types.length > 1 ? types[buffer.get(typeColumnStart + index)] : types[0];
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public long getValue() {
+            return value;
+        }
+    }
+
+    private long readVarLong(int[] position) {
+        long zigzag = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get(position[0]++);
+            zigzag |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+}
@@ -0,0 +1,149 @@
+package ec.edu.espe.SensorDataCollector.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Arma un segmento columnar (formato en SegmentFile) con las lecturas de un sensor en un día.
+ * Los puntos deben agregarse en orden de timestamp. No es thread-safe.
+ */
+public class SegmentWriter {
+
+    private final List<String> types = new ArrayList<>(2);
+    private byte[] typeIndexes = new byte[1024];
+    private long[] timestamps = new long[1024];
+    private long[] values = new long[1024];
+    private int count;
+
+    public void add(String type, long timestampMicros, long value) {
+        if (count > 0 && timestampMicros < timestamps[count - 1]) {
+            throw new IllegalArgumentException("Los puntos del segmento deben venir en orden de timestamp");
+        }
+        int typeIndex = types.indexOf(type);
+        if (typeIndex < 0) {
+            if (types.size() == SegmentFile.MAX_TYPES) {
+                throw new IllegalArgumentException("Un segmento admite hasta " + SegmentFile.MAX_TYPES + " tipos de lectura");
+            }
+            types.add(type);
+            typeIndex = types.size() - 1;
+        }
+        if (count == timestamps.length) {
+            int capacity = count * 2;
+            typeIndexes = Arrays.copyOf(typeIndexes, capacity);
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        typeIndexes[count] = (byte) typeIndex;
+        timestamps[count] = timestampMicros;
+        values[count] = value;
+        count++;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Escribe el segmento en un archivo temporal, lo sincroniza en disco y lo renombra de forma atómica:
+     * los lectores nunca ven un segmento incompleto.
+     */
+    public void writeTo(Path target) throws IOException {
+        if (count == 0) {
+            throw new IllegalStateException("Segmento vacío");
+        }
+        int blockCount = (count + SegmentFile.BLOCK_SIZE - 1) / SegmentFile.BLOCK_SIZE;
+        ByteArrayOutputStream timestampColumn = new ByteArrayOutputStream(count * 2);
+        ByteArrayOutputStream valueColumn = new ByteArrayOutputStream(count * 2);
+        long[] blockFirstTimestamps = new long[blockCount];
+        int[] timestampOffsets = new int[blockCount];
+        int[] valueOffsets = new int[blockCount];
+
+        for (int block = 0; block < blockCount; block++) {
+            int start = block * SegmentFile.BLOCK_SIZE;
+            int end = Math.min(start + SegmentFile.BLOCK_SIZE, count);
+            blockFirstTimestamps[block] = timestamps[start];
+            timestampOffsets[block] = timestampColumn.size();
+            valueOffsets[block] = valueColumn.size();
+            // Cada bloque empieza con sus valores completos para poder decodificarse de forma independiente
+            writeLong(timestampColumn, timestamps[start]);
+            writeLong(valueColumn, values[start]);
+            long lastDelta = 0;
+            for (int i = start + 1; i < end; i++) {
+                long delta = timestamps[i] - timestamps[i - 1];
+                writeVarLong(timestampColumn, delta - lastDelta);
+                writeVarLong(valueColumn, values[i] - values[i - 1]);
+                lastDelta = delta;
+            }
+        }
+
+        byte[][] typeNames = new byte[types.size()][];
+        int headerSize = SegmentFile.FIXED_HEADER_SIZE + blockCount * SegmentFile.INDEX_ENTRY_SIZE;
+        for (int i = 0; i < typeNames.length; i++) {
+            typeNames[i] = types.get(i).getBytes(StandardCharsets.UTF_8);
+            headerSize += Short.BYTES + typeNames[i].length;
+        }
+        ByteBuffer header = ByteBuffer.allocate(headerSize);
+        header.putInt(SegmentFile.MAGIC)
+                .putInt(count)
+                .putLong(timestamps[0])
+                .putLong(timestamps[count - 1])
+                .putShort((short) typeNames.length);
+        for (byte[] name : typeNames) {
+            header.putShort((short) name.length).put(name);
+        }
+        header.putInt(blockCount);
+        for (int block = 0; block < blockCount; block++) {
+            header.putLong(blockFirstTimestamps[block]).putInt(timestampOffsets[block]).putInt(valueOffsets[block]);
+        }
+        header.putInt(timestampColumn.size()).putInt(valueColumn.size());
+        header.flip();
+
+        Path temp = target.resolveSibling(target.getFileName() + SegmentFile.TEMP_SUFFIX);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            writeFully(channel, header);
+            // Con un solo tipo la columna de tipos se omite
+            if (typeNames.length > 1) {
+                writeFully(channel, ByteBuffer.wrap(typeIndexes, 0, count));
+            }
+            writeFully(channel, ByteBuffer.wrap(timestampColumn.toByteArray()));
+            writeFully(channel, ByteBuffer.wrap(valueColumn.toByteArray()));
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void writeLong(ByteArrayOutputStream out, long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (value >>> shift));
+        }
+    }
+
+    /**
+     * Entero con signo en zigzag + varint: los valores chicos (positivos o negativos) ocupan un byte.
+     */
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.write((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.write((int) zigzag);
+    }
+}
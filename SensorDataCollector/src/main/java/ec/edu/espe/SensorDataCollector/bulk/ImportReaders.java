@@ -0,0 +1,172 @@
+package ec.edu.espe.SensorDataCollector.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import ec.edu.espe.SensorDataCollector.dto.SensorReadingRequest;
+import ec.edu.espe.SensorDataCollector.nio.ReadingLineParser;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Lectores incrementales para la importación masiva: recorren el cuerpo de la petición registro a
+ * registro, con memoria constante, sin cargar el archivo completo.
+ */
+public final class ImportReaders {
+
+    private static final int CSV_BUFFER_SIZE = 64 * 1024;
+    private static final byte[] CSV_HEADER = "sensorId,".getBytes(StandardCharsets.US_ASCII);
+
+    private ImportReaders() {
+    }
+
+    /**
+     * CSV con el mismo formato que el listener TCP/UDP: sensorId,type,value,timestamp[,readingId].
+     * Una primera línea que empiece con "sensorId," se toma como encabezado y se omite.
+     */
+    public static Iterator<ImportRow> csv(InputStream in) {
+        return new CsvRows(Channels.newChannel(in));
+    }
+
+    /**
+     * NDJSON: un objeto JSON por línea con los campos de POST /sensor-readings.
+     */
+    public static Iterator<ImportRow> ndjson(InputStream in, ObjectReader reader) {
+        return new NdjsonRows(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)),
+                reader.forType(SensorReadingRequest.class));
+    }
+
+    private static final class CsvRows implements Iterator<ImportRow> {
+
+        private final ReadableByteChannel channel;
+        private final ReadingLineParser parser = new ReadingLineParser();
+        private final ByteBuffer buffer = ByteBuffer.allocate(CSV_BUFFER_SIZE);
+        private final ArrayDeque<ReadingLineParser.Line> pending = new ArrayDeque<>();
+        private final List<ReadingLineParser.Line> parsed = new ArrayList<>();
+        private boolean endOfInput;
+        private boolean headerChecked;
+        private long record;
+
+        CsvRows(ReadableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (pending.isEmpty() && !endOfInput) {
+                fill();
+            }
+            return !pending.isEmpty();
+        }
+
+        @Override
+        public ImportRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ReadingLineParser.Line line = pending.poll();
+            return new ImportRow(++record, line.request(), line.error());
+        }
+
+        private void fill() {
+            int read;
+            try {
+                read = channel.read(buffer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            endOfInput = read < 0;
+            buffer.flip();
+            if (!headerChecked && (buffer.remaining() >= CSV_HEADER.length || endOfInput)) {
+                headerChecked = true;
+                skipHeader();
+            }
+            parser.parseLines(buffer, endOfInput, parsed);
+            if (buffer.position() == 0 && buffer.limit() == buffer.capacity()) {
+                // Una línea ocupa todo el buffer: se descarta como registro inválido
+                parsed.add(new ReadingLineParser.Line(null, "Línea demasiado larga (máximo " + CSV_BUFFER_SIZE + " bytes)."));
+                buffer.clear();
+            } else {
+                buffer.compact();
+            }
+            pending.addAll(parsed);
+            parsed.clear();
+        }
+
+        private void skipHeader() {
+            if (buffer.remaining() < CSV_HEADER.length) {
+                return;
+            }
+            for (int i = 0; i < CSV_HEADER.length; i++) {
+                if (buffer.get(buffer.position() + i) != CSV_HEADER[i]) {
+                    return;
+                }
+            }
+            for (int i = buffer.position(); i < buffer.limit(); i++) {
+                if (buffer.get(i) == '\n') {
+                    buffer.position(i + 1);
+                    return;
+                }
+            }
+            buffer.position(buffer.limit());
+        }
+    }
+
+    private static final class NdjsonRows implements Iterator<ImportRow> {
+
+        private final BufferedReader reader;
+        private final ObjectReader objectReader;
+        private String nextLine;
+        private long record;
+
+        NdjsonRows(BufferedReader reader, ObjectReader objectReader) {
+            this.reader = reader;
+            this.objectReader = objectReader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (nextLine == null) {
+                    String line = reader.readLine();
+                    if (line == null) {
+                        return false;
+                    }
+                    if (!line.isBlank()) {
+                        nextLine = line;
+                    }
+                }
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public ImportRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String line = nextLine;
+            nextLine = null;
+            record++;
+            try {
+                return new ImportRow(record, objectReader.readValue(line), null);
+            } catch (JsonProcessingException e) {
+                return new ImportRow(record, null, "JSON inválido: " + e.getOriginalMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package ec.edu.espe.SensorDataCollector.bulk;
+
+import ec.edu.espe.SensorDataCollector.dto.SensorReadingRequest;
+
+/**
+ * Registro leído de un archivo de importación: la lectura, o el motivo por el que no se pudo interpretar.
+ * @param record Número de registro (1 = primera línea de datos no vacía).
+ */
+public record ImportRow(long record, SensorReadingRequest request, String error) {
+}
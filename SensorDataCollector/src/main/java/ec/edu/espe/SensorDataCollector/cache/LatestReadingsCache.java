@@ -0,0 +1,169 @@
+package ec.edu.espe.SensorDataCollector.cache;
+
+import ec.edu.espe.SensorDataCollector.model.SensorReading;
+import ec.edu.espe.SensorDataCollector.repository.SensorReadingJdbcRepository;
+import ec.edu.espe.SensorDataCollector.service.AcceptedReadingListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché en memoria de las últimas N lecturas de cada sensor, actualizada desde la ruta de escritura.
+ * Cada cambio asigna una nueva versión (secuencia global de esta instancia) que se usa como ETag.
+ *
+ * Las lecturas aceptadas por otras instancias del colector no llegan a esta caché; por eso cada
+ * sensor se vuelve a cargar de la base de datos al cumplir max-age-ms, lo que acota su antigüedad.
+ */
+@Component
+@Slf4j
+public class LatestReadingsCache implements AcceptedReadingListener {
+
+    /**
+     * Lecturas más recientes de un sensor (de la más nueva a la más antigua) y su versión.
+     */
+    public record Snapshot(long version, List<SensorReading> readings) {
+    }
+
+    private final SensorReadingJdbcRepository sensorReadingJdbcRepository;
+    private final ConcurrentHashMap<String, SensorSlot> slots = new ConcurrentHashMap<>();
+    private final AtomicLong versionSequence = new AtomicLong();
+    // Distingue las versiones de esta instancia de las de otra instancia o de un reinicio
+    private final String instanceTag = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Counter hits;
+    private final Counter misses;
+
+    @Value("${app.cache.latest.size:10}")
+    private int size;
+
+    @Value("${app.cache.latest.max-sensors:100000}")
+    private int maxSensors;
+
+    @Value("${app.cache.latest.max-age-ms:30000}")
+    private long maxAgeMs;
+
+    public LatestReadingsCache(SensorReadingJdbcRepository sensorReadingJdbcRepository, MeterRegistry meterRegistry) {
+        this.sensorReadingJdbcRepository = sensorReadingJdbcRepository;
+        Gauge.builder("sensor.cache.latest.sensors", slots, ConcurrentHashMap::size)
+                .description("Sensores con lecturas en la caché de últimos valores")
+                .register(meterRegistry);
+        this.hits = Counter.builder("sensor.cache.latest.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("sensor.cache.latest.requests").tag("result", "miss").register(meterRegistry);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * ETag débil para una versión de esta instancia.
+     */
+    public String etag(long version) {
+        return "W/\"" + instanceTag + "-" + Long.toString(version, 36) + "\"";
+    }
+
+    /**
+     * Devuelve las últimas lecturas del sensor, cargándolas de la base de datos si no están en caché o expiraron.
+     */
+    public Snapshot getLatest(String sensorId) {
+        SensorSlot slot = slots.get(sensorId);
+        if (slot != null && !slot.isExpired(maxAgeMs)) {
+            hits.increment();
+            return slot.snapshot();
+        }
+        misses.increment();
+        List<SensorReading> fromDb = sensorReadingJdbcRepository.findPage(sensorId, null, null, null, size);
+        SensorSlot loaded = new SensorSlot(size, fromDb, versionSequence.incrementAndGet());
+        if (slots.size() >= maxSensors && !slots.containsKey(sensorId)) {
+            evictOne();
+        }
+        slots.put(sensorId, loaded);
+        return loaded.snapshot();
+    }
+
+    @Override
+    public void onReadingsAccepted(List<SensorReading> readings) {
+        for (SensorReading reading : readings) {
+            // Solo se actualizan sensores ya cargados; los demás se cargan completos en la primera consulta
+            SensorSlot slot = slots.get(reading.getSensorId());
+            if (slot != null) {
+                slot.add(reading, versionSequence);
+            }
+        }
+    }
+
+    // Las lecturas dentro de la banda muerta también son las últimas del sensor, aunque no se guarden
+    @Override
+    public void onReadingsPublished(List<SensorReading> readings) {
+        onReadingsAccepted(readings);
+    }
+
+    private void evictOne() {
+        Iterator<String> keys = slots.keySet().iterator();
+        if (keys.hasNext()) {
+            slots.remove(keys.next());
+        }
+    }
+
+    /**
+     * Arreglo ordenado por timestamp descendente con a lo sumo 'capacity' lecturas.
+     */
+    private static final class SensorSlot {
+
+        private final SensorReading[] readings;
+        private final long loadedAtNanos = System.nanoTime();
+        private int count;
+        private long version;
+
+        SensorSlot(int capacity, List<SensorReading> initial, long version) {
+            this.readings = new SensorReading[capacity];
+            for (SensorReading reading : initial) {
+                if (count == capacity) {
+                    break;
+                }
+                readings[count++] = reading;
+            }
+            this.version = version;
+        }
+
+        boolean isExpired(long maxAgeMs) {
+            return System.nanoTime() - loadedAtNanos > TimeUnit.MILLISECONDS.toNanos(maxAgeMs);
+        }
+
+        synchronized void add(SensorReading reading, AtomicLong versionSequence) {
+            // Posición por inserción ordenada: las lecturas pueden llegar fuera de orden
+            int pos = 0;
+            while (pos < count && !readings[pos].getTimestamp().isBefore(reading.getTimestamp())) {
+                pos++;
+            }
+            if (pos == readings.length) {
+                return; // Más antigua que todas las que se guardan
+            }
+            int toMove = Math.min(count, readings.length - 1) - pos;
+            if (toMove > 0) {
+                System.arraycopy(readings, pos, readings, pos + 1, toMove);
+            }
+            readings[pos] = reading;
+            count = Math.min(count + 1, readings.length);
+            version = versionSequence.incrementAndGet();
+        }
+
+        synchronized Snapshot snapshot() {
+            List<SensorReading> copy = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                copy.add(readings[i]);
+            }
+            return new Snapshot(version, copy);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package ec.edu.espe.SensorDataCollector.compression;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compresión por banda muerta de las lecturas almacenadas (app.compression en application.yaml).
+ * Los tipos sin banda configurada se guardan siempre.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.compression")
+public class CompressionProperties {
+
+    // Tiempo máximo sin guardar una lectura de un sensor comprimido, aunque su valor no cambie
+    private Duration maxInterval = Duration.ofMinutes(5);
+
+    // Series (sensor y tipo) cuyo último valor guardado se recuerda; las que no caben se guardan sin comprimir
+    private int maxTrackedSensors = 100_000;
+
+    // Variación mínima respecto al último valor guardado para volver a guardar, por tipo de sensor
+    private Map<String, BigDecimal> deadband = new LinkedHashMap<>();
+}
@@ -0,0 +1,167 @@
+package ec.edu.espe.SensorDataCollector.compression;
+
+import ec.edu.espe.EnvironmentalEvents.util.ScaledValues;
+import ec.edu.espe.SensorDataCollector.model.SensorReading;
+import ec.edu.espe.SensorDataCollector.service.AcceptedReadingListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compresión por banda muerta por sensor y tipo: una lectura se guarda en sensor_readings solo si su valor
+ * se aleja del último guardado de la misma serie (sensor y tipo) más que la banda de su tipo, o si pasó
+ * max-interval desde entonces. La señal reconstruida (el último valor guardado hasta el siguiente) queda
+ * siempre dentro de la banda.
+ *
+ * Las lecturas no guardadas se siguen publicando en el bus de eventos, para que el analizador evalúe
+ * sus umbrales con todos los valores. El estado por serie vive en memoria de esta instancia.
+ *
+ * El estado solo cambia después del commit (AcceptedReadingListener): la referencia (último valor guardado)
+ * avanza con las lecturas confirmadas en la base de datos y las solo publicadas se recuerdan cuando su evento
+ * ya salió. Así, si el INSERT falla o hace rollback, el reintento del cliente se decide de nuevo en lugar de
+ * tomarse por repetido. Debe consultarse después del filtro de duplicados, que atiende los reintentos de las
+ * guardadas.
+ */
+@Component
+@EnableConfigurationProperties(CompressionProperties.class)
+public class DeadbandCompressor implements AcceptedReadingListener {
+
+    /**
+     * STORE: guardar y publicar. PUBLISH_ONLY: dentro de la banda, solo publicar.
+     * REPEATED: repetición exacta de una lectura reciente que solo se publicó (reintento), se descarta.
+     */
+    public enum Decision { STORE, PUBLISH_ONLY, REPEATED }
+
+    private final Map<String, Long> deadbands = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final long maxIntervalMillis;
+    private final int maxTrackedSensors;
+    private final ConcurrentHashMap<SeriesKey, SeriesState> states = new ConcurrentHashMap<>();
+    private final EnumMap<Decision, Counter> counters = new EnumMap<>(Decision.class);
+
+    public DeadbandCompressor(CompressionProperties properties, MeterRegistry meterRegistry) {
+        properties.getDeadband().forEach((type, band) -> deadbands.put(type, ScaledValues.fromBigDecimal(band)));
+        this.maxIntervalMillis = properties.getMaxInterval().toMillis();
+        this.maxTrackedSensors = properties.getMaxTrackedSensors();
+        for (Decision decision : Decision.values()) {
+            counters.put(decision, Counter.builder("sensor.ingest.compression")
+                    .description("Lecturas válidas según la decisión de la compresión por banda muerta")
+                    .tag("decision", decision.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    public Decision decide(String sensorId, String type, long value, OffsetDateTime timestamp) {
+        Long deadband = type == null ? null : deadbands.get(type);
+        if (deadband == null) {
+            return Decision.STORE; // Tipo sin compresión: no se cuenta ni se guarda estado
+        }
+        SeriesState state = states.get(SeriesKey.of(sensorId, type));
+        if (state == null) {
+            // Sin lecturas confirmadas todavía no hay referencia
+            return count(Decision.STORE);
+        }
+        return count(state.offer(deadband, maxIntervalMillis, value, timestamp.toInstant().toEpochMilli()));
+    }
+
+    @Override
+    public void onReadingsAccepted(List<SensorReading> readings) {
+        for (SensorReading reading : readings) {
+            SeriesState state = stateFor(reading);
+            if (state != null) {
+                state.commitStored(reading.getValue(), reading.getTimestamp().toInstant().toEpochMilli());
+            }
+        }
+    }
+
+    /**
+     * Lecturas solo publicadas cuyo evento ya salió: desde ahora un reintento exacto se toma por repetido.
+     */
+    @Override
+    public void onReadingsPublished(List<SensorReading> readings) {
+        for (SensorReading reading : readings) {
+            SeriesState state = stateFor(reading);
+            if (state != null) {
+                state.commitPublished(reading.getValue(), reading.getTimestamp().toInstant().toEpochMilli());
+            }
+        }
+    }
+
+    private SeriesState stateFor(SensorReading reading) {
+        if (reading.getType() == null || !deadbands.containsKey(reading.getType())) {
+            return null;
+        }
+        SeriesKey key = SeriesKey.of(reading.getSensorId(), reading.getType());
+        SeriesState state = states.get(key);
+        if (state == null && states.size() < maxTrackedSensors) {
+            state = states.computeIfAbsent(key, k -> new SeriesState());
+        }
+        return state;
+    }
+
+    private Decision count(Decision decision) {
+        counters.get(decision).increment();
+        return decision;
+    }
+
+    /**
+     * Serie comprimida: el tipo se normaliza igual que la búsqueda de su banda, que no distingue mayúsculas.
+     */
+    private record SeriesKey(String sensorId, String type) {
+
+        static SeriesKey of(String sensorId, String type) {
+            return new SeriesKey(sensorId, type.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    private static final class SeriesState {
+
+        // Lecturas solo publicadas que se recuerdan para reconocer sus reintentos
+        private static final int RECENT_PUBLISHED = 32;
+
+        private long storedEpochMillis = Long.MIN_VALUE;
+        private long storedValue;
+        private final long[] publishedEpochMillis = new long[RECENT_PUBLISHED];
+        private final long[] publishedValues = new long[RECENT_PUBLISHED];
+        private int publishedCount;
+        private int publishedNext;
+
+        synchronized Decision offer(long deadband, long maxIntervalMillis, long value, long epochMillis) {
+            for (int i = 0; i < publishedCount; i++) {
+                if (publishedEpochMillis[i] == epochMillis && publishedValues[i] == value) {
+                    return Decision.REPEATED;
+                }
+            }
+            // Sin referencia, fuera de orden, fuera de la banda o vencido el intervalo máximo: se guarda
+            if (storedEpochMillis == Long.MIN_VALUE
+                    || epochMillis <= storedEpochMillis
+                    || Math.abs(value - storedValue) > deadband
+                    || epochMillis - storedEpochMillis >= maxIntervalMillis) {
+                return Decision.STORE;
+            }
+            return Decision.PUBLISH_ONLY;
+        }
+
+        synchronized void commitStored(long value, long epochMillis) {
+            if (epochMillis > storedEpochMillis) {
+                storedEpochMillis = epochMillis;
+                storedValue = value;
+            }
+        }
+
+        synchronized void commitPublished(long value, long epochMillis) {
+            publishedEpochMillis[publishedNext] = epochMillis;
+            publishedValues[publishedNext] = value;
+            publishedNext = (publishedNext + 1) % RECENT_PUBLISHED;
+            publishedCount = Math.min(publishedCount + 1, RECENT_PUBLISHED);
+        }
+    }
+}
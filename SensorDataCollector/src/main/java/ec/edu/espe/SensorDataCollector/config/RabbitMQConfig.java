@@ -1,14 +1,24 @@
 package ec.edu.espe.SensorDataCollector.config;
 
+import ec.edu.espe.EnvironmentalEvents.codec.EventEncoding;
+import ec.edu.espe.EnvironmentalEvents.codec.EventMessageConverter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 
 @Configuration
+@Slf4j
 public class RabbitMQConfig {
 
     @Value("${app.rabbitmq.exchange-name}")
@@ -17,30 +27,85 @@ public class RabbitMQConfig {
     @Value("${app.rabbitmq.queue-name}")
     private String queueName;
 
+    @Value("${app.rabbitmq.ingest-exchange-name}")
+    private String ingestExchangeName;
+
+    @Value("${app.rabbitmq.ingest-routing-key}")
+    private String ingestRoutingKey;
+
+    @Value("${app.rabbitmq.dead-letter-exchange-name:sensor.readings.ingest.dlx}")
+    private String deadLetterExchangeName;
+
+    @Value("${app.rabbitmq.dead-letter-queue-name:q.events.sensor-data-collector.dlq}")
+    private String deadLetterQueueName;
+
+    // Formato con el que se publican los eventos (JSON o BINARY); al recibir se aceptan ambos
+    @Value("${app.events.encoding:JSON}")
+    private EventEncoding eventEncoding;
+
+    // Perfil virtual-threads (application-virtual-threads.yaml)
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
     // 1. Define el Exchange Fanout global
     @Bean
     public FanoutExchange fanoutExchange() {
         return new FanoutExchange(exchangeName, true, false); // durable=true, autoDelete=false
     }
 
-    // 2. Define la Cola específica para este microservicio
+    // 2. Define la Cola de ingesta de este microservicio (AmqpIngestListener).
+    // Los mensajes rechazados sin reencolar pasan a la cola de dead letters en lugar de perderse o reentregarse sin fin
     @Bean
     public Queue sensorDataCollectorQueue() {
-        return new Queue(queueName, true); // durable=true
+        return QueueBuilder.durable(queueName)
+                .deadLetterExchange(deadLetterExchangeName)
+                .deadLetterRoutingKey(ingestRoutingKey)
+                .build();
+    }
+
+    @Bean
+    public DirectExchange readingIngestDeadLetterExchange() {
+        return new DirectExchange(deadLetterExchangeName, true, false);
+    }
+
+    @Bean
+    public Queue readingIngestDeadLetterQueue() {
+        return QueueBuilder.durable(deadLetterQueueName).build();
     }
 
-    // 3. Vincula la Cola al Exchange (Binding)
-    // Esto hace que la cola 'q.events.sensor-data-collector' reciba todos los mensajes del exchange 'environmental.events.exchange'.
     @Bean
-    public Binding binding(Queue sensorDataCollectorQueue, FanoutExchange fanoutExchange) {
-        return BindingBuilder.bind(sensorDataCollectorQueue).to(fanoutExchange);
+    public Binding ingestDeadLetterBinding(Queue readingIngestDeadLetterQueue, DirectExchange readingIngestDeadLetterExchange) {
+        return BindingBuilder.bind(readingIngestDeadLetterQueue).to(readingIngestDeadLetterExchange).with(ingestRoutingKey);
     }
 
-    // 4. Configura el MessageConverter para que los objetos se envíen como JSON
+    // 3. Exchange Direct propio de la ingesta, donde los gateways publican lecturas crudas.
+    // La cola ya no se enlaza al exchange global: recibiría los propios eventos del colector como lecturas nuevas.
     @Bean
-    public Jackson2JsonMessageConverter jsonMessageConverter() {
-        Jackson2JsonMessageConverter converter = new Jackson2JsonMessageConverter();
-        // Incluir información de tipo para mejorar la deserialización
+    public DirectExchange readingIngestExchange() {
+        return new DirectExchange(ingestExchangeName, true, false);
+    }
+
+    @Bean
+    public Binding ingestBinding(Queue sensorDataCollectorQueue, DirectExchange readingIngestExchange) {
+        return BindingBuilder.bind(sensorDataCollectorQueue).to(readingIngestExchange).with(ingestRoutingKey);
+    }
+
+    // Quita el enlace al exchange global que dejaron las versiones anteriores en brokers ya desplegados
+    @Bean
+    public ApplicationRunner removeGlobalEventsBinding(AmqpAdmin amqpAdmin) {
+        return args -> {
+            try {
+                amqpAdmin.removeBinding(new Binding(queueName, Binding.DestinationType.QUEUE, exchangeName, "", null));
+            } catch (AmqpException e) {
+                log.warn("No se pudo quitar el enlace de {} al exchange {}: {}", queueName, exchangeName, e.getMessage());
+            }
+        };
+    }
+
+    // 4. Configura el MessageConverter: publica en el formato configurado y al recibir negocia por content-type
+    @Bean
+    public MessageConverter eventMessageConverter() {
+        EventMessageConverter converter = new EventMessageConverter(new Jackson2JsonMessageConverter(), eventEncoding);
         converter.setCreateMessageIds(true);
         return converter;
     }
@@ -49,7 +114,38 @@ public class RabbitMQConfig {
     @Bean
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
         RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
-        rabbitTemplate.setMessageConverter(jsonMessageConverter());
+        rabbitTemplate.setMessageConverter(eventMessageConverter());
         return rabbitTemplate;
     }
-}
\ No newline at end of file
+
+    // 6. Contenedor por lotes de la cola de ingesta: entrega hasta batch-size mensajes por llamada
+    // (o los que lleguen en receive-timeout) y los confirma con un solo ack al terminar el lote.
+    // Un lote que falla se rechaza sin reencolar (va al DLX): reentregarlo sin límite repetiría un mensaje venenoso
+    @Bean
+    @ConditionalOnProperty(name = "app.ingest.amqp.enabled", havingValue = "true", matchIfMissing = true)
+    public SimpleRabbitListenerContainerFactory readingIngestContainerFactory(
+            ConnectionFactory connectionFactory,
+            @Value("${app.ingest.amqp.batch-size:500}") int batchSize,
+            @Value("${app.ingest.amqp.prefetch:1000}") int prefetch,
+            @Value("${app.ingest.amqp.receive-timeout-ms:50}") long receiveTimeoutMs,
+            @Value("${app.ingest.amqp.concurrency:1}") int concurrency,
+            @Value("${app.ingest.amqp.max-concurrency:4}") int maxConcurrency) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        // El prefetch debe cubrir al menos un lote completo para no esperar mensajes en cada lote
+        factory.setPrefetchCount(Math.max(prefetch, batchSize));
+        factory.setReceiveTimeout(receiveTimeoutMs);
+        factory.setAcknowledgeMode(AcknowledgeMode.AUTO);
+        factory.setDefaultRequeueRejected(false);
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(Math.max(concurrency, maxConcurrency));
+        if (virtualThreads) {
+            // Esta fábrica no es la autoconfigurada, por lo que spring.threads.virtual.enabled no le aplica sola
+            factory.setTaskExecutor(new VirtualThreadTaskExecutor("amqp-ingest-"));
+        }
+        return factory;
+    }
+}
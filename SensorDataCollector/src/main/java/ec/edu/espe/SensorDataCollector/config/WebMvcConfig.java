@@ -0,0 +1,21 @@
+package ec.edu.espe.SensorDataCollector.config;
+
+import ec.edu.espe.SensorDataCollector.admission.IngestAdmissionInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final IngestAdmissionInterceptor ingestAdmissionInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Solo las rutas de ingesta; las consultas no pasan por el control de admisión
+        registry.addInterceptor(ingestAdmissionInterceptor)
+                .addPathPatterns("/sensor-readings", "/sensor-readings/batch");
+    }
+}
@@ -1,14 +1,43 @@
 package ec.edu.espe.SensorDataCollector.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import ec.edu.espe.SensorDataCollector.bulk.ImportReaders;
+import ec.edu.espe.SensorDataCollector.bulk.ImportRow;
+import ec.edu.espe.SensorDataCollector.cache.LatestReadingsCache;
+import ec.edu.espe.SensorDataCollector.dto.BatchIngestResponse;
+import ec.edu.espe.SensorDataCollector.dto.IngestResult;
+import ec.edu.espe.SensorDataCollector.dto.ReadingAggregate;
+import ec.edu.espe.SensorDataCollector.dto.ReadingPage;
 import ec.edu.espe.SensorDataCollector.dto.SensorReadingRequest;
+import ec.edu.espe.SensorDataCollector.live.LiveReadingHub;
 import ec.edu.espe.SensorDataCollector.model.SensorReading;
+import ec.edu.espe.SensorDataCollector.repository.ReadConsistency;
+import ec.edu.espe.SensorDataCollector.rollup.RollupResolution;
+import ec.edu.espe.SensorDataCollector.service.IngestMetrics;
 import ec.edu.espe.SensorDataCollector.service.SensorDataService;
-import jakarta.validation.Valid;
+import ec.edu.espe.SensorDataCollector.service.WriteBehindIngestBuffer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.Iterator;
 import java.util.List;
 
 @RestController
@@ -16,29 +45,363 @@ import java.util.List;
 @RequiredArgsConstructor
 public class SensorDataController {
 
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    // Alternativa al parámetro ?consistency= para clientes que fijan la consistencia una sola vez
+    private static final String READ_CONSISTENCY_HEADER = "X-Read-Consistency";
+    // Aviso de las consultas que no leen el archivo frío: las lecturas anteriores a este instante están
+    // (en parte) solo en el archivo y se obtienen con GET /{sensorId}?from=
+    private static final String ARCHIVED_UNTIL_HEADER = "X-Archived-Until";
+
     private final SensorDataService sensorDataService;
+    private final ObjectMapper objectMapper;
+    private final IngestMetrics ingestMetrics;
+    private final LiveReadingHub liveReadingHub;
+
+    // Tamaño máximo aceptado para un lote de lecturas
+    @Value("${app.ingest.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    // Tamaño máximo de página del historial paginado
+    @Value("${app.query.history.max-page-size:1000}")
+    private int maxPageSize;
+
+    // Máximo de puntos por tipo que puede pedirse con ?maxPoints=
+    @Value("${app.query.downsample.max-points:10000}")
+    private int maxDownsampledPoints;
 
     @PostMapping
-    public ResponseEntity<String> receiveSensorReading(@Valid @RequestBody SensorReadingRequest request) {
+    public ResponseEntity<String> receiveSensorReading(@RequestBody SensorReadingRequest request) {
+        long start = System.nanoTime();
+        ResponseEntity<String> response = ingestSensorReading(request);
+        ingestMetrics.recordRequest(response.getStatusCode().value(), start);
+        return response;
+    }
+
+    private ResponseEntity<String> ingestSensorReading(SensorReadingRequest request) {
+        // Validación programática como en los lotes: un rechazo no lanza excepciones (ver ReadingRuleEngine)
+        List<String> errors = sensorDataService.validate(request);
+        if (!errors.isEmpty()) {
+            return ResponseEntity.badRequest().body("Datos inválidos: " + String.join("; ", errors));
+        }
+        if (sensorDataService.isWriteBehindMode()) {
+            return receiveSensorReadingWriteBehind(request);
+        }
         try {
-            SensorReading savedReading = sensorDataService.processAndSaveReading(request);
+            IngestResult result = sensorDataService.processAndSaveReading(request);
+            if (result.status() != IngestResult.Status.CREATED) {
+                return notStoredResponse(result);
+            }
             return ResponseEntity.status(HttpStatus.CREATED)
-                    .body("Lectura recibida y procesada. ID: " + savedReading.getId());
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body("Datos inválidos: " + e.getMessage());
+                    .body("Lectura recibida y procesada. ID: " + result.id());
         } catch (Exception e) {
-            // Captura errores generales, como el fallo de publicación en RabbitMQ
+            // Captura errores generales, como el fallo de la base de datos
+            ingestMetrics.recordFailed(1);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error interno al procesar la solicitud: " + e.getMessage());
         }
     }
 
+    /**
+     * Reenvío de una lectura ya registrada: 200 con el ID original, para que el cliente deje de reintentar.
+     * Lectura dentro de la banda muerta de su sensor: 202, se publicó pero no se guarda.
+     */
+    private ResponseEntity<String> notStoredResponse(IngestResult result) {
+        if (result.status() == IngestResult.Status.COMPRESSED) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body("Lectura recibida y publicada; no se almacena por estar dentro de la banda muerta del sensor.");
+        }
+        return ResponseEntity.ok(result.id() != null
+                ? "Lectura duplicada, ya registrada. ID: " + result.id()
+                : "Lectura duplicada, ya recibida.");
+    }
+
+    /**
+     * Ingesta diferida: 202 cuando la lectura entra al buffer, o 201 si la durabilidad es COMMITTED
+     * y la petición esperó a su group commit. 200/202 si no se guarda (reenvío o compresión) y 503 si el buffer está lleno.
+     */
+    private ResponseEntity<String> receiveSensorReadingWriteBehind(SensorReadingRequest request) {
+        try {
+            IngestResult result = sensorDataService.enqueueReading(request);
+            if (result.status() != IngestResult.Status.CREATED) {
+                return notStoredResponse(result);
+            }
+            if (sensorDataService.getWriteBehindDurability() == WriteBehindIngestBuffer.Durability.COMMITTED) {
+                return ResponseEntity.status(HttpStatus.CREATED)
+                        .body("Lectura recibida y procesada. ID: " + result.id());
+            }
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body("Lectura aceptada para escritura diferida. ID: " + result.id());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Recibe un arreglo de lecturas y las procesa como un solo lote.
+     * Responde 201 si todas fueron aceptadas (guardadas o comprimidas), 200 si todas eran reenvíos
+     * ya registrados, 207 si solo una parte fue aceptada y 400 si ninguna.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> receiveSensorReadingBatch(@RequestBody List<SensorReadingRequest> requests) {
+        long start = System.nanoTime();
+        ResponseEntity<?> response = ingestSensorReadingBatch(requests);
+        ingestMetrics.recordRequest(response.getStatusCode().value(), start);
+        return response;
+    }
+
+    private ResponseEntity<?> ingestSensorReadingBatch(List<SensorReadingRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            return ResponseEntity.badRequest().body("El lote de lecturas no puede estar vacío.");
+        }
+        if (requests.size() > maxBatchSize) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body("El lote excede el máximo de " + maxBatchSize + " lecturas.");
+        }
+        try {
+            BatchIngestResponse response = sensorDataService.processBatch(requests);
+            HttpStatus status = response.getRejected() == 0
+                    ? (response.getAccepted() + response.getCompressed() == 0 ? HttpStatus.OK : HttpStatus.CREATED)
+                    : response.getAccepted() + response.getCompressed() + response.getDuplicates() == 0 ? HttpStatus.BAD_REQUEST
+                    : HttpStatus.MULTI_STATUS;
+            return ResponseEntity.status(status).body(response);
+        } catch (Exception e) {
+            // Fallo de la base de datos: el lote completo hace rollback
+            ingestMetrics.recordFailed(requests.size());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error interno al procesar el lote: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Importación masiva para backfills: el cuerpo se lee en streaming como CSV (text/csv,
+     * sensorId,type,value,timestamp[,readingId]) o NDJSON (application/x-ndjson, un objeto por línea).
+     * ?events=true publica los eventos de cada bloque guardado; por defecto no se publican.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<?> importSensorReadings(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                  @RequestParam(defaultValue = "false") boolean events,
+                                                  InputStream body) {
+        Iterator<ImportRow> rows = APPLICATION_NDJSON.isCompatibleWith(contentType)
+                ? ImportReaders.ndjson(body, objectMapper.reader())
+                : ImportReaders.csv(body);
+        try {
+            return ResponseEntity.ok(sensorDataService.importReadings(rows, events));
+        } catch (Exception e) {
+            // Los bloques ya confirmados quedan guardados; reimportar el archivo omite esos registros como duplicados
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error interno durante la importación: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Las consultas de lectura aceptan ?consistency=follower (o el encabezado X-Read-Consistency): los datos
+     * pueden tener unos segundos de atraso, a cambio de que los sirva la réplica más cercana sin tocar
+     * la ruta de escritura. Por defecto (strong) se lee el último estado confirmado.
+     *
+     * Con ?from= (y opcionalmente ?to=, ISO-8601) se devuelven solo los puntos del rango (tipo, valor y
+     * timestamp); si el rango cae en la ventana reciente se sirven desde memoria (RecentReadingsStore).
+     * Con ?maxPoints= además se reducen con LTTB a lo sumo esa cantidad de puntos por tipo, para gráficos.
+     * Sin ?from= solo se lee la base de datos; si el sensor tiene días en el archivo frío la respuesta lo
+     * indica con el encabezado X-Archived-Until.
+     */
     @GetMapping("/{sensorId}")
-    public ResponseEntity<List<SensorReading>> getSensorReadings(@PathVariable String sensorId) {
-        List<SensorReading> readings = sensorDataService.getReadingsBySensorId(sensorId);
-        if (readings.isEmpty()) {
-            return ResponseEntity.noContent().build();
+    public ResponseEntity<?> getSensorReadings(
+            @PathVariable String sensorId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @RequestParam(required = false) Integer maxPoints,
+            @RequestParam(required = false) String consistency,
+            @RequestHeader(value = READ_CONSISTENCY_HEADER, required = false) String consistencyHeader) {
+        if (maxPoints != null && from == null) {
+            return ResponseEntity.badRequest().body("maxPoints requiere el parámetro from.");
+        }
+        if (maxPoints != null && (maxPoints < 3 || maxPoints > maxDownsampledPoints)) {
+            return ResponseEntity.badRequest().body("maxPoints debe estar entre 3 y " + maxDownsampledPoints + ".");
+        }
+        try {
+            ReadConsistency readConsistency = readConsistency(consistency, consistencyHeader);
+            List<?> readings;
+            if (maxPoints != null) {
+                readings = sensorDataService.getDownsampledPoints(sensorId, from, to, maxPoints, readConsistency);
+            } else if (from != null) {
+                readings = sensorDataService.getReadingPoints(sensorId, from, to, readConsistency);
+            } else {
+                readings = sensorDataService.getReadingsBySensorId(sensorId, readConsistency);
+            }
+            HttpHeaders headers = from == null ? archivedUntilHeaders(sensorId, null, to) : new HttpHeaders();
+            if (readings.isEmpty()) {
+                return ResponseEntity.noContent().headers(headers).build();
+            }
+            return ResponseEntity.ok().headers(headers).body(readings);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Historial paginado por keyset: ?from=&to= (ISO-8601) acotan el rango, ?cursor= continúa
+     * desde la página anterior y ?limit= fija el tamaño de página. Solo recorre la base de datos: si el rango
+     * toca días del archivo frío se indica con el encabezado X-Archived-Until.
+     */
+    @GetMapping("/{sensorId}/history")
+    public ResponseEntity<?> getSensorReadingHistory(
+            @PathVariable String sensorId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) String consistency,
+            @RequestHeader(value = READ_CONSISTENCY_HEADER, required = false) String consistencyHeader) {
+        if (limit < 1 || limit > maxPageSize) {
+            return ResponseEntity.badRequest().body("El límite debe estar entre 1 y " + maxPageSize + ".");
+        }
+        try {
+            ReadingPage page = sensorDataService.getReadingHistoryPage(
+                    sensorId, from, to, cursor, limit, readConsistency(consistency, consistencyHeader));
+            return ResponseEntity.ok().headers(archivedUntilHeaders(sensorId, from, to)).body(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Historial completo en NDJSON (una lectura JSON por línea), transmitido desde un cursor de la base
+     * de datos: el uso de memoria no depende de la cantidad de lecturas. Si el rango toca días del archivo
+     * frío se indica con el encabezado X-Archived-Until.
+     */
+    @GetMapping(value = "/{sensorId}/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamSensorReadings(
+            @PathVariable String sensorId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @RequestParam(required = false) String consistency,
+            @RequestHeader(value = READ_CONSISTENCY_HEADER, required = false) String consistencyHeader) {
+        ReadConsistency readConsistency;
+        try {
+            readConsistency = readConsistency(consistency, consistencyHeader);
+        } catch (IllegalArgumentException e) {
+            // El cuerpo debe seguir siendo un StreamingResponseBody: Spring elige el manejador por el tipo declarado
+            byte[] message = e.getMessage().getBytes(StandardCharsets.UTF_8);
+            return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(out -> out.write(message));
+        }
+        // Sin flush por lectura: el generador vacía su buffer cuando se llena
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                sensorDataService.streamReadings(sensorId, from, to, readConsistency, reading -> {
+                    try {
+                        writer.writeValue(generator, reading);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().headers(archivedUntilHeaders(sensorId, from, to))
+                .contentType(APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Lecturas nuevas de un sensor en vivo por Server-Sent Events (eventos "reading"), a medida que se aceptan.
+     */
+    @GetMapping(value = "/{sensorId}/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamLiveSensorReadings(@PathVariable String sensorId) {
+        return subscribeLive(List.of(sensorId));
+    }
+
+    /**
+     * Lecturas nuevas de varios sensores en una sola conexión SSE: ?sensorId=a&sensorId=b o ?sensorId=a,b.
+     * Reemplaza el sondeo periódico de GET /{sensorId} en los paneles.
+     */
+    @GetMapping(value = "/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamLiveReadings(@RequestParam List<String> sensorId) {
+        return subscribeLive(sensorId);
+    }
+
+    private ResponseEntity<SseEmitter> subscribeLive(List<String> sensorIds) {
+        try {
+            return ResponseEntity.ok(liveReadingHub.subscribe(sensorIds));
+        } catch (IllegalArgumentException e) {
+            return liveError(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IllegalStateException e) {
+            return liveError(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
         }
-        return ResponseEntity.ok(readings);
     }
-}
\ No newline at end of file
+
+    // El cuerpo debe seguir siendo un SseEmitter: Spring elige el manejador por el tipo declarado
+    private static ResponseEntity<SseEmitter> liveError(HttpStatus status, String message) {
+        SseEmitter emitter = new SseEmitter();
+        try {
+            emitter.send(SseEmitter.event().name("error").data(message));
+            emitter.complete();
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+        return ResponseEntity.status(status).body(emitter);
+    }
+
+    /**
+     * Últimas lecturas del sensor servidas desde la caché en memoria. Soporta peticiones condicionales:
+     * si el cliente envía If-None-Match con el ETag vigente se responde 304 sin cuerpo.
+     */
+    @GetMapping("/{sensorId}/latest")
+    public ResponseEntity<List<SensorReading>> getLatestSensorReadings(@PathVariable String sensorId,
+                                                                       WebRequest webRequest) {
+        LatestReadingsCache.Snapshot snapshot = sensorDataService.getLatestReadings(sensorId);
+        String etag = sensorDataService.getLatestReadingsEtag(snapshot);
+        if (webRequest.checkNotModified(etag)) {
+            return null; // Spring ya preparó la respuesta 304
+        }
+        if (snapshot.readings().isEmpty()) {
+            return ResponseEntity.noContent().eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache()) // El cliente debe revalidar siempre con If-None-Match
+                .body(snapshot.readings());
+    }
+
+    /**
+     * Agregados (min, max, avg, sum, count, last) por minuto, hora o día: ?resolution=minute|hour|day,
+     * acotados opcionalmente por ?from= y ?to= (ISO-8601).
+     */
+    @GetMapping("/{sensorId}/aggregates")
+    public ResponseEntity<?> getSensorReadingAggregates(
+            @PathVariable String sensorId,
+            @RequestParam(defaultValue = "hour") String resolution,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @RequestParam(required = false) String consistency,
+            @RequestHeader(value = READ_CONSISTENCY_HEADER, required = false) String consistencyHeader) {
+        try {
+            List<ReadingAggregate> aggregates = sensorDataService.getAggregates(
+                    sensorId, RollupResolution.parse(resolution), from, to, readConsistency(consistency, consistencyHeader));
+            if (aggregates.isEmpty()) {
+                return ResponseEntity.noContent().build();
+            }
+            return ResponseEntity.ok(aggregates);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    private HttpHeaders archivedUntilHeaders(String sensorId, OffsetDateTime from, OffsetDateTime to) {
+        HttpHeaders headers = new HttpHeaders();
+        OffsetDateTime archivedUntil = sensorDataService.getArchivedUntil(sensorId, from, to);
+        if (archivedUntil != null) {
+            headers.set(ARCHIVED_UNTIL_HEADER, archivedUntil.toString());
+        }
+        return headers;
+    }
+
+    /**
+     * El parámetro de la URL tiene prioridad sobre el encabezado.
+     * @throws IllegalArgumentException si el valor no es strong ni follower.
+     */
+    private static ReadConsistency readConsistency(String param, String header) {
+        return ReadConsistency.parse(param != null ? param : header);
+    }
+}
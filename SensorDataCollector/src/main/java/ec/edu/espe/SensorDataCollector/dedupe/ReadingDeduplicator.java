@@ -0,0 +1,107 @@
+package ec.edu.espe.SensorDataCollector.dedupe;
+
+import ec.edu.espe.SensorDataCollector.model.SensorReading;
+import ec.edu.espe.SensorDataCollector.repository.SensorReadingJdbcRepository;
+import ec.edu.espe.SensorDataCollector.service.AcceptedReadingListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Descarte de lecturas reenviadas (reintentos de sensores y gateways) antes de llegar a la base de datos.
+ * Un filtro de Bloom rotativo en memoria responde "seguro nueva" para la gran mayoría de las lecturas,
+ * que pasan sin consulta adicional; solo las que el filtro podría haber visto se buscan por reading_key.
+ * La autoridad es el índice único de reading_key (INSERT ... ON CONFLICT DO NOTHING): el filtro puede
+ * perder claves (reinicio, otras instancias, rotación) sin que eso deje pasar duplicados.
+ */
+@Component
+@Slf4j
+public class ReadingDeduplicator implements AcceptedReadingListener {
+
+    private final SensorReadingJdbcRepository sensorReadingJdbcRepository;
+    private final RotatingBloomFilter filter;
+
+    private final Counter definitelyNew;
+    private final Counter falsePositives;
+    private final Counter duplicates;
+
+    public ReadingDeduplicator(SensorReadingJdbcRepository sensorReadingJdbcRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.ingest.dedupe.expected-insertions:1000000}") long expectedInsertions,
+                               @Value("${app.ingest.dedupe.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.sensorReadingJdbcRepository = sensorReadingJdbcRepository;
+        this.filter = new RotatingBloomFilter(expectedInsertions, falsePositiveRate);
+
+        Gauge.builder("sensor.ingest.dedupe.filter.insertions", filter, RotatingBloomFilter::getCurrentInsertions)
+                .description("Claves en la generación actual del filtro de Bloom")
+                .register(meterRegistry);
+        this.definitelyNew = Counter.builder("sensor.ingest.dedupe.checks")
+                .description("Consultas al filtro de Bloom de lecturas recibidas")
+                .tag("result", "new")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("sensor.ingest.dedupe.checks")
+                .description("Consultas al filtro de Bloom de lecturas recibidas")
+                .tag("result", "false-positive")
+                .register(meterRegistry);
+        this.duplicates = Counter.builder("sensor.ingest.dedupe.checks")
+                .description("Consultas al filtro de Bloom de lecturas recibidas")
+                .tag("result", "duplicate")
+                .register(meterRegistry);
+        log.info("Filtro de duplicados: {} claves por generación, {} bits, {} funciones hash (fp={})",
+                expectedInsertions, filter.getBits(), filter.getHashFunctions(), falsePositiveRate);
+    }
+
+    /**
+     * Busca en la base de datos solo las claves que el filtro podría haber visto.
+     * @return reading_key -> ID de la lectura ya guardada, para las claves duplicadas.
+     */
+    public Map<String, UUID> findExisting(Collection<String> keys) {
+        List<String> candidates = new ArrayList<>();
+        for (String key : keys) {
+            if (filter.mightContain(key)) {
+                candidates.add(key);
+            } else {
+                definitelyNew.increment();
+            }
+        }
+        if (candidates.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, UUID> existing = sensorReadingJdbcRepository.findIdsByReadingKeys(candidates);
+        duplicates.increment(existing.size());
+        falsePositives.increment(candidates.size() - existing.size());
+        return existing;
+    }
+
+    /**
+     * Duplicados detectados fuera del filtro: repetidos dentro del mismo lote o descartados por el
+     * índice único (reinicio, otra instancia o reintento concurrente).
+     */
+    public void recordDuplicates(int count) {
+        duplicates.increment(count);
+    }
+
+    // Solo se recuerdan las claves de lecturas confirmadas en la base de datos
+    @Override
+    public void onReadingsAccepted(List<SensorReading> readings) {
+        for (SensorReading reading : readings) {
+            if (reading.getReadingKey() != null) {
+                filter.put(reading.getReadingKey());
+            }
+        }
+    }
+
+    @Override
+    public void onReadingsImported(List<SensorReading> readings) {
+        onReadingsAccepted(readings);
+    }
+}
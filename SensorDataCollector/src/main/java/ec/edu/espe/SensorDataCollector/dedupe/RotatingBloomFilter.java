@@ -0,0 +1,136 @@
+package ec.edu.espe.SensorDataCollector.dedupe;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de dos generaciones para claves de texto, seguro entre hilos y sin bloqueos en la
+ * ruta de consulta. Las claves se agregan a la generación actual; cuando esta alcanza expectedInsertions
+ * pasa a ser la anterior y la más antigua se descarta, así la memoria queda fija y el filtro recuerda
+ * entre expectedInsertions y 2 * expectedInsertions claves recientes.
+ *
+ * mightContain nunca da falsos negativos para las claves recordadas; los falsos positivos ocurren con
+ * una probabilidad cercana a falsePositiveRate por generación consultada.
+ */
+public class RotatingBloomFilter {
+
+    private final long expectedInsertions;
+    private final int bits;
+    private final int hashFunctions;
+
+    private volatile Generation current;
+    private volatile Generation previous;
+
+    public RotatingBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions < 1) {
+            throw new IllegalArgumentException("expectedInsertions debe ser mayor que cero");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate debe estar entre 0 y 1");
+        }
+        this.expectedInsertions = expectedInsertions;
+        // m = -n ln p / (ln 2)^2, k = m / n ln 2
+        double optimalBits = -expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        this.bits = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, Math.ceil(optimalBits)));
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bits / expectedInsertions * Math.log(2)));
+        this.current = new Generation(bits);
+        this.previous = new Generation(bits);
+    }
+
+    public boolean mightContain(String key) {
+        long h1 = hash(key);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1L;
+        Generation cur = current;
+        Generation prev = previous;
+        return cur.contains(h1, h2, bits, hashFunctions) || prev.contains(h1, h2, bits, hashFunctions);
+    }
+
+    public void put(String key) {
+        long h1 = hash(key);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1L;
+        Generation cur = current;
+        cur.set(h1, h2, bits, hashFunctions);
+        if (cur.insertions.incrementAndGet() == expectedInsertions) {
+            rotate(cur);
+        }
+    }
+
+    public int getBits() {
+        return bits;
+    }
+
+    public int getHashFunctions() {
+        return hashFunctions;
+    }
+
+    /**
+     * Claves agregadas a la generación actual desde la última rotación.
+     */
+    public long getCurrentInsertions() {
+        return current.insertions.get();
+    }
+
+    private synchronized void rotate(Generation full) {
+        if (current != full) {
+            return;
+        }
+        previous = full;
+        current = new Generation(bits);
+    }
+
+    // FNV-1a de 64 bits sobre los caracteres, seguido del finalizador de MurmurHash3
+    private static long hash(String key) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Generation {
+
+        private final AtomicLongArray words;
+        private final AtomicLong insertions = new AtomicLong();
+
+        Generation(int bits) {
+            this.words = new AtomicLongArray((bits + 63) >>> 6);
+        }
+
+        // Doble hashing (Kirsch-Mitzenmacher): índice_i = h1 + i * h2
+        boolean contains(long h1, long h2, int bits, int k) {
+            long combined = h1;
+            for (int i = 0; i < k; i++) {
+                int index = (int) Long.remainderUnsigned(combined, bits);
+                if ((words.get(index >>> 6) & (1L << index)) == 0) {
+                    return false;
+                }
+                combined += h2;
+            }
+            return true;
+        }
+
+        void set(long h1, long h2, int bits, int k) {
+            long combined = h1;
+            for (int i = 0; i < k; i++) {
+                int index = (int) Long.remainderUnsigned(combined, bits);
+                long mask = 1L << index;
+                int word = index >>> 6;
+                long value = words.get(word);
+                while ((value & mask) == 0 && !words.compareAndSet(word, value, value | mask)) {
+                    value = words.get(word);
+                }
+                combined += h2;
+            }
+        }
+    }
+}
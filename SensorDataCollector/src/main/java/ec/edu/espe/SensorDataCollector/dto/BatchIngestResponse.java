@@ -0,0 +1,23 @@
+package ec.edu.espe.SensorDataCollector.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Respuesta del endpoint de ingesta por lotes, con el detalle por elemento.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchIngestResponse {
+
+    private int received;
+    private int accepted;
+    private int duplicates; // Lecturas ya registradas (reenvíos), no se guardan ni se publican de nuevo
+    private int compressed; // Lecturas dentro de la banda muerta del sensor: se publican sin guardarse
+    private int rejected;
+    private List<BatchItemResult> results;
+}
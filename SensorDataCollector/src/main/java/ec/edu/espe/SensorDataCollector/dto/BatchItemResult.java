@@ -0,0 +1,43 @@
+package ec.edu.espe.SensorDataCollector.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Resultado del procesamiento de un elemento dentro de un lote de lecturas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResult {
+
+    public static final String STATUS_CREATED = "CREATED";
+    public static final String STATUS_REJECTED = "REJECTED";
+    public static final String STATUS_DUPLICATE = "DUPLICATE";
+    public static final String STATUS_COMPRESSED = "COMPRESSED";
+
+    private int index;          // Posición del elemento en el arreglo recibido
+    private String status;      // "CREATED", "REJECTED", "DUPLICATE" o "COMPRESSED"
+    private UUID id;            // ID asignado si la lectura fue guardada, o el de la lectura original si es duplicada
+    private List<String> errors; // Motivos del rechazo, vacío si fue aceptada
+
+    public static BatchItemResult created(int index, UUID id) {
+        return new BatchItemResult(index, STATUS_CREATED, id, List.of());
+    }
+
+    public static BatchItemResult duplicate(int index, UUID existingId) {
+        return new BatchItemResult(index, STATUS_DUPLICATE, existingId, List.of());
+    }
+
+    public static BatchItemResult compressed(int index) {
+        return new BatchItemResult(index, STATUS_COMPRESSED, null, List.of());
+    }
+
+    public static BatchItemResult rejected(int index, List<String> errors) {
+        return new BatchItemResult(index, STATUS_REJECTED, null, errors);
+    }
+}
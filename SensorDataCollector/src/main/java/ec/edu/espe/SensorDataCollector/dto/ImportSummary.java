@@ -0,0 +1,24 @@
+package ec.edu.espe.SensorDataCollector.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resultado de POST /sensor-readings/import.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportSummary {
+
+    private long received;
+    private long imported;
+    private long duplicates;   // Ya registradas (misma reading_key), omitidas
+    private long rejected;     // Inválidas o con formato incorrecto
+    private boolean eventsPublished;
+    private long elapsedMs;
+    private List<String> errors; // Primeros errores, "registro N: motivo"
+}
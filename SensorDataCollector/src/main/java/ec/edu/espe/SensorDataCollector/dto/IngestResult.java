@@ -0,0 +1,27 @@
+package ec.edu.espe.SensorDataCollector.dto;
+
+import java.util.UUID;
+
+/**
+ * Resultado de la ingesta de una lectura individual.
+ * @param id ID de la lectura guardada o, si es un reenvío, el de la lectura original (puede ser null
+ *           si la original aún no está confirmada en la base de datos o no se guardó por la compresión).
+ * @param status CREATED: guardada y publicada. DUPLICATE: ya estaba registrada, no se guardó ni se publicó
+ *               de nuevo. COMPRESSED: dentro de la banda muerta del sensor, publicada sin guardarse.
+ */
+public record IngestResult(UUID id, Status status) {
+
+    public enum Status { CREATED, DUPLICATE, COMPRESSED }
+
+    public static IngestResult created(UUID id) {
+        return new IngestResult(id, Status.CREATED);
+    }
+
+    public static IngestResult duplicate(UUID existingId) {
+        return new IngestResult(existingId, Status.DUPLICATE);
+    }
+
+    public static IngestResult compressed() {
+        return new IngestResult(null, Status.COMPRESSED);
+    }
+}
@@ -0,0 +1,33 @@
+package ec.edu.espe.SensorDataCollector.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import ec.edu.espe.EnvironmentalEvents.util.ScaledValueJson;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Agregado de las lecturas de un sensor en una ventana de tiempo.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReadingAggregate {
+
+    private OffsetDateTime bucketStart;
+    // Valores escalados x100 (ver ScaledValues), serializados como números decimales
+    @JsonSerialize(using = ScaledValueJson.Serializer.class)
+    private long min;
+    @JsonSerialize(using = ScaledValueJson.Serializer.class)
+    private long max;
+    @JsonSerialize(using = ScaledValueJson.Serializer.class)
+    private long avg;
+    @JsonSerialize(using = ScaledValueJson.Serializer.class)
+    private long sum;
+    private long count;
+    @JsonSerialize(using = ScaledValueJson.Serializer.class)
+    private long last;
+    private OffsetDateTime lastTimestamp;
+}
@@ -0,0 +1,35 @@
+package ec.edu.espe.SensorDataCollector.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Cursor opaco para la paginación por keyset del historial: la posición (timestamp, id)
+ * de la última lectura entregada. Se serializa en Base64 URL-safe.
+ */
+public record ReadingCursor(OffsetDateTime timestamp, UUID id) {
+
+    public String encode() {
+        Instant instant = timestamp.toInstant();
+        String raw = instant.getEpochSecond() + ":" + instant.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @throws IllegalArgumentException si el cursor no es válido.
+     */
+    public static ReadingCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            String[] parts = raw.split(":", 3);
+            Instant instant = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new ReadingCursor(instant.atOffset(ZoneOffset.UTC), UUID.fromString(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor de paginación inválido.", e);
+        }
+    }
+}
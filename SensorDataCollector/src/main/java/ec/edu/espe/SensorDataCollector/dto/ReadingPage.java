@@ -0,0 +1,20 @@
+package ec.edu.espe.SensorDataCollector.dto;
+
+import ec.edu.espe.SensorDataCollector.model.SensorReading;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página del historial de un sensor. nextCursor es null cuando no hay más lecturas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReadingPage {
+
+    private List<SensorReading> items;
+    private String nextCursor;
+}
@@ -0,0 +1,25 @@
+package ec.edu.espe.SensorDataCollector.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import ec.edu.espe.EnvironmentalEvents.util.ScaledValueJson;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Punto de la serie de un sensor en las consultas por rango: sin id ni created_at, que el almacén
+ * comprimido de lecturas recientes no conserva.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReadingPoint {
+
+    private String type;
+    // Valor escalado x100 (ver ScaledValues), serializado como número decimal
+    @JsonSerialize(using = ScaledValueJson.Serializer.class)
+    private long value;
+    private OffsetDateTime timestamp;
+}
@@ -1,8 +1,10 @@
 package ec.edu.espe.SensorDataCollector.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import ec.edu.espe.EnvironmentalEvents.util.ScaledValueJson;
 import jakarta.validation.constraints.*;
 import lombok.Data;
-import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 
 @Data
@@ -15,12 +17,18 @@ public class SensorReadingRequest {
     @NotBlank(message = "El tipo de lectura no puede estar vacío.")
     private String type;
 
+    // Valor escalado x100 (ver ScaledValues); en el JSON sigue siendo un número decimal.
+    // El rango y el desfase del timestamp los evalúa la tabla de reglas (ReadingRuleEngine, app.validation)
     @NotNull(message = "El valor no puede ser nulo.")
-    @DecimalMin(value = "-100.0", message = "El valor no puede ser menor a -100.")
-    @DecimalMax(value = "100.0", message = "El valor no puede ser mayor a 100.") // Rango de validación genérico
-    private BigDecimal value;
+    @JsonSerialize(using = ScaledValueJson.Serializer.class)
+    @JsonDeserialize(using = ScaledValueJson.Deserializer.class)
+    private Long value;
 
     @NotNull(message = "El timestamp no puede ser nulo.")
-    @PastOrPresent(message = "El timestamp no puede ser una fecha futura.")
     private OffsetDateTime timestamp;
+
+    // ID opcional asignado por el sensor o gateway; los reenvíos con el mismo ID se descartan.
+    // Sin él, la lectura se identifica por (sensorId, timestamp)
+    @Size(max = 100, message = "El ID de la lectura no puede superar los 100 caracteres.")
+    private String readingId;
 }
\ No newline at end of file
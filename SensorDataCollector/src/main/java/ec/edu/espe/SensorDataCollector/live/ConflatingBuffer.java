@@ -0,0 +1,68 @@
+package ec.edu.espe.SensorDataCollector.live;
+
+import ec.edu.espe.SensorDataCollector.model.SensorReading;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cola acotada de lecturas pendientes de envío a un suscriptor lento. Mientras hay espacio conserva todas
+ * en orden de llegada; llena, una lectura nueva reemplaza a la pendiente más reciente del mismo sensor y tipo
+ * (conflación: el cliente recibe el último valor) y, si no hay ninguna, se descarta la más antigua.
+ * Thread-safe: el productor es el hilo de la ingesta y el consumidor el que envía al cliente.
+ */
+public class ConflatingBuffer {
+
+    public enum Offer {
+        ADDED, CONFLATED, DROPPED_OLDEST
+    }
+
+    // Anillo: head es la posición de la lectura más antigua
+    private final SensorReading[] ring;
+    private int head;
+    private int size;
+
+    public ConflatingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("La capacidad debe ser al menos 1");
+        }
+        this.ring = new SensorReading[capacity];
+    }
+
+    public synchronized Offer offer(SensorReading reading) {
+        if (size < ring.length) {
+            ring[(head + size) % ring.length] = reading;
+            size++;
+            return Offer.ADDED;
+        }
+        for (int i = size - 1; i >= 0; i--) {
+            int index = (head + i) % ring.length;
+            if (ring[index].getSensorId().equals(reading.getSensorId()) && ring[index].getType().equals(reading.getType())) {
+                ring[index] = reading;
+                return Offer.CONFLATED;
+            }
+        }
+        ring[head] = reading;
+        head = (head + 1) % ring.length;
+        return Offer.DROPPED_OLDEST;
+    }
+
+    /**
+     * Quita y devuelve todas las lecturas pendientes en orden; vacía si no hay ninguna.
+     */
+    public synchronized List<SensorReading> drain() {
+        List<SensorReading> pending = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int index = (head + i) % ring.length;
+            pending.add(ring[index]);
+            ring[index] = null;
+        }
+        head = 0;
+        size = 0;
+        return pending;
+    }
+
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -0,0 +1,179 @@
+package ec.edu.espe.SensorDataCollector.live;
+
+import ec.edu.espe.SensorDataCollector.model.SensorReading;
+import ec.edu.espe.SensorDataCollector.service.AcceptedReadingListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Reparte las lecturas aceptadas a las conexiones SSE que siguen su sensor. La ingesta solo deja cada lectura
+ * en el buffer acotado de cada suscriptor (ConflatingBuffer) y programa su envío en otro hilo: nunca espera
+ * a un cliente. Un cliente lento pierde o conflaciona lecturas en su propio buffer sin afectar a los demás.
+ *
+ * Solo llegan las lecturas aceptadas por esta instancia del colector.
+ */
+@Component
+@Slf4j
+@EnableConfigurationProperties(LiveStreamProperties.class)
+public class LiveReadingHub implements AcceptedReadingListener {
+
+    private final LiveStreamProperties properties;
+    private final Set<LiveSubscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final Map<String, Set<LiveSubscription>> subscriptionsBySensor = new ConcurrentHashMap<>();
+    private final Executor sender;
+    private final Counter sentCounter;
+    private final Counter conflatedCounter;
+    private final Counter droppedCounter;
+
+    public LiveReadingHub(LiveStreamProperties properties,
+                          @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                          MeterRegistry meterRegistry) {
+        this.properties = properties;
+        if (virtualThreads) {
+            this.sender = new VirtualThreadTaskExecutor("live-readings-");
+        } else {
+            // Hay a lo sumo un envío en curso por conexión, así que los hilos no superan las conexiones abiertas
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("live-readings-");
+            threadFactory.setDaemon(true);
+            this.sender = Executors.newCachedThreadPool(threadFactory);
+        }
+
+        Gauge.builder("sensor.live.subscribers", subscriptions, Set::size)
+                .description("Conexiones SSE abiertas")
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("sensor.live.events").tag("result", "sent").register(meterRegistry);
+        this.conflatedCounter = Counter.builder("sensor.live.events").tag("result", "conflated").register(meterRegistry);
+        this.droppedCounter = Counter.builder("sensor.live.events").tag("result", "dropped").register(meterRegistry);
+    }
+
+    /**
+     * Abre una conexión que recibe las lecturas aceptadas de los sensores indicados como eventos "reading".
+     * @throws IllegalArgumentException si no hay sensores o son demasiados.
+     * @throws IllegalStateException si la transmisión está desactivada o no admite más conexiones.
+     */
+    public SseEmitter subscribe(Collection<String> sensorIds) {
+        if (!properties.isEnabled()) {
+            throw new IllegalStateException("La transmisión en vivo está desactivada.");
+        }
+        Set<String> ids = new LinkedHashSet<>();
+        for (String sensorId : sensorIds) {
+            if (sensorId != null && !sensorId.isBlank()) {
+                ids.add(sensorId.trim());
+            }
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException("Debe indicar al menos un sensorId.");
+        }
+        if (ids.size() > properties.getMaxSensorsPerSubscription()) {
+            throw new IllegalArgumentException(
+                    "Una conexión puede seguir a lo sumo " + properties.getMaxSensorsPerSubscription() + " sensores.");
+        }
+        if (subscriptions.size() >= properties.getMaxSubscribers()) {
+            throw new IllegalStateException("Se alcanzó el máximo de conexiones en vivo. Intente más tarde.");
+        }
+
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        LiveSubscription subscription = new LiveSubscription(ids, emitter, properties.getBufferSize());
+        emitter.onCompletion(() -> remove(subscription));
+        emitter.onTimeout(() -> remove(subscription));
+        emitter.onError(e -> remove(subscription));
+        subscriptions.add(subscription);
+        for (String sensorId : ids) {
+            subscriptionsBySensor.compute(sensorId, (key, current) -> {
+                Set<LiveSubscription> set = current != null ? current : new CopyOnWriteArraySet<>();
+                set.add(subscription);
+                return set;
+            });
+        }
+        log.debug("Conexión en vivo abierta para {} sensores ({} abiertas)", ids.size(), subscriptions.size());
+        return emitter;
+    }
+
+    @Override
+    public void onReadingsAccepted(List<SensorReading> readings) {
+        if (subscriptionsBySensor.isEmpty()) {
+            return;
+        }
+        for (SensorReading reading : readings) {
+            Set<LiveSubscription> subscribers = subscriptionsBySensor.get(reading.getSensorId());
+            if (subscribers == null) {
+                continue;
+            }
+            for (LiveSubscription subscription : subscribers) {
+                ConflatingBuffer.Offer offer = subscription.offer(reading);
+                if (offer == ConflatingBuffer.Offer.CONFLATED) {
+                    conflatedCounter.increment();
+                } else if (offer == ConflatingBuffer.Offer.DROPPED_OLDEST) {
+                    droppedCounter.increment();
+                }
+                schedule(subscription);
+            }
+        }
+    }
+
+    // Las lecturas dentro de la banda muerta se muestran en vivo aunque no se guarden
+    @Override
+    public void onReadingsPublished(List<SensorReading> readings) {
+        onReadingsAccepted(readings);
+    }
+
+    /**
+     * Comentario periódico en cada conexión: evita que los proxies cierren las inactivas y descubre las de
+     * clientes que ya se fueron.
+     */
+    @Scheduled(fixedDelayString = "${app.live.heartbeat-interval-ms:15000}")
+    void heartbeat() {
+        for (LiveSubscription subscription : subscriptions) {
+            subscription.requestHeartbeat();
+            schedule(subscription);
+        }
+    }
+
+    private void schedule(LiveSubscription subscription) {
+        if (subscription.markScheduled()) {
+            sender.execute(() -> send(subscription));
+        }
+    }
+
+    private void send(LiveSubscription subscription) {
+        try {
+            sentCounter.increment(subscription.send());
+        } catch (IOException | IllegalStateException e) {
+            // Cliente desconectado o conexión ya completada
+            remove(subscription);
+            subscription.getEmitter().completeWithError(e);
+        }
+    }
+
+    private void remove(LiveSubscription subscription) {
+        if (!subscriptions.remove(subscription)) {
+            return;
+        }
+        for (String sensorId : subscription.getSensorIds()) {
+            subscriptionsBySensor.computeIfPresent(sensorId, (key, set) -> {
+                set.remove(subscription);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package ec.edu.espe.SensorDataCollector.live;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Transmisión en vivo de lecturas por Server-Sent Events (app.live en application.yaml).
+ */
+@Data
+@ConfigurationProperties(prefix = "app.live")
+public class LiveStreamProperties {
+
+    private boolean enabled = true;
+
+    // Conexiones SSE abiertas a la vez en esta instancia; las siguientes reciben 503
+    private int maxSubscribers = 2000;
+
+    // Sensores que puede seguir una sola conexión
+    private int maxSensorsPerSubscription = 100;
+
+    // Lecturas pendientes de envío por conexión; al llenarse se conflaciona o se descarta la más antigua
+    private int bufferSize = 256;
+
+    // Duración máxima de una conexión; EventSource se reconecta solo al cerrarse
+    private Duration timeout = Duration.ofMinutes(30);
+}
@@ -0,0 +1,86 @@
+package ec.edu.espe.SensorDataCollector.live;
+
+import ec.edu.espe.SensorDataCollector.model.SensorReading;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Una conexión SSE: los sensores que sigue, su buffer acotado y el estado de envío. A lo sumo un hilo envía
+ * a la vez por conexión (scheduled), así un cliente lento solo retrasa su propio buffer.
+ */
+final class LiveSubscription {
+
+    private final Set<String> sensorIds;
+    private final SseEmitter emitter;
+    private final ConflatingBuffer buffer;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile boolean heartbeatDue;
+
+    LiveSubscription(Set<String> sensorIds, SseEmitter emitter, int bufferSize) {
+        this.sensorIds = sensorIds;
+        this.emitter = emitter;
+        this.buffer = new ConflatingBuffer(bufferSize);
+    }
+
+    Set<String> getSensorIds() {
+        return sensorIds;
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    ConflatingBuffer.Offer offer(SensorReading reading) {
+        return buffer.offer(reading);
+    }
+
+    void requestHeartbeat() {
+        heartbeatDue = true;
+    }
+
+    /**
+     * @return true si el llamador debe programar un envío; false si ya hay uno programado o en curso.
+     */
+    boolean markScheduled() {
+        return scheduled.compareAndSet(false, true);
+    }
+
+    /**
+     * Envía todo lo pendiente en una sola escritura por vuelta, hasta vaciar el buffer.
+     * @return Lecturas enviadas.
+     * @throws IOException si el cliente cerró la conexión.
+     */
+    int send() throws IOException {
+        int sent = 0;
+        do {
+            List<SensorReading> pending = buffer.drain();
+            boolean heartbeat = heartbeatDue;
+            heartbeatDue = false;
+            if (!pending.isEmpty()) {
+                Set<ResponseBodyEmitter.DataWithMediaType> events = new LinkedHashSet<>();
+                for (SensorReading reading : pending) {
+                    events.addAll(SseEmitter.event()
+                            .id(reading.getId().toString())
+                            .name("reading")
+                            .data(reading, MediaType.APPLICATION_JSON)
+                            .build());
+                }
+                emitter.send(events);
+                sent += pending.size();
+            } else if (heartbeat) {
+                // Comentario SSE: mantiene viva la conexión en proxies y detecta clientes desconectados
+                emitter.send(SseEmitter.event().comment("keepalive"));
+            }
+            scheduled.set(false);
+            // Una lectura que llegó entre drain() y set(false) no programó otro envío: se atiende aquí
+        } while ((!buffer.isEmpty() || heartbeatDue) && scheduled.compareAndSet(false, true));
+        return sent;
+    }
+}
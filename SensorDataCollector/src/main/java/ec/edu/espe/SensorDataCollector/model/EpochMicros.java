@@ -0,0 +1,24 @@
+package ec.edu.espe.SensorDataCollector.model;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Conversión entre timestamps y microsegundos desde epoch, la precisión de TIMESTAMPTZ.
+ */
+public final class EpochMicros {
+
+    private EpochMicros() {
+    }
+
+    public static long of(OffsetDateTime timestamp) {
+        Instant instant = timestamp.toInstant();
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000);
+    }
+
+    public static OffsetDateTime toOffsetDateTime(long micros) {
+        return OffsetDateTime.ofInstant(
+                Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1_000), ZoneOffset.UTC);
+    }
+}
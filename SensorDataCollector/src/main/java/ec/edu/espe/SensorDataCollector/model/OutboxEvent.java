@@ -0,0 +1,38 @@
+package ec.edu.espe.SensorDataCollector.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.OffsetDateTime;
+
+/**
+ * Evento NewSensorReadingEvent pendiente de publicación (patrón Transactional Outbox).
+ * Se escribe en la misma transacción que la lectura y el OutboxRelay lo publica después.
+ * La entidad existe para que Hibernate gestione la tabla; el acceso se hace por JDBC.
+ */
+@Entity
+@Table(name = "event_outbox", indexes = @Index(name = "idx_event_outbox_created_at", columnList = "created_at"))
+@Data
+@NoArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @Column(name = "event_id", length = 50)
+    private String eventId;
+
+    @Column(name = "sensor_id", nullable = false, length = 50)
+    private String sensorId;
+
+    @Column(name = "type", nullable = false, length = 50)
+    private String type;
+
+    @Column(name = "value", nullable = false, precision = 10, scale = 2)
+    @Convert(converter = ScaledValueConverter.class)
+    private long value;
+
+    @Column(name = "timestamp", nullable = false)
+    private OffsetDateTime timestamp;
+
+    @Column(name = "created_at", updatable = false, insertable = false, columnDefinition = "TIMESTAMPTZ DEFAULT now()")
+    private OffsetDateTime createdAt;
+}
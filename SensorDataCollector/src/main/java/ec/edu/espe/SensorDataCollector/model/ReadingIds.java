@@ -0,0 +1,23 @@
+package ec.edu.espe.SensorDataCollector.model;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generador de IDs para las lecturas insertadas por JDBC (lotes y write-behind).
+ * Produce UUID v4 aleatorios, igual que la estrategia de la entidad, para que las inserciones
+ * se distribuyan entre los rangos de CockroachDB. Usa ThreadLocalRandom en lugar del
+ * SecureRandom compartido de UUID.randomUUID(), que se vuelve un punto de contención con muchos hilos.
+ */
+public final class ReadingIds {
+
+    private ReadingIds() {
+    }
+
+    public static UUID newId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long msb = (random.nextLong() & 0xFFFFFFFFFFFF0FFFL) | 0x0000000000004000L; // versión 4
+        long lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L; // variante IETF
+        return new UUID(msb, lsb);
+    }
+}
@@ -0,0 +1,24 @@
+package ec.edu.espe.SensorDataCollector.model;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Clave de idempotencia de una lectura (columna reading_key, única en sensor_readings).
+ * Con readingId del cliente la clave es (sensorId, readingId); sin él, (sensorId, timestamp) a la
+ * precisión de microsegundos de TIMESTAMPTZ. El largo del sensorId va como prefijo para que ningún
+ * par de sensorId y sufijo pueda producir la misma clave.
+ */
+public final class ReadingKeys {
+
+    private ReadingKeys() {
+    }
+
+    public static String of(String sensorId, String readingId, OffsetDateTime timestamp) {
+        StringBuilder key = new StringBuilder(sensorId.length() + 32);
+        key.append(sensorId.length()).append(':').append(sensorId);
+        if (readingId != null && !readingId.isBlank()) {
+            return key.append('#').append(readingId).toString();
+        }
+        return key.append('@').append(EpochMicros.of(timestamp)).toString();
+    }
+}
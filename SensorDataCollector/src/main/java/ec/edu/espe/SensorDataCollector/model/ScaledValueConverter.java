@@ -0,0 +1,24 @@
+package ec.edu.espe.SensorDataCollector.model;
+
+import ec.edu.espe.EnvironmentalEvents.util.ScaledValues;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+/**
+ * Mapea el valor escalado (long x100) de la entidad a la columna DECIMAL(10,2).
+ */
+@Converter
+public class ScaledValueConverter implements AttributeConverter<Long, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Long scaled) {
+        return scaled == null ? null : ScaledValues.toBigDecimal(scaled);
+    }
+
+    @Override
+    public Long convertToEntityAttribute(BigDecimal value) {
+        return value == null ? null : ScaledValues.fromBigDecimal(value);
+    }
+}
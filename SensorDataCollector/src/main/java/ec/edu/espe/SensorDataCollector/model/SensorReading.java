@@ -1,9 +1,12 @@
 package ec.edu.espe.SensorDataCollector.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import ec.edu.espe.EnvironmentalEvents.util.ScaledValueJson;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import java.math.BigDecimal;
+import org.hibernate.annotations.UuidGenerator;
 import java.time.OffsetDateTime;
 import java.util.UUID;
 
@@ -14,7 +17,8 @@ import java.util.UUID;
 public class SensorReading {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue
+    @UuidGenerator(style = UuidGenerator.Style.RANDOM) // UUID v4: reparte las inserciones entre los rangos de CockroachDB
     @Column(columnDefinition = "UUID")
     private UUID id;
 
@@ -24,12 +28,20 @@ public class SensorReading {
     @Column(name = "type", nullable = false, length = 50)
     private String type;
 
+    // Valor escalado x100 (ver ScaledValues); en la base de datos y en el JSON es DECIMAL(10,2)
     @Column(name = "value", nullable = false, precision = 10, scale = 2)
-    private BigDecimal value;
+    @Convert(converter = ScaledValueConverter.class)
+    @JsonSerialize(using = ScaledValueJson.Serializer.class)
+    private long value;
 
     @Column(name = "timestamp", nullable = false)
     private OffsetDateTime timestamp;
 
+    // Clave de idempotencia (ver ReadingKeys); única, nula en las lecturas anteriores a su introducción
+    @JsonIgnore
+    @Column(name = "reading_key", length = 160)
+    private String readingKey;
+
     @Column(name = "created_at", updatable = false, insertable = false, columnDefinition = "TIMESTAMPTZ DEFAULT now()")
     private OffsetDateTime createdAt;
 }
\ No newline at end of file
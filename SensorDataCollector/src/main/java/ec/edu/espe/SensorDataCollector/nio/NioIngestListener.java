@@ -0,0 +1,429 @@
+package ec.edu.espe.SensorDataCollector.nio;
+
+import ec.edu.espe.SensorDataCollector.dto.BatchIngestResponse;
+import ec.edu.espe.SensorDataCollector.dto.BatchItemResult;
+import ec.edu.espe.SensorDataCollector.dto.SensorReadingRequest;
+import ec.edu.espe.SensorDataCollector.service.SensorDataService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ingesta por TCP y UDP para sensores que no pueden costear una petición HTTP/JSON por lectura.
+ * Un único hilo con un Selector atiende todas las conexiones y datagramas sobre buffers directos;
+ * las líneas (formato de ReadingLineParser) se agrupan por lectura del socket y un pool pequeño de
+ * workers las pasa a SensorDataService.processBatch: misma validación, deduplicación, escritura y
+ * publicación que POST /sensor-readings/batch.
+ *
+ * TCP: responde una línea por lectura y en el mismo orden: "OK id" ("OK" sin id si la compresión
+ * solo la publicó), "DUP id" (reenvío ya registrado) o "ERR motivo". Cada conexión tiene como máximo un lote en proceso; mientras tanto no se lee de su
+ * socket y el control de flujo de TCP frena al emisor.
+ * Si el cliente cierra su lado (shutdownOutput), el resto sin salto de línea se toma como la última línea y la
+ * conexión se cierra después de enviar todas las respuestas pendientes.
+ * UDP: una o más lecturas por datagrama, sin respuesta; con los workers saturados se descartan.
+ * Solo se activa con app.ingest.nio.enabled=true.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.ingest.nio.enabled", havingValue = "true")
+public class NioIngestListener {
+
+    private final SensorDataService sensorDataService;
+    private final ThreadPoolExecutor workers;
+    private final ReadingLineParser parser = new ReadingLineParser(); // Solo desde el hilo del selector
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private final Counter tcpReadings;
+    private final Counter udpReadings;
+    private final Counter malformed;
+    private final Counter udpDropped;
+
+    @Value("${app.ingest.nio.bind-address:0.0.0.0}")
+    private String bindAddress;
+
+    // 0 desactiva el transporte
+    @Value("${app.ingest.nio.tcp-port:9500}")
+    private int tcpPort;
+
+    @Value("${app.ingest.nio.udp-port:9501}")
+    private int udpPort;
+
+    // Tamaño del buffer directo por conexión; también es el largo máximo de una línea
+    @Value("${app.ingest.nio.buffer-size:8192}")
+    private int bufferSize;
+
+    @Value("${app.ingest.nio.max-connections:10000}")
+    private int maxConnections;
+
+    @Value("${app.ingest.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    private Selector selector;
+    private ServerSocketChannel tcpChannel;
+    private DatagramChannel udpChannel;
+    private ByteBuffer datagramBuffer;
+    private volatile boolean running;
+    private Thread selectorThread;
+
+    public NioIngestListener(SensorDataService sensorDataService,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.ingest.nio.workers:2}") int workerCount,
+                             @Value("${app.ingest.nio.queue-capacity:64}") int queueCapacity) {
+        this.sensorDataService = sensorDataService;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "ingest-nio-worker-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        Gauge.builder("sensor.ingest.nio.connections", connections, AtomicInteger::get)
+                .description("Conexiones TCP abiertas en el listener de ingesta")
+                .register(meterRegistry);
+        this.tcpReadings = Counter.builder("sensor.ingest.nio.readings")
+                .description("Lecturas recibidas por el listener TCP/UDP")
+                .tag("transport", "tcp")
+                .register(meterRegistry);
+        this.udpReadings = Counter.builder("sensor.ingest.nio.readings")
+                .description("Lecturas recibidas por el listener TCP/UDP")
+                .tag("transport", "udp")
+                .register(meterRegistry);
+        this.malformed = Counter.builder("sensor.ingest.nio.malformed")
+                .description("Líneas que no respetan el formato compacto")
+                .register(meterRegistry);
+        this.udpDropped = Counter.builder("sensor.ingest.nio.dropped")
+                .description("Lecturas UDP descartadas por workers saturados")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        selector = Selector.open();
+        if (tcpPort > 0) {
+            tcpChannel = ServerSocketChannel.open();
+            tcpChannel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+            tcpChannel.bind(new InetSocketAddress(bindAddress, tcpPort), 1024);
+            tcpChannel.configureBlocking(false);
+            tcpChannel.register(selector, SelectionKey.OP_ACCEPT);
+        }
+        if (udpPort > 0) {
+            udpChannel = DatagramChannel.open();
+            udpChannel.setOption(StandardSocketOptions.SO_RCVBUF, 4 * 1024 * 1024);
+            udpChannel.bind(new InetSocketAddress(bindAddress, udpPort));
+            udpChannel.configureBlocking(false);
+            udpChannel.register(selector, SelectionKey.OP_READ);
+            datagramBuffer = ByteBuffer.allocateDirect(65_507); // Máximo de un datagrama UDP
+        }
+        running = true;
+        selectorThread = new Thread(this::runSelector, "ingest-nio-selector");
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+        log.info("Listener de ingesta NIO iniciado (tcp={}, udp={}, workers={})",
+                tcpPort > 0 ? tcpPort : "desactivado", udpPort > 0 ? udpPort : "desactivado", workers.getCorePoolSize());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        selector.wakeup();
+        selectorThread.join(TimeUnit.SECONDS.toMillis(5));
+        workers.shutdown();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+        for (SelectionKey key : selector.keys()) {
+            closeQuietly(key);
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            log.debug("Error al cerrar el selector: {}", e.getMessage());
+        }
+    }
+
+    private void runSelector() {
+        while (running) {
+            try {
+                selector.select();
+            } catch (IOException e) {
+                log.error("Error en el selector de ingesta: {}", e.getMessage());
+                continue;
+            }
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                try {
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else if (key.channel() == udpChannel) {
+                        receiveDatagrams();
+                    } else {
+                        if (key.isReadable()) {
+                            read(key);
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            write(key);
+                        }
+                    }
+                } catch (IOException | CancelledKeyException e) {
+                    log.debug("Conexión de ingesta cerrada: {}", e.getMessage());
+                    closeQuietly(key);
+                }
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = tcpChannel.accept()) != null) {
+            if (connections.get() >= maxConnections) {
+                log.warn("Conexión rechazada: se alcanzó el máximo de {} conexiones", maxConnections);
+                channel.close();
+                continue;
+            }
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            key.attach(new Connection(channel, key, ByteBuffer.allocateDirect(bufferSize)));
+            connections.incrementAndGet();
+        }
+    }
+
+    private void read(SelectionKey key) throws IOException {
+        Connection connection = (Connection) key.attachment();
+        ByteBuffer in = connection.in;
+        List<ReadingLineParser.Line> lines = new ArrayList<>();
+        if (connection.channel.read(in) < 0) {
+            // El cliente cerró su lado (half-close): lo que quedó sin salto de línea es la última línea.
+            // Se deja de leer pero la conexión sigue abierta hasta entregar todas las respuestas.
+            connection.inputClosed = true;
+            key.interestOpsAnd(~SelectionKey.OP_READ);
+            in.flip();
+            parser.parseLines(in, true, lines);
+            in.clear();
+            if (!lines.isEmpty()) {
+                dispatch(connection, lines);
+            }
+            key.interestOpsOr(SelectionKey.OP_WRITE); // write() cierra al quedar todo respondido
+            return;
+        }
+        in.flip();
+        parser.parseLines(in, false, lines);
+        in.compact();
+        if (!in.hasRemaining()) {
+            // Una línea ocupa todo el buffer sin salto de línea
+            connection.send(("ERR Línea demasiado larga (máximo " + bufferSize + " bytes)\n").getBytes(StandardCharsets.UTF_8));
+            connection.closeAfterWrite = true;
+            key.interestOps(SelectionKey.OP_WRITE);
+            return;
+        }
+        if (lines.isEmpty()) {
+            return;
+        }
+        // Un lote por conexión: se deja de leer hasta que el worker responda
+        key.interestOpsAnd(~SelectionKey.OP_READ);
+        dispatch(connection, lines);
+    }
+
+    private void dispatch(Connection connection, List<ReadingLineParser.Line> lines) {
+        connection.batchInFlight = true;
+        try {
+            workers.execute(() -> processTcp(connection, lines));
+        } catch (RejectedExecutionException e) {
+            StringBuilder reply = new StringBuilder();
+            for (int i = 0; i < lines.size(); i++) {
+                reply.append("ERR Servicio ocupado, reintente más tarde\n");
+            }
+            connection.send(reply.toString().getBytes(StandardCharsets.UTF_8));
+            connection.batchInFlight = false;
+            connection.resumeReading();
+        }
+    }
+
+    private void processTcp(Connection connection, List<ReadingLineParser.Line> lines) {
+        StringBuilder reply = new StringBuilder(lines.size() * 48);
+        try {
+            List<SensorReadingRequest> requests = requestsOf(lines);
+            tcpReadings.increment(requests.size());
+            List<BatchItemResult> results = requests.isEmpty() ? List.of() : sensorDataService.processBatch(requests).getResults();
+            int next = 0;
+            for (ReadingLineParser.Line line : lines) {
+                if (line.error() != null) {
+                    reply.append("ERR ").append(line.error()).append('\n');
+                    continue;
+                }
+                BatchItemResult result = results.get(next++);
+                switch (result.getStatus()) {
+                    case BatchItemResult.STATUS_CREATED -> reply.append("OK ").append(result.getId());
+                    case BatchItemResult.STATUS_COMPRESSED -> reply.append("OK");
+                    case BatchItemResult.STATUS_DUPLICATE -> reply.append(result.getId() != null ? "DUP " + result.getId() : "DUP");
+                    default -> reply.append("ERR ").append(String.join("; ", result.getErrors()));
+                }
+                reply.append('\n');
+            }
+        } catch (Exception e) {
+            // Fallo de la base de datos: el lote completo hizo rollback
+            log.error("Error al procesar {} lecturas recibidas por TCP: {}", lines.size(), e.getMessage());
+            reply.setLength(0);
+            for (int i = 0; i < lines.size(); i++) {
+                reply.append("ERR Error interno al procesar la lectura\n");
+            }
+        }
+        // La respuesta se encola antes de marcar el lote como terminado: write() no cierra sin haberla enviado
+        connection.send(reply.toString().getBytes(StandardCharsets.UTF_8));
+        connection.batchInFlight = false;
+        connection.resumeReading();
+    }
+
+    private void receiveDatagrams() throws IOException {
+        List<ReadingLineParser.Line> lines = new ArrayList<>();
+        // Se drenan los datagramas disponibles para agruparlos en un solo lote
+        while (lines.size() < maxBatchSize) {
+            datagramBuffer.clear();
+            if (udpChannel.receive(datagramBuffer) == null) {
+                break;
+            }
+            datagramBuffer.flip();
+            parser.parseLines(datagramBuffer, true, lines);
+        }
+        List<SensorReadingRequest> requests = requestsOf(lines);
+        if (requests.isEmpty()) {
+            return;
+        }
+        udpReadings.increment(requests.size());
+        try {
+            workers.execute(() -> processUdp(requests));
+        } catch (RejectedExecutionException e) {
+            udpDropped.increment(requests.size());
+        }
+    }
+
+    private void processUdp(List<SensorReadingRequest> requests) {
+        try {
+            BatchIngestResponse response = sensorDataService.processBatch(requests);
+            if (response.getRejected() > 0) {
+                log.debug("{} de {} lecturas UDP rechazadas", response.getRejected(), requests.size());
+            }
+        } catch (Exception e) {
+            log.error("Error al procesar {} lecturas recibidas por UDP: {}", requests.size(), e.getMessage());
+        }
+    }
+
+    private List<SensorReadingRequest> requestsOf(List<ReadingLineParser.Line> lines) {
+        List<SensorReadingRequest> requests = new ArrayList<>(lines.size());
+        for (ReadingLineParser.Line line : lines) {
+            if (line.request() != null) {
+                requests.add(line.request());
+            } else {
+                malformed.increment();
+            }
+        }
+        return requests;
+    }
+
+    private void write(SelectionKey key) throws IOException {
+        Connection connection = (Connection) key.attachment();
+        ByteBuffer buffer;
+        while ((buffer = connection.out.peek()) != null) {
+            connection.channel.write(buffer);
+            if (buffer.hasRemaining()) {
+                return; // El socket está lleno; se sigue en el próximo OP_WRITE
+            }
+            connection.out.poll();
+        }
+        // Con la entrada cerrada se cierra cuando no queda lote en proceso; out se vuelve a mirar después de
+        // leer batchInFlight porque el worker encola su respuesta antes de liberarlo
+        if (connection.closeAfterWrite
+                || (connection.inputClosed && !connection.batchInFlight && connection.out.isEmpty())) {
+            closeQuietly(key);
+            return;
+        }
+        key.interestOpsAnd(~SelectionKey.OP_WRITE);
+        // Un worker pudo encolar una respuesta entre el último peek y el cambio de interés
+        if (!connection.out.isEmpty()) {
+            key.interestOpsOr(SelectionKey.OP_WRITE);
+        }
+    }
+
+    private void closeQuietly(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            log.debug("Error al cerrar el canal: {}", e.getMessage());
+        }
+        if (key.attachment() instanceof Connection) {
+            key.attach(null);
+            connections.decrementAndGet();
+        }
+    }
+
+    private final class Connection {
+
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private final ByteBuffer in;
+        private final Queue<ByteBuffer> out = new ConcurrentLinkedQueue<>();
+        private boolean closeAfterWrite; // Solo desde el hilo del selector
+        private volatile boolean inputClosed; // El cliente cerró su lado de la conexión
+        private volatile boolean batchInFlight; // Hay un lote en un worker cuya respuesta no se encoló aún
+
+        Connection(SocketChannel channel, SelectionKey key, ByteBuffer in) {
+            this.channel = channel;
+            this.key = key;
+            this.in = in;
+        }
+
+        // Puede llamarse desde los workers: el selector escribe cuando el socket lo permite
+        void send(byte[] reply) {
+            out.add(ByteBuffer.wrap(reply));
+            try {
+                key.interestOpsOr(SelectionKey.OP_WRITE);
+                selector.wakeup();
+            } catch (CancelledKeyException e) {
+                out.clear(); // El cliente ya cerró la conexión
+            }
+        }
+
+        void resumeReading() {
+            try {
+                // Sin entrada que leer, OP_WRITE lleva a write(), que cierra cuando ya no queda nada por responder
+                key.interestOpsOr(inputClosed ? SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+                selector.wakeup();
+            } catch (CancelledKeyException e) {
+                // El cliente ya cerró la conexión
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package ec.edu.espe.SensorDataCollector.nio;
+
+import ec.edu.espe.EnvironmentalEvents.util.ScaledValues;
+import ec.edu.espe.SensorDataCollector.dto.SensorReadingRequest;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Formato compacto de línea para sensores con pocos recursos (listener TCP/UDP):
+ * <pre>sensorId,type,value,timestamp[,readingId]\n</pre>
+ * value es decimal ("23.45") y timestamp son milisegundos desde epoch o ISO-8601.
+ * Ejemplo: {@code S-001,temperature,23.45,1751371200000}
+ *
+ * Lee los bytes directamente del ByteBuffer sin crear un String por línea; reutiliza sus buffers
+ * internos, por lo que cada instancia debe usarse desde un único hilo.
+ */
+public class ReadingLineParser {
+
+    private static final int FIELDS = 5;
+
+    private final int[] fieldStart = new int[FIELDS];
+    private final int[] fieldEnd = new int[FIELDS];
+    private byte[] bytes = new byte[256];
+    private char[] chars = new char[64];
+
+    /**
+     * Resultado de una línea: la lectura, o el motivo por el que no se pudo interpretar.
+     */
+    public record Line(SensorReadingRequest request, String error) {
+    }
+
+    /**
+     * Consume del buffer (entre position y limit) todas las líneas completas terminadas en '\n'.
+     * Si endOfInput es true, el resto sin salto de línea también se toma como una línea (datagramas UDP);
+     * si no, queda en el buffer a partir de position. Las líneas vacías se ignoran.
+     */
+    public void parseLines(ByteBuffer buffer, boolean endOfInput, List<Line> out) {
+        int start = buffer.position();
+        int limit = buffer.limit();
+        for (int i = start; i < limit; i++) {
+            if (buffer.get(i) == '\n') {
+                addLine(buffer, start, i, out);
+                start = i + 1;
+            }
+        }
+        if (endOfInput && start < limit) {
+            addLine(buffer, start, limit, out);
+            start = limit;
+        }
+        buffer.position(start);
+    }
+
+    private void addLine(ByteBuffer buffer, int start, int end, List<Line> out) {
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        if (end == start) {
+            return;
+        }
+        try {
+            out.add(new Line(parse(buffer, start, end), null));
+        } catch (IllegalArgumentException e) {
+            out.add(new Line(null, e.getMessage()));
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException si la línea no respeta el formato.
+     */
+    public SensorReadingRequest parse(ByteBuffer buffer, int start, int end) {
+        int length = end - start;
+        if (bytes.length < length) {
+            bytes = new byte[Math.max(length, bytes.length * 2)];
+        }
+        buffer.get(start, bytes, 0, length);
+
+        int fields = 0;
+        fieldStart[0] = 0;
+        for (int i = 0; i < length; i++) {
+            if (bytes[i] == ',') {
+                if (fields == FIELDS - 1) {
+                    throw new IllegalArgumentException("Línea con demasiados campos (máximo " + FIELDS + ").");
+                }
+                fieldEnd[fields++] = i;
+                fieldStart[fields] = i + 1;
+            }
+        }
+        fieldEnd[fields++] = length;
+        if (fields < 4) {
+            throw new IllegalArgumentException("Línea incompleta: se espera sensorId,type,value,timestamp[,readingId].");
+        }
+
+        SensorReadingRequest request = new SensorReadingRequest();
+        request.setSensorId(text(0));
+        request.setType(text(1));
+        request.setValue(value(2));
+        request.setTimestamp(timestamp(3));
+        if (fields == FIELDS) {
+            request.setReadingId(text(4));
+        }
+        return request;
+    }
+
+    private String text(int field) {
+        return new String(bytes, fieldStart[field], fieldEnd[field] - fieldStart[field], StandardCharsets.UTF_8).trim();
+    }
+
+    private long value(int field) {
+        int length = fieldEnd[field] - fieldStart[field];
+        if (chars.length < length) {
+            chars = new char[length];
+        }
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) (bytes[fieldStart[field] + i] & 0xFF);
+        }
+        return ScaledValues.parse(chars, 0, length);
+    }
+
+    private OffsetDateTime timestamp(int field) {
+        int from = fieldStart[field];
+        int to = fieldEnd[field];
+        if (from == to) {
+            throw new IllegalArgumentException("El timestamp no puede estar vacío.");
+        }
+        long millis = 0;
+        boolean digits = true;
+        for (int i = from; i < to && digits; i++) {
+            byte b = bytes[i];
+            digits = b >= '0' && b <= '9';
+            millis = millis * 10 + (b - '0');
+        }
+        if (digits && to - from <= 15) {
+            return OffsetDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+        }
+        String text = text(field);
+        try {
+            return OffsetDateTime.parse(text);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Timestamp inválido: " + text);
+        }
+    }
+}
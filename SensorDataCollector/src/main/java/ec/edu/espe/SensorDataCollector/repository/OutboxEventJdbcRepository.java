@@ -0,0 +1,58 @@
+package ec.edu.espe.SensorDataCollector.repository;
+
+import ec.edu.espe.EnvironmentalEvents.dto.NewSensorReadingEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Acceso JDBC a la tabla event_outbox.
+ * Las inserciones participan en la transacción activa (la misma que guarda la lectura).
+ */
+@Repository
+@RequiredArgsConstructor
+public class OutboxEventJdbcRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO event_outbox (event_id, sensor_id, type, value, timestamp) VALUES (?, ?, ?, CAST(? AS DECIMAL) / 100, ?)";
+
+    // SKIP LOCKED permite que varias instancias del colector drenen la tabla sin bloquearse entre sí
+    private static final String CLAIM_SQL =
+            "SELECT event_id, sensor_id, type, CAST(value * 100 AS INT8) AS value_scaled, timestamp FROM event_outbox " +
+            "ORDER BY created_at LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String DELETE_SQL = "DELETE FROM event_outbox WHERE event_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertAll(List<NewSensorReadingEvent> events) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, event) -> {
+            ps.setString(1, event.getEventId());
+            ps.setString(2, event.getSensorId());
+            ps.setString(3, event.getType());
+            ps.setLong(4, event.getValue());
+            ps.setObject(5, event.getTimestamp());
+        });
+    }
+
+    /**
+     * Bloquea y devuelve los eventos pendientes más antiguos. Debe llamarse dentro de una transacción.
+     */
+    public List<NewSensorReadingEvent> claimBatch(int limit) {
+        return jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> new NewSensorReadingEvent(
+                rs.getString("event_id"),
+                rs.getString("sensor_id"),
+                rs.getString("type"),
+                rs.getLong("value_scaled"),
+                rs.getObject("timestamp", OffsetDateTime.class)
+        ), limit);
+    }
+
+    public void deleteAll(List<NewSensorReadingEvent> events) {
+        jdbcTemplate.batchUpdate(DELETE_SQL, events, events.size(),
+                (ps, event) -> ps.setString(1, event.getEventId()));
+    }
+}
@@ -0,0 +1,41 @@
+package ec.edu.espe.SensorDataCollector.repository;
+
+/**
+ * Consistencia de las consultas de historial y agregados, elegida por petición.
+ * FOLLOWER lee con AS OF SYSTEM TIME follower_read_timestamp(): datos con unos segundos de atraso
+ * que cualquier réplica puede servir sin pasar por el leaseholder ni competir con la ingesta.
+ */
+public enum ReadConsistency {
+
+    STRONG(""),
+    FOLLOWER(" AS OF SYSTEM TIME follower_read_timestamp()");
+
+    private final String asOfClause;
+
+    ReadConsistency(String asOfClause) {
+        this.asOfClause = asOfClause;
+    }
+
+    /**
+     * Cláusula a colocar después de la tabla en el FROM (vacía para STRONG).
+     * No sirve dentro de una transacción explícita: ahí se usa SET TRANSACTION AS OF SYSTEM TIME.
+     */
+    String asOfClause() {
+        return asOfClause;
+    }
+
+    /**
+     * @param value strong o follower; null o vacío equivale a strong.
+     * @throws IllegalArgumentException si el valor no existe.
+     */
+    public static ReadConsistency parse(String value) {
+        if (value == null || value.isBlank()) {
+            return STRONG;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Consistencia inválida: '" + value + "'. Use strong o follower.");
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package ec.edu.espe.SensorDataCollector.repository;
+
+import ec.edu.espe.SensorDataCollector.dto.ReadingAggregate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Acceso JDBC a la tabla sensor_reading_rollups.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RollupJdbcRepository {
+
+    /**
+     * Fila a combinar con la existente: mínimos y máximos se comparan, sumas y conteos se acumulan
+     * y el último valor se conserva según su timestamp.
+     */
+    public record RollupRow(String sensorId, String resolution, OffsetDateTime bucketStart,
+                            long min, long max, long sum, long count,
+                            long last, OffsetDateTime lastTimestamp) {
+    }
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO sensor_reading_rollups AS r " +
+            "(sensor_id, resolution, bucket_start, min_value, max_value, sum_value, count, last_value, last_timestamp) " +
+            "VALUES (?, ?, ?, CAST(? AS DECIMAL) / 100, CAST(? AS DECIMAL) / 100, CAST(? AS DECIMAL) / 100, ?, " +
+            "CAST(? AS DECIMAL) / 100, ?) " +
+            "ON CONFLICT (sensor_id, resolution, bucket_start) DO UPDATE SET " +
+            "min_value = LEAST(r.min_value, excluded.min_value), " +
+            "max_value = GREATEST(r.max_value, excluded.max_value), " +
+            "sum_value = r.sum_value + excluded.sum_value, " +
+            "count = r.count + excluded.count, " +
+            "last_value = CASE WHEN excluded.last_timestamp >= r.last_timestamp THEN excluded.last_value ELSE r.last_value END, " +
+            "last_timestamp = GREATEST(r.last_timestamp, excluded.last_timestamp)";
+
+    // %s: cláusula AS OF SYSTEM TIME de la consistencia pedida (vacía para STRONG)
+    private static final String SELECT_RANGE_SQL =
+            "SELECT bucket_start, CAST(min_value * 100 AS INT8) AS min_scaled, CAST(max_value * 100 AS INT8) AS max_scaled, " +
+            "CAST(sum_value * 100 AS INT8) AS sum_scaled, count, CAST(last_value * 100 AS INT8) AS last_scaled, last_timestamp " +
+            "FROM sensor_reading_rollups%s " +
+            "WHERE sensor_id = ? AND resolution = ? AND bucket_start >= ? AND bucket_start < ? " +
+            "ORDER BY bucket_start";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void upsertAll(List<RollupRow> rows) {
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setString(1, row.sensorId());
+            ps.setString(2, row.resolution());
+            ps.setObject(3, row.bucketStart());
+            ps.setLong(4, row.min());
+            ps.setLong(5, row.max());
+            ps.setLong(6, row.sum());
+            ps.setLong(7, row.count());
+            ps.setLong(8, row.last());
+            ps.setObject(9, row.lastTimestamp());
+        });
+    }
+
+    public List<ReadingAggregate> findRange(String sensorId, String resolution, OffsetDateTime from, OffsetDateTime to,
+                                            ReadConsistency consistency) {
+        return jdbcTemplate.query(SELECT_RANGE_SQL.formatted(consistency.asOfClause()), (rs, rowNum) -> {
+            long sum = rs.getLong("sum_scaled");
+            long count = rs.getLong("count");
+            return new ReadingAggregate(
+                    rs.getObject("bucket_start", OffsetDateTime.class),
+                    rs.getLong("min_scaled"),
+                    rs.getLong("max_scaled"),
+                    Math.round((double) sum / count),
+                    sum,
+                    count,
+                    rs.getLong("last_scaled"),
+                    rs.getObject("last_timestamp", OffsetDateTime.class));
+        }, sensorId, resolution, from, to);
+    }
+}
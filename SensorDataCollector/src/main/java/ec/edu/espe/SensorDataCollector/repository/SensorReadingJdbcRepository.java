@@ -0,0 +1,320 @@
+package ec.edu.espe.SensorDataCollector.repository;
+
+import ec.edu.espe.SensorDataCollector.dto.ReadingCursor;
+import ec.edu.espe.SensorDataCollector.model.SensorReading;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Acceso JDBC directo a la tabla sensor_readings para las rutas de alto volumen.
+ * Evita la gestión de entidades de JPA y agrupa varias filas en un solo INSERT multi-fila.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SensorReadingJdbcRepository {
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO sensor_readings (id, sensor_id, type, value, timestamp, reading_key) VALUES ";
+    // El valor viaja como entero escalado x100 y la base de datos lo convierte a DECIMAL
+    private static final String ROW_PLACEHOLDER = "(?, ?, ?, CAST(? AS DECIMAL) / 100, ?, ?)";
+    // El índice único de reading_key descarta los reenvíos; RETURNING indica qué filas entraron
+    private static final String INSERT_SUFFIX = " ON CONFLICT (reading_key) DO NOTHING RETURNING id";
+
+    private static final String SELECT_IDS_BY_KEY =
+            "SELECT reading_key, id FROM sensor_readings WHERE reading_key = ANY(?)";
+
+    private static final String SELECT_FROM =
+            "SELECT id, sensor_id, type, CAST(value * 100 AS INT8) AS value_scaled, timestamp, created_at " +
+            "FROM sensor_readings";
+    private static final String WHERE_SENSOR = " WHERE sensor_id = ?";
+
+    private static final String SELECT_NEXT_SENSOR =
+            "SELECT sensor_id FROM sensor_readings WHERE sensor_id > ? ORDER BY sensor_id LIMIT 1";
+    private static final String SELECT_OLDEST_BEFORE =
+            "SELECT timestamp FROM sensor_readings WHERE sensor_id = ? AND timestamp < ? ORDER BY timestamp LIMIT 1";
+
+    // Primera sentencia de una transacción que debe leer de las réplicas seguidoras
+    private static final String SET_TRANSACTION_FOLLOWER_READ =
+            "SET TRANSACTION AS OF SYSTEM TIME follower_read_timestamp()";
+
+    // Borrado de la purga: DELETE_EXPIRED_PREFIX + condición de vencimiento + DELETE_EXPIRED_SUFFIX. El rango
+    // (sensor_id, timestamp < ?) lo resuelve el índice idx_sensor_readings_sensor_ts
+    private static final String DELETE_EXPIRED_PREFIX =
+            "DELETE FROM sensor_readings WHERE sensor_id = ? AND timestamp < ? AND ";
+    private static final String DELETE_EXPIRED_SUFFIX = " ORDER BY timestamp LIMIT ?";
+
+    private static final String DELETE_BY_IDS = "DELETE FROM sensor_readings WHERE id = ANY(?)";
+
+    private static final RowMapper<SensorReading> ROW_MAPPER = (rs, rowNum) -> mapRow(rs);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Límite de filas por sentencia para no superar el máximo de parámetros del protocolo
+    @Value("${app.ingest.batch.rows-per-statement:500}")
+    private int rowsPerStatement;
+
+    /**
+     * Inserta todas las lecturas usando sentencias INSERT multi-fila, omitiendo las que ya existen
+     * con la misma reading_key. Las lecturas deben traer su ID y su reading_key ya asignados.
+     * @param readings Lecturas a insertar.
+     * @return Las lecturas efectivamente insertadas, en el mismo orden.
+     */
+    public List<SensorReading> insertAll(List<SensorReading> readings) {
+        Set<UUID> insertedIds = new HashSet<>(readings.size() * 2);
+        for (int from = 0; from < readings.size(); from += rowsPerStatement) {
+            List<SensorReading> chunk = readings.subList(from, Math.min(from + rowsPerStatement, readings.size()));
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(buildInsert(chunk.size()));
+                int i = 1;
+                for (SensorReading reading : chunk) {
+                    ps.setObject(i++, reading.getId());
+                    ps.setString(i++, reading.getSensorId());
+                    ps.setString(i++, reading.getType());
+                    ps.setLong(i++, reading.getValue());
+                    ps.setObject(i++, reading.getTimestamp());
+                    ps.setString(i++, reading.getReadingKey());
+                }
+                return ps;
+            }, rs -> {
+                insertedIds.add(rs.getObject("id", UUID.class));
+            });
+        }
+        if (insertedIds.size() == readings.size()) {
+            return readings;
+        }
+        List<SensorReading> inserted = new ArrayList<>(insertedIds.size());
+        for (SensorReading reading : readings) {
+            if (insertedIds.contains(reading.getId())) {
+                inserted.add(reading);
+            }
+        }
+        return inserted;
+    }
+
+    /**
+     * IDs de las lecturas ya guardadas con alguna de las claves indicadas.
+     * @return reading_key -> id, solo para las claves encontradas.
+     */
+    public Map<String, UUID> findIdsByReadingKeys(Collection<String> keys) {
+        Map<String, UUID> ids = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_IDS_BY_KEY);
+            ps.setArray(1, con.createArrayOf("varchar", keys.toArray()));
+            return ps;
+        }, rs -> {
+            ids.put(rs.getString("reading_key"), rs.getObject("id", UUID.class));
+        });
+        return ids;
+    }
+
+    /**
+     * Lecturas de un sensor, de la más reciente a la más antigua.
+     * @param from Límite inferior inclusivo, o null.
+     * @param to Límite superior exclusivo, o null.
+     */
+    public List<SensorReading> findBySensorId(String sensorId, OffsetDateTime from, OffsetDateTime to,
+                                              ReadConsistency consistency) {
+        List<Object> args = new ArrayList<>();
+        String sql = buildRangeQuery(sensorId, from, to, null, consistency.asOfClause(), args);
+        return jdbcTemplate.query(sql, ROW_MAPPER, args.toArray());
+    }
+
+    /**
+     * Página del historial de un sensor por keyset sobre (timestamp, id), del más reciente al más antiguo.
+     * Usa el índice (sensor_id, timestamp DESC) sin OFFSET, así el costo no crece con la profundidad de la página.
+     * @param from Límite inferior inclusivo, o null.
+     * @param to Límite superior exclusivo, o null.
+     * @param after Última posición entregada, o null para la primera página.
+     */
+    public List<SensorReading> findPage(String sensorId, OffsetDateTime from, OffsetDateTime to,
+                                        ReadingCursor after, int limit) {
+        return findPage(sensorId, from, to, after, limit, ReadConsistency.STRONG);
+    }
+
+    public List<SensorReading> findPage(String sensorId, OffsetDateTime from, OffsetDateTime to,
+                                        ReadingCursor after, int limit, ReadConsistency consistency) {
+        List<Object> args = new ArrayList<>();
+        String sql = buildRangeQuery(sensorId, from, to, after, consistency.asOfClause(), args) + " LIMIT ?";
+        args.add(limit);
+        return jdbcTemplate.query(sql, ROW_MAPPER, args.toArray());
+    }
+
+    /**
+     * Recorre el historial de un sensor con un cursor del servidor (fetch size), entregando cada lectura
+     * al consumidor sin acumularlas en memoria. Debe llamarse dentro de una transacción: el driver de
+     * PostgreSQL solo respeta el fetch size con autocommit desactivado. Por eso, con FOLLOWER la marca de
+     * tiempo se fija para toda la transacción y esta debe ser la primera sentencia que se ejecuta en ella.
+     */
+    public void streamRange(String sensorId, OffsetDateTime from, OffsetDateTime to, int fetchSize,
+                            ReadConsistency consistency, Consumer<SensorReading> consumer) {
+        if (consistency == ReadConsistency.FOLLOWER) {
+            jdbcTemplate.execute(SET_TRANSACTION_FOLLOWER_READ);
+        }
+        List<Object> args = new ArrayList<>();
+        String sql = buildRangeQuery(sensorId, from, to, null, "", args);
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        }, rs -> {
+            consumer.accept(mapRow(rs));
+        });
+    }
+
+    /**
+     * Recorre las lecturas de un sensor con timestamp en [from, to) en orden cronológico (timestamp, id), con
+     * el mismo cursor del servidor que streamRange; también debe llamarse dentro de una transacción (y con
+     * FOLLOWER, como primera sentencia de ella).
+     * @param to Límite superior exclusivo, o null.
+     */
+    public void streamChronological(String sensorId, OffsetDateTime from, OffsetDateTime to, int fetchSize,
+                                    ReadConsistency consistency, Consumer<SensorReading> consumer) {
+        if (consistency == ReadConsistency.FOLLOWER) {
+            jdbcTemplate.execute(SET_TRANSACTION_FOLLOWER_READ);
+        }
+        String sql = SELECT_FROM + WHERE_SENSOR + " AND timestamp >= ?" + (to != null ? " AND timestamp < ?" : "")
+                + " ORDER BY timestamp, id";
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setString(1, sensorId);
+            ps.setObject(2, from);
+            if (to != null) {
+                ps.setObject(3, to);
+            }
+            return ps;
+        }, rs -> {
+            consumer.accept(mapRow(rs));
+        });
+    }
+
+    /**
+     * Siguiente sensor con lecturas en orden de sensor_id: un salto por el índice (sensor_id, timestamp)
+     * en lugar de un SELECT DISTINCT sobre toda la tabla.
+     * @return null si no hay más sensores.
+     */
+    public String findNextSensorId(String after) {
+        List<String> next = jdbcTemplate.queryForList(SELECT_NEXT_SENSOR, String.class, after);
+        return next.isEmpty() ? null : next.get(0);
+    }
+
+    /**
+     * Timestamp de la lectura más antigua del sensor anterior a 'before', o null si no hay.
+     */
+    public OffsetDateTime findOldestTimestampBefore(String sensorId, OffsetDateTime before) {
+        List<OffsetDateTime> oldest = jdbcTemplate.query(SELECT_OLDEST_BEFORE,
+                (rs, rowNum) -> rs.getObject("timestamp", OffsetDateTime.class), sensorId, before);
+        return oldest.isEmpty() ? null : oldest.get(0);
+    }
+
+    /**
+     * Borra hasta limit lecturas vencidas del sensor, de la más antigua en adelante.
+     * @param before Límite de timestamp que acota el rango del índice: el vencimiento más reciente de todos los tipos.
+     * @param cutoffByType Tipo en minúsculas -> instante antes del cual sus lecturas vencen.
+     * @param defaultCutoff Vencimiento de los demás tipos, o null para conservarlos.
+     * @return Lecturas borradas; menos de limit indica que no quedan vencidas.
+     */
+    public int deleteExpired(String sensorId, OffsetDateTime before, int limit,
+                             Map<String, OffsetDateTime> cutoffByType, OffsetDateTime defaultCutoff) {
+        List<Object> args = new ArrayList<>();
+        args.add(sensorId);
+        args.add(before);
+        StringBuilder expired = new StringBuilder("(");
+        for (Map.Entry<String, OffsetDateTime> entry : cutoffByType.entrySet()) {
+            if (expired.length() > 1) {
+                expired.append(" OR ");
+            }
+            expired.append("(lower(type) = ? AND timestamp < ?)");
+            args.add(entry.getKey());
+            args.add(entry.getValue());
+        }
+        if (defaultCutoff != null) {
+            if (expired.length() > 1) {
+                expired.append(" OR ");
+            }
+            expired.append("(timestamp < ?");
+            args.add(defaultCutoff);
+            if (!cutoffByType.isEmpty()) {
+                expired.append(" AND lower(type) NOT IN (").append("?, ".repeat(cutoffByType.size() - 1)).append("?)");
+                args.addAll(cutoffByType.keySet());
+            }
+            expired.append(')');
+        }
+        expired.append(')');
+        args.add(limit);
+        return jdbcTemplate.update(DELETE_EXPIRED_PREFIX + expired + DELETE_EXPIRED_SUFFIX, args.toArray());
+    }
+
+    public int deleteByIds(List<UUID> ids) {
+        return jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(DELETE_BY_IDS);
+            ps.setArray(1, con.createArrayOf("uuid", ids.toArray()));
+            return ps;
+        });
+    }
+
+    private static String buildRangeQuery(String sensorId, OffsetDateTime from, OffsetDateTime to,
+                                          ReadingCursor after, String asOfClause, List<Object> args) {
+        StringBuilder sql = new StringBuilder(SELECT_FROM).append(asOfClause).append(WHERE_SENSOR);
+        args.add(sensorId);
+        if (from != null) {
+            sql.append(" AND timestamp >= ?");
+            args.add(from);
+        }
+        if (to != null) {
+            sql.append(" AND timestamp < ?");
+            args.add(to);
+        }
+        if (after != null) {
+            sql.append(" AND (timestamp, id) < (?, ?)");
+            args.add(after.timestamp());
+            args.add(after.id());
+        }
+        sql.append(" ORDER BY timestamp DESC, id DESC");
+        return sql.toString();
+    }
+
+    private static SensorReading mapRow(ResultSet rs) throws SQLException {
+        SensorReading reading = new SensorReading();
+        reading.setId(rs.getObject("id", UUID.class));
+        reading.setSensorId(rs.getString("sensor_id"));
+        reading.setType(rs.getString("type"));
+        reading.setValue(rs.getLong("value_scaled"));
+        reading.setTimestamp(rs.getObject("timestamp", OffsetDateTime.class));
+        reading.setCreatedAt(rs.getObject("created_at", OffsetDateTime.class));
+        return reading;
+    }
+
+    private static String buildInsert(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows * (ROW_PLACEHOLDER.length() + 2) + INSERT_SUFFIX.length());
+        sql.append(INSERT_PREFIX);
+        for (int r = 0; r < rows; r++) {
+            if (r > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDER);
+        }
+        sql.append(INSERT_SUFFIX);
+        return sql.toString();
+    }
+}
@@ -0,0 +1,167 @@
+package ec.edu.espe.SensorDataCollector.retention;
+
+import ec.edu.espe.SensorDataCollector.archive.ReadingArchive;
+import ec.edu.espe.SensorDataCollector.repository.SensorReadingJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Purga programada de las lecturas vencidas según los TTL por tipo de app.retention.
+ * En lugar de un único DELETE por timestamp, que en CockroachDB bloquea tramos grandes y compite con la
+ * ingesta, recorre los sensores en orden de sensor_id como ReadingArchiveJob y, por cada uno con lecturas
+ * anteriores al vencimiento, borra las vencidas de la más antigua en adelante en lotes de delete-chunk-size
+ * con una pausa entre lotes. Ambos pasos usan el índice (sensor_id, timestamp): el costo depende de lo que
+ * vence, no del tamaño de la tabla. Una ejecución que agota max-run-duration continúa en la siguiente desde
+ * el mismo sensor. Al terminar el recorrido aplica los mismos vencimientos a los segmentos del archivo frío
+ * (ReadingArchive), para que las lecturas archivadas no sobrevivan a su TTL.
+ *
+ * Con varias instancias del colector conviene activarla (app.retention.enabled) en una sola.
+ */
+@Component
+@Slf4j
+@EnableConfigurationProperties(RetentionProperties.class)
+public class ReadingRetentionJob {
+
+    private final SensorReadingJdbcRepository sensorReadingJdbcRepository;
+    private final ReadingArchive readingArchive;
+    private final RetentionProperties properties;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong runSensors = new AtomicLong();
+    private final AtomicLong runDeleted = new AtomicLong();
+    private final Counter deletedCounter;
+    private final Counter archiveDeletedCounter;
+    private final Timer chunkTimer;
+    private final Timer runTimer;
+
+    // Sensor en el que se detuvo la ejecución anterior por max-run-duration, o null para empezar desde el inicio
+    private volatile String resumeSensor;
+
+    public ReadingRetentionJob(SensorReadingJdbcRepository sensorReadingJdbcRepository,
+                               ReadingArchive readingArchive,
+                               RetentionProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.sensorReadingJdbcRepository = sensorReadingJdbcRepository;
+        this.readingArchive = readingArchive;
+        this.properties = properties;
+
+        Gauge.builder("sensor.retention.run.sensors", runSensors, AtomicLong::get)
+                .description("Sensores recorridos por la ejecución de purga en curso (o la última)")
+                .register(meterRegistry);
+        Gauge.builder("sensor.retention.run.deleted", runDeleted, AtomicLong::get)
+                .description("Lecturas borradas por la ejecución de purga en curso (o la última)")
+                .register(meterRegistry);
+        Gauge.builder("sensor.retention.run.active", running, r -> r.get() ? 1 : 0)
+                .description("1 mientras hay una purga en curso")
+                .register(meterRegistry);
+        this.deletedCounter = Counter.builder("sensor.retention.deleted")
+                .description("Lecturas borradas por vencer su TTL")
+                .register(meterRegistry);
+        this.archiveDeletedCounter = Counter.builder("sensor.retention.archive.deleted")
+                .description("Puntos quitados del archivo frío por vencer su TTL")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("sensor.retention.chunk")
+                .description("Duración de cada lote de la purga (recorrido y borrado)")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("sensor.retention.run")
+                .description("Duración de cada ejecución de la purga")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.retention.cron:0 15 3 * * *}")
+    public void purgeExpiredReadings() {
+        if (!properties.isEnabled() || (properties.getTtl().isEmpty() && properties.getDefaultTtl() == null)) {
+            return;
+        }
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            purge(start);
+        } catch (Exception e) {
+            log.error("Error en la purga de lecturas vencidas. Se continuará en la próxima ejecución. Error: {}", e.getMessage());
+        } finally {
+            runTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            running.set(false);
+        }
+    }
+
+    private void purge(long startNanos) throws InterruptedException, IOException {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        Map<String, OffsetDateTime> cutoffByType = new LinkedHashMap<>();
+        properties.getTtl().forEach((type, ttl) -> cutoffByType.put(type.toLowerCase(Locale.ROOT), now.minus(ttl)));
+        OffsetDateTime defaultCutoff = properties.getDefaultTtl() == null ? null : now.minus(properties.getDefaultTtl());
+        // Ninguna lectura posterior al vencimiento más reciente puede estar vencida: acota el rango del índice
+        OffsetDateTime latestCutoff = defaultCutoff;
+        for (OffsetDateTime cutoff : cutoffByType.values()) {
+            if (latestCutoff == null || cutoff.isAfter(latestCutoff)) {
+                latestCutoff = cutoff;
+            }
+        }
+        long deadline = startNanos + properties.getMaxRunDuration().toNanos();
+
+        String sensorId = resumeSensor != null ? resumeSensor : sensorReadingJdbcRepository.findNextSensorId("");
+        if (resumeSensor == null) {
+            runSensors.set(0);
+            runDeleted.set(0);
+        }
+        log.info("Purga de lecturas vencidas iniciada (tipos={}, default={}, desde sensor={})",
+                cutoffByType.keySet(), properties.getDefaultTtl(), sensorId);
+
+        while (sensorId != null) {
+            if (System.nanoTime() > deadline) {
+                resumeSensor = sensorId;
+                log.info("Purga pausada tras {}: {} borradas en {} sensores, continúa en la próxima ejecución",
+                        properties.getMaxRunDuration(), runDeleted.get(), runSensors.get());
+                return;
+            }
+            // Una búsqueda en el índice descarta los sensores sin lecturas anteriores al vencimiento
+            if (sensorReadingJdbcRepository.findOldestTimestampBefore(sensorId, latestCutoff) != null) {
+                purgeSensor(sensorId, latestCutoff, cutoffByType, defaultCutoff);
+            }
+            runSensors.incrementAndGet();
+            sensorId = sensorReadingJdbcRepository.findNextSensorId(sensorId);
+        }
+        resumeSensor = null;
+        log.info("Purga de lecturas vencidas terminada: {} borradas en {} sensores", runDeleted.get(), runSensors.get());
+
+        long archiveDeleted = readingArchive.purgeExpired(latestCutoff, cutoffByType, defaultCutoff);
+        archiveDeletedCounter.increment(archiveDeleted);
+        if (archiveDeleted > 0) {
+            log.info("Purga del archivo frío terminada: {} puntos vencidos quitados", archiveDeleted);
+        }
+    }
+
+    private void purgeSensor(String sensorId, OffsetDateTime latestCutoff, Map<String, OffsetDateTime> cutoffByType,
+                             OffsetDateTime defaultCutoff) throws InterruptedException {
+        long minPauseNanos = properties.getPause().toNanos();
+        int deleted;
+        do {
+            long chunkStart = System.nanoTime();
+            deleted = sensorReadingJdbcRepository.deleteExpired(
+                    sensorId, latestCutoff, properties.getDeleteChunkSize(), cutoffByType, defaultCutoff);
+            deletedCounter.increment(deleted);
+            runDeleted.addAndGet(deleted);
+            long elapsed = System.nanoTime() - chunkStart;
+            chunkTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            // Ritmo: al menos la pausa configurada y nunca más del 50% del tiempo ocupado en la base de datos
+            TimeUnit.NANOSECONDS.sleep(Math.max(minPauseNanos, elapsed));
+        } while (deleted >= properties.getDeleteChunkSize());
+    }
+}
@@ -0,0 +1,34 @@
+package ec.edu.espe.SensorDataCollector.retention;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Retención de sensor_readings (app.retention en application.yaml). Sin TTL para un tipo ni default-ttl,
+ * sus lecturas se conservan indefinidamente.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.retention")
+public class RetentionProperties {
+
+    private boolean enabled = true;
+
+    // TTL de los tipos que no aparecen en ttl; null conserva sus lecturas
+    private Duration defaultTtl;
+
+    // TTL por tipo de sensor; la clave no distingue mayúsculas
+    private Map<String, Duration> ttl = new LinkedHashMap<>();
+
+    // Lecturas vencidas de un sensor borradas por sentencia
+    private int deleteChunkSize = 1000;
+
+    // Pausa mínima entre lotes; si un lote tarda más, la pausa se alarga a su duración
+    private Duration pause = Duration.ofMillis(100);
+
+    // Tiempo máximo de una ejecución; la siguiente continúa desde donde quedó
+    private Duration maxRunDuration = Duration.ofHours(1);
+}
@@ -0,0 +1,160 @@
+package ec.edu.espe.SensorDataCollector.rollup;
+
+import ec.edu.espe.SensorDataCollector.model.SensorReading;
+import ec.edu.espe.SensorDataCollector.repository.RollupJdbcRepository;
+import ec.edu.espe.SensorDataCollector.repository.RollupJdbcRepository.RollupRow;
+import ec.edu.espe.SensorDataCollector.service.AcceptedReadingListener;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mantiene los agregados por minuto, hora y día de forma incremental.
+ * Cada lectura aceptada se pre-agrega en memoria y una tarea periódica combina los parciales con
+ * la tabla sensor_reading_rollups mediante upserts, en lugar de recalcular desde sensor_readings.
+ */
+@Component
+@Slf4j
+public class RollupAggregator implements AcceptedReadingListener {
+
+    private static final RollupResolution[] RESOLUTIONS = RollupResolution.values();
+
+    private final RollupJdbcRepository rollupJdbcRepository;
+    private final ConcurrentHashMap<RollupKey, Partial> partials = new ConcurrentHashMap<>();
+    private final Timer flushTimer;
+
+    public RollupAggregator(RollupJdbcRepository rollupJdbcRepository, MeterRegistry meterRegistry) {
+        this.rollupJdbcRepository = rollupJdbcRepository;
+        Gauge.builder("sensor.rollup.pending", partials, ConcurrentHashMap::size)
+                .description("Agregados parciales pendientes de combinar con la base de datos")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("sensor.rollup.flush")
+                .description("Duración de cada combinación de agregados con la base de datos")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void onReadingsAccepted(List<SensorReading> readings) {
+        for (SensorReading reading : readings) {
+            long epochMillis = reading.getTimestamp().toInstant().toEpochMilli();
+            for (RollupResolution resolution : RESOLUTIONS) {
+                RollupKey key = new RollupKey(reading.getSensorId(), resolution, resolution.bucketStart(epochMillis));
+                // compute es atómico por clave: una vez que flush() retira un parcial, nadie más lo modifica
+                partials.compute(key, (k, partial) -> {
+                    Partial target = partial != null ? partial : new Partial();
+                    target.add(reading.getValue(), epochMillis);
+                    return target;
+                });
+            }
+        }
+    }
+
+    // Las que la compresión solo publicó también son parte de la señal: sin ellas count/sum/avg/last quedan cortos
+    @Override
+    public void onReadingsPublished(List<SensorReading> readings) {
+        onReadingsAccepted(readings);
+    }
+
+    @Override
+    public void onReadingsImported(List<SensorReading> readings) {
+        onReadingsAccepted(readings);
+    }
+
+    @Scheduled(fixedDelayString = "${app.rollups.flush-interval-ms:5000}")
+    public void flush() {
+        if (partials.isEmpty()) {
+            return;
+        }
+        List<RollupKey> keys = new ArrayList<>(partials.keySet());
+        List<RollupKey> flushedKeys = new ArrayList<>(keys.size());
+        List<Partial> flushedPartials = new ArrayList<>(keys.size());
+        List<RollupRow> rows = new ArrayList<>(keys.size());
+        for (RollupKey key : keys) {
+            Partial partial = partials.remove(key);
+            if (partial != null) {
+                flushedKeys.add(key);
+                flushedPartials.add(partial);
+                rows.add(partial.toRow(key));
+            }
+        }
+
+        long start = System.nanoTime();
+        try {
+            rollupJdbcRepository.upsertAll(rows);
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.debug("{} agregados combinados con sensor_reading_rollups", rows.size());
+        } catch (Exception e) {
+            // Se devuelven los parciales al mapa para reintentar en la siguiente ejecución
+            for (int i = 0; i < flushedKeys.size(); i++) {
+                partials.merge(flushedKeys.get(i), flushedPartials.get(i), Partial::merge);
+            }
+            log.error("Error al combinar {} agregados. Se reintentará. Error: {}", rows.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private record RollupKey(String sensorId, RollupResolution resolution, long bucketStart) {
+    }
+
+    /**
+     * Agregado parcial de una ventana. Solo se modifica dentro de ConcurrentHashMap.compute/merge.
+     */
+    private static final class Partial {
+
+        // Valores escalados x100 (ver ScaledValues)
+        private long min = Long.MAX_VALUE;
+        private long max = Long.MIN_VALUE;
+        private long sum;
+        private long count;
+        private long last;
+        private long lastEpochMillis = Long.MIN_VALUE;
+
+        void add(long value, long epochMillis) {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            sum += value;
+            count++;
+            if (epochMillis >= lastEpochMillis) {
+                last = value;
+                lastEpochMillis = epochMillis;
+            }
+        }
+
+        Partial merge(Partial other) {
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+            sum += other.sum;
+            count += other.count;
+            if (other.lastEpochMillis >= lastEpochMillis) {
+                last = other.last;
+                lastEpochMillis = other.lastEpochMillis;
+            }
+            return this;
+        }
+
+        RollupRow toRow(RollupKey key) {
+            return new RollupRow(key.sensorId(), key.resolution().name(), toOffsetDateTime(key.bucketStart()),
+                    min, max, sum, count, last, toOffsetDateTime(lastEpochMillis));
+        }
+
+        private static OffsetDateTime toOffsetDateTime(long epochMillis) {
+            return Instant.ofEpochMilli(epochMillis).atOffset(ZoneOffset.UTC);
+        }
+    }
+}
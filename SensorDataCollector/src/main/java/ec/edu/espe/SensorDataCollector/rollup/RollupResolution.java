@@ -0,0 +1,46 @@
+package ec.edu.espe.SensorDataCollector.rollup;
+
+import java.time.Duration;
+
+/**
+ * Resoluciones de los agregados de lecturas. Las ventanas se alinean a UTC.
+ */
+public enum RollupResolution {
+
+    MINUTE(Duration.ofMinutes(1), Duration.ofDays(1)),
+    HOUR(Duration.ofHours(1), Duration.ofDays(30)),
+    DAY(Duration.ofDays(1), Duration.ofDays(365));
+
+    private final long bucketMillis;
+    private final Duration defaultRange;
+
+    RollupResolution(Duration bucket, Duration defaultRange) {
+        this.bucketMillis = bucket.toMillis();
+        this.defaultRange = defaultRange;
+    }
+
+    /**
+     * Inicio (epoch millis) de la ventana que contiene el instante dado.
+     */
+    public long bucketStart(long epochMillis) {
+        return Math.floorDiv(epochMillis, bucketMillis) * bucketMillis;
+    }
+
+    /**
+     * Rango consultado cuando la petición no indica 'from'.
+     */
+    public Duration getDefaultRange() {
+        return defaultRange;
+    }
+
+    /**
+     * @throws IllegalArgumentException si la resolución no existe.
+     */
+    public static RollupResolution parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Resolución inválida: '" + value + "'. Use minute, hour o day.");
+        }
+    }
+}
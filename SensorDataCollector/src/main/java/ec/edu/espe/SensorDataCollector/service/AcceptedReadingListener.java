@@ -0,0 +1,31 @@
+package ec.edu.espe.SensorDataCollector.service;
+
+import ec.edu.espe.SensorDataCollector.model.SensorReading;
+
+import java.util.List;
+
+/**
+ * Recibe las lecturas aceptadas por el colector una vez confirmadas en la base de datos.
+ * Se invoca en el hilo que hizo el commit, por lo que las implementaciones deben ser rápidas y no bloquear.
+ */
+public interface AcceptedReadingListener {
+
+    /**
+     * Lecturas de la ingesta guardadas en sensor_readings.
+     */
+    void onReadingsAccepted(List<SensorReading> readings);
+
+    /**
+     * Lecturas de la ingesta que la compresión por banda muerta solo publicó: son parte de la señal del sensor
+     * pero no están en sensor_readings. Por defecto se ignoran.
+     */
+    default void onReadingsPublished(List<SensorReading> readings) {
+    }
+
+    /**
+     * Lecturas guardadas por la importación masiva: históricas y en cualquier orden, no son lecturas en vivo.
+     * Por defecto se ignoran.
+     */
+    default void onReadingsImported(List<SensorReading> readings) {
+    }
+}
@@ -0,0 +1,69 @@
+package ec.edu.espe.SensorDataCollector.service;
+
+import ec.edu.espe.SensorDataCollector.model.SensorReading;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Notifica a los AcceptedReadingListener las lecturas guardadas, las que la compresión solo publicó y las
+ * importadas. Si hay una transacción activa, la notificación se difiere hasta después del commit para no
+ * exponer lecturas que luego hagan rollback (ni, en el caso de las solo publicadas, eventos que no se enviaron).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AcceptedReadingNotifier {
+
+    private final List<AcceptedReadingListener> listeners;
+
+    public void notifyAccepted(List<SensorReading> readings) {
+        notify(readings, AcceptedReadingListener::onReadingsAccepted);
+    }
+
+    /**
+     * Lecturas que la compresión solo publicó, junto con su evento.
+     */
+    public void notifyPublished(List<SensorReading> readings) {
+        notify(readings, AcceptedReadingListener::onReadingsPublished);
+    }
+
+    /**
+     * Lecturas guardadas por la importación masiva.
+     */
+    public void notifyImported(List<SensorReading> readings) {
+        notify(readings, AcceptedReadingListener::onReadingsImported);
+    }
+
+    private void notify(List<SensorReading> readings, BiConsumer<AcceptedReadingListener, List<SensorReading>> callback) {
+        if (listeners.isEmpty() || readings.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deliver(readings, callback);
+                }
+            });
+        } else {
+            deliver(readings, callback);
+        }
+    }
+
+    private void deliver(List<SensorReading> readings, BiConsumer<AcceptedReadingListener, List<SensorReading>> callback) {
+        for (AcceptedReadingListener listener : listeners) {
+            try {
+                callback.accept(listener, readings);
+            } catch (Exception e) {
+                // Un listener no debe afectar la ingesta ya confirmada
+                log.error("Error en listener {} de lecturas aceptadas: {}", listener.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package ec.edu.espe.SensorDataCollector.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas de la ruta de ingesta (expuestas en /actuator/metrics y /actuator/prometheus si está presente).
+ * Los medidores se registran una sola vez y se alimentan con System.nanoTime(), sin crear objetos por lectura.
+ * Complementan a sensor.ingest.rejected (ReadingRuleEngine), sensor.ingest.dedupe.* (ReadingDeduplicator),
+ * sensor.ingest.buffer.* (WriteBehindIngestBuffer)
+ * y sensor.events.publish.* (ReadingEventPublisher).
+ */
+@Component
+public class IngestMetrics {
+
+    /**
+     * Resultado de una petición de ingesta, según el código HTTP de la respuesta.
+     */
+    public enum Outcome { CREATED, ACCEPTED, DUPLICATE, REJECTED, FAILED }
+
+    private final Timer validationTimer;
+    private final Timer singleSaveTimer;
+    private final Timer batchSaveTimer;
+    private final DistributionSummary batchSize;
+    private final Counter constraintRejectedCounter;
+    private final Counter failedCounter;
+    private final EnumMap<Outcome, Timer> requestTimers = new EnumMap<>(Outcome.class);
+
+    public IngestMetrics(MeterRegistry meterRegistry) {
+        this.validationTimer = Timer.builder("sensor.ingest.validation")
+                .description("Evaluación de las reglas de validación por lectura")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.singleSaveTimer = Timer.builder("sensor.ingest.db.save")
+                .description("Escritura de lecturas en la base de datos")
+                .tag("path", "single")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchSaveTimer = Timer.builder("sensor.ingest.db.save")
+                .description("Escritura de lecturas en la base de datos")
+                .tag("path", "batch")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("sensor.ingest.batch.size")
+                .description("Lecturas por solicitud en POST /sensor-readings/batch")
+                .register(meterRegistry);
+        this.constraintRejectedCounter = Counter.builder("sensor.ingest.rejected")
+                .description("Lecturas rechazadas por las reglas de validación")
+                .tag("reason", "CONSTRAINT_VIOLATION")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("sensor.ingest.failed")
+                .description("Lecturas válidas que no se pudieron guardar (error interno)")
+                .register(meterRegistry);
+        for (Outcome outcome : Outcome.values()) {
+            requestTimers.put(outcome, Timer.builder("sensor.ingest.request")
+                    .description("Duración completa de las peticiones de ingesta")
+                    .tag("outcome", outcome.name())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    public void recordValidation(long startNanos) {
+        validationTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordSave(long startNanos) {
+        singleSaveTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordBatchSave(long startNanos, int readings) {
+        batchSaveTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        batchSize.record(readings);
+    }
+
+    // Lecturas rechazadas por las anotaciones del DTO: POST individual, lotes, importación y listeners TCP/UDP/AMQP
+    // (todas pasan por SensorDataService.validate)
+    public void recordConstraintRejected() {
+        constraintRejectedCounter.increment();
+    }
+
+    public void recordFailed(int readings) {
+        failedCounter.increment(readings);
+    }
+
+    public void recordRequest(int httpStatus, long startNanos) {
+        Outcome outcome = httpStatus == 201 ? Outcome.CREATED
+                : httpStatus == 202 || httpStatus == 207 ? Outcome.ACCEPTED
+                : httpStatus == 200 ? Outcome.DUPLICATE
+                : httpStatus < 500 ? Outcome.REJECTED
+                : Outcome.FAILED;
+        requestTimers.get(outcome).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,72 @@
+package ec.edu.espe.SensorDataCollector.service;
+
+import ec.edu.espe.EnvironmentalEvents.dto.NewSensorReadingEvent;
+import ec.edu.espe.SensorDataCollector.repository.OutboxEventJdbcRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Relay en segundo plano del outbox: drena la tabla event_outbox por lotes y publica
+ * los eventos en el exchange global. En modo outbox entrega todos los eventos; en modo direct
+ * solo los que el broker no confirmó (ver ReadingEventDispatcher).
+ * Cada evento se borra del outbox únicamente cuando llega su confirmación; los demás se reintentan
+ * en la siguiente ejecución.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventJdbcRepository outboxEventJdbcRepository;
+    private final ReadingEventPublisher readingEventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.events.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${app.events.outbox.relay-interval-ms:500}")
+    public void relayPendingEvents() {
+        try {
+            int relayed;
+            do {
+                relayed = transactionTemplate.execute(status -> relayBatch());
+            } while (relayed == batchSize); // Seguir drenando mientras haya lotes completos
+        } catch (Exception e) {
+            log.error("Error al drenar el outbox hacia RabbitMQ. Se reintentará. Error: {}", e.getMessage());
+        }
+    }
+
+    private int relayBatch() {
+        List<NewSensorReadingEvent> events = outboxEventJdbcRepository.claimBatch(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        // Todo el lote queda en vuelo a la vez: una sola espera por lote, no una por evento
+        List<CompletableFuture<Void>> confirms = readingEventPublisher.publishAll(events);
+        List<NewSensorReadingEvent> confirmed = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            try {
+                confirms.get(i).join();
+                confirmed.add(events.get(i));
+            } catch (CompletionException e) {
+                log.debug("Evento {} del outbox sin confirmar: {}", events.get(i).getEventId(), e.getMessage());
+            }
+        }
+        outboxEventJdbcRepository.deleteAll(confirmed);
+        if (confirmed.size() < events.size()) {
+            log.warn("{} de {} eventos del outbox no fueron confirmados. Se reintentarán", events.size() - confirmed.size(), events.size());
+            return 0; // No seguir drenando mientras el broker rechace eventos
+        }
+        log.debug("{} eventos del outbox publicados", events.size());
+        return events.size();
+    }
+}
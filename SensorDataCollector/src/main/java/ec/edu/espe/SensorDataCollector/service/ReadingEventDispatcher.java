@@ -0,0 +1,111 @@
+package ec.edu.espe.SensorDataCollector.service;
+
+import ec.edu.espe.EnvironmentalEvents.dto.NewSensorReadingEvent;
+import ec.edu.espe.SensorDataCollector.model.SensorReading;
+import ec.edu.espe.SensorDataCollector.repository.OutboxEventJdbcRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Entrega los eventos NewSensorReadingEvent de las lecturas guardadas, ya sea publicándolos
+ * directamente en RabbitMQ o escribiéndolos en el outbox, según app.events.delivery-mode.
+ * Debe llamarse dentro de la transacción que guarda las lecturas.
+ * En modo direct la entrega es best-effort: lo que el broker rechaza o no confirma a tiempo pasa al outbox,
+ * pero entre el commit y la confirmación el evento solo existe en memoria y se pierde si el proceso cae.
+ * El modo outbox, que lo escribe en la misma transacción que la lectura, es el que garantiza al menos una vez.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReadingEventDispatcher {
+
+    private final OutboxEventJdbcRepository outboxEventJdbcRepository;
+    private final ReadingEventPublisher readingEventPublisher;
+
+    // "direct": publica en RabbitMQ tras el commit con publisher confirms; "outbox": escribe el evento en event_outbox
+    // en la misma transacción y el OutboxRelay lo publica en segundo plano.
+    @Value("${app.events.delivery-mode:direct}")
+    private String deliveryMode;
+
+    public void dispatch(SensorReading reading) {
+        if (isOutboxMode()) {
+            outboxEventJdbcRepository.insertAll(List.of(toEvent(reading)));
+        } else {
+            publishAfterCommit(List.of(toEvent(reading)));
+        }
+    }
+
+    public void dispatchAll(List<SensorReading> readings) {
+        if (readings.isEmpty()) {
+            return;
+        }
+        if (isOutboxMode()) {
+            outboxEventJdbcRepository.insertAll(readings.stream().map(this::toEvent).toList());
+        } else {
+            publishAfterCommit(readings.stream().map(this::toEvent).toList());
+        }
+    }
+
+    private boolean isOutboxMode() {
+        return "outbox".equalsIgnoreCase(deliveryMode);
+    }
+
+    private NewSensorReadingEvent toEvent(SensorReading reading) {
+        return new NewSensorReadingEvent(
+                "EVT-" + UUID.randomUUID().toString(),
+                reading.getSensorId(),
+                reading.getType(),
+                reading.getValue(),
+                reading.getTimestamp()
+        );
+    }
+
+    /**
+     * Publica los eventos después del commit (si hay transacción activa) sin esperar las confirmaciones.
+     * Los eventos que el broker no confirma se guardan en el outbox para que el OutboxRelay los reintente.
+     */
+    private void publishAfterCommit(List<NewSensorReadingEvent> events) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(events);
+                }
+            });
+        } else {
+            publish(events);
+        }
+    }
+
+    private void publish(List<NewSensorReadingEvent> events) {
+        List<CompletableFuture<Void>> confirms = readingEventPublisher.publishAll(events);
+        // Async: el fallback escribe en la base de datos y no debe ocupar el hilo de confirmaciones de RabbitMQ
+        CompletableFuture.allOf(confirms.toArray(CompletableFuture[]::new)).whenCompleteAsync((ignored, error) -> {
+            List<NewSensorReadingEvent> unconfirmed = new ArrayList<>();
+            for (int i = 0; i < events.size(); i++) {
+                if (confirms.get(i).isCompletedExceptionally()) {
+                    unconfirmed.add(events.get(i));
+                }
+            }
+            if (unconfirmed.isEmpty()) {
+                log.debug("{} eventos NewSensorReadingEvent confirmados por el broker", events.size());
+                return;
+            }
+            try {
+                outboxEventJdbcRepository.insertAll(unconfirmed);
+                log.warn("{} eventos sin confirmar se guardaron en el outbox para reintentarlos", unconfirmed.size());
+            } catch (Exception e) {
+                log.error("No se pudieron guardar en el outbox {} eventos sin confirmar. Error: {}", unconfirmed.size(), e.getMessage());
+            }
+        });
+    }
+}
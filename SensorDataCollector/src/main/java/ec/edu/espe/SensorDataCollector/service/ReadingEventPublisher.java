@@ -0,0 +1,173 @@
+package ec.edu.espe.SensorDataCollector.service;
+
+import ec.edu.espe.EnvironmentalEvents.dto.NewSensorReadingEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publica eventos en el exchange global con publisher confirms correlacionados
+ * (spring.rabbitmq.publisher-confirm-type=correlated) sin esperar cada confirmación:
+ * los mensajes de una llamada se envían en un mismo canal y cada uno devuelve un futuro que se
+ * completa con el ack del broker, o falla con el nack, el cierre del canal o el timeout.
+ * Las publicaciones sin confirmar están acotadas por app.events.publisher.max-in-flight: cada llamada toma de
+ * una vez los huecos que necesita (esperando a lo sumo acquire-timeout-ms, y solo si no hay ninguno libre) y los
+ * eventos que no caben fallan de inmediato, sin esperar uno por uno en el hilo que hizo el commit.
+ */
+@Component
+@Slf4j
+public class ReadingEventPublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final Counter failedCounter;
+    private final Timer confirmTimer;
+
+    @Value("${app.rabbitmq.exchange-name}")
+    private String exchangeName;
+
+    @Value("${app.events.publisher.acquire-timeout-ms:100}")
+    private long acquireTimeoutMs;
+
+    @Value("${app.events.publisher.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMs;
+
+    public ReadingEventPublisher(RabbitTemplate rabbitTemplate,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.events.publisher.max-in-flight:1000}") int maxInFlight) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+
+        Gauge.builder("sensor.events.publish.in-flight", inFlight, s -> maxInFlight - s.availablePermits())
+                .description("Eventos publicados pendientes de confirmación del broker")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("sensor.events.publish.failed")
+                .description("Eventos rechazados (nack), sin confirmar a tiempo o no enviados")
+                .register(meterRegistry);
+        this.confirmTimer = Timer.builder("sensor.events.publish.confirm")
+                .description("Tiempo entre la publicación de un evento y el ack del broker")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<Void> publish(NewSensorReadingEvent event) {
+        return publishAll(List.of(event)).get(0);
+    }
+
+    /**
+     * Publica los eventos en un único canal y devuelve un futuro por evento, en el mismo orden.
+     * Nunca lanza excepción: los fallos de envío se reflejan en el futuro correspondiente.
+     */
+    public List<CompletableFuture<Void>> publishAll(List<NewSensorReadingEvent> events) {
+        List<CompletableFuture<Void>> confirms = new ArrayList<>(events.size());
+        int granted;
+        try {
+            granted = acquireUpTo(events.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            granted = 0;
+        }
+        int sendable = granted;
+        try {
+            if (sendable > 0) {
+                rabbitTemplate.invoke(operations -> {
+                    for (int i = 0; i < sendable; i++) {
+                        confirms.add(send(operations, events.get(i)));
+                    }
+                    return null;
+                });
+            }
+        } catch (Exception e) {
+            log.error("Error al publicar {} eventos en RabbitMQ. Error: {}", sendable - confirms.size(), e.getMessage());
+            inFlight.release(sendable - confirms.size()); // Huecos de los eventos que no llegaron a enviarse
+            while (confirms.size() < sendable) {
+                failedCounter.increment();
+                confirms.add(CompletableFuture.failedFuture(e));
+            }
+        }
+        if (sendable < events.size()) {
+            IllegalStateException full = new IllegalStateException(
+                    "Demasiados eventos pendientes de confirmación (" + maxInFlight + ")");
+            failedCounter.increment(events.size() - sendable);
+            while (confirms.size() < events.size()) {
+                confirms.add(CompletableFuture.failedFuture(full));
+            }
+        }
+        return confirms;
+    }
+
+    /**
+     * Toma hasta wanted huecos en vuelo de una vez. Solo si no hay ninguno libre espera, una única vez por
+     * llamada, hasta acquire-timeout-ms a que se libere uno.
+     * @return Huecos tomados, entre 0 y wanted.
+     */
+    private int acquireUpTo(int wanted) throws InterruptedException {
+        int granted = 0;
+        if (wanted > 0 && inFlight.availablePermits() == 0 && inFlight.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+            granted = 1;
+        }
+        int available;
+        while (granted < wanted && (available = inFlight.availablePermits()) > 0) {
+            int take = Math.min(wanted - granted, available);
+            if (inFlight.tryAcquire(take)) {
+                granted += take;
+            }
+        }
+        return granted;
+    }
+
+    // El hueco en vuelo ya está tomado por publishAll; se libera con la confirmación o si el envío falla
+    private CompletableFuture<Void> send(RabbitOperations operations, NewSensorReadingEvent event) {
+        CorrelationData correlation = new CorrelationData(event.getEventId());
+        long start = System.nanoTime();
+        try {
+            // El routingKey es ignorado por un exchange Fanout, pero es buena práctica no dejarlo vacío.
+            operations.convertAndSend(exchangeName, "", event, correlation);
+        } catch (AmqpException e) {
+            inFlight.release();
+            failedCounter.increment();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        // El timeout completa el futuro una sola vez; una confirmación tardía ya no tiene efecto
+        return correlation.getFuture()
+                .orTimeout(confirmTimeoutMs, TimeUnit.MILLISECONDS)
+                .handle((confirm, error) -> {
+                    inFlight.release();
+                    if (error == null && confirm.isAck()) {
+                        confirmTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        return null;
+                    }
+                    failedCounter.increment();
+                    String reason = error != null ? "sin confirmación: " + error : "nack: " + confirm.getReason();
+                    throw new AmqpException("Evento " + event.getEventId() + " no confirmado por el broker (" + reason + ")");
+                });
+    }
+
+    @PreDestroy
+    void awaitPendingConfirms() throws InterruptedException {
+        // Dar tiempo a que lleguen las confirmaciones pendientes (y a sus fallbacks) antes de cerrar
+        if (inFlight.tryAcquire(maxInFlight, confirmTimeoutMs, TimeUnit.MILLISECONDS)) {
+            inFlight.release(maxInFlight);
+        } else {
+            log.warn("{} eventos quedaron sin confirmar al detener el publicador", maxInFlight - inFlight.availablePermits());
+        }
+    }
+}
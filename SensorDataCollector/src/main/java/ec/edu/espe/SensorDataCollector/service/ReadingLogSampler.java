@@ -0,0 +1,22 @@
+package ec.edu.espe.SensorDataCollector.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decide si una lectura se registra en el log. El log por lectura es opcional y muestreado
+ * (app.logging.readings.sample-rate); los volúmenes y tiempos se consultan en IngestMetrics.
+ */
+@Component
+public class ReadingLogSampler {
+
+    // 0 = desactivado, 0.01 = una de cada cien lecturas, 1 = todas
+    @Value("${app.logging.readings.sample-rate:0}")
+    private double sampleRate;
+
+    public boolean shouldLog() {
+        return sampleRate > 0 && (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+}
@@ -1,19 +1,60 @@
 package ec.edu.espe.SensorDataCollector.service;
 
-import ec.edu.espe.SensorDataCollector.dto.NewSensorReadingEvent;
+import ec.edu.espe.EnvironmentalEvents.util.ScaledValues;
+import ec.edu.espe.SensorDataCollector.archive.ArchiveCursor;
+import ec.edu.espe.SensorDataCollector.archive.ReadingArchive;
+import ec.edu.espe.SensorDataCollector.bulk.ImportRow;
+import ec.edu.espe.SensorDataCollector.cache.LatestReadingsCache;
+import ec.edu.espe.SensorDataCollector.compression.DeadbandCompressor;
+import ec.edu.espe.SensorDataCollector.dedupe.ReadingDeduplicator;
+import ec.edu.espe.SensorDataCollector.dto.BatchIngestResponse;
+import ec.edu.espe.SensorDataCollector.dto.BatchItemResult;
+import ec.edu.espe.SensorDataCollector.dto.ImportSummary;
+import ec.edu.espe.SensorDataCollector.dto.IngestResult;
+import ec.edu.espe.SensorDataCollector.dto.ReadingAggregate;
+import ec.edu.espe.SensorDataCollector.dto.ReadingCursor;
+import ec.edu.espe.SensorDataCollector.dto.ReadingPage;
+import ec.edu.espe.SensorDataCollector.dto.ReadingPoint;
 import ec.edu.espe.SensorDataCollector.dto.SensorReadingRequest;
+import ec.edu.espe.SensorDataCollector.model.EpochMicros;
+import ec.edu.espe.SensorDataCollector.model.ReadingIds;
+import ec.edu.espe.SensorDataCollector.model.ReadingKeys;
 import ec.edu.espe.SensorDataCollector.model.SensorReading;
+import ec.edu.espe.SensorDataCollector.repository.ReadConsistency;
+import ec.edu.espe.SensorDataCollector.repository.RollupJdbcRepository;
+import ec.edu.espe.SensorDataCollector.repository.SensorReadingJdbcRepository;
 import ec.edu.espe.SensorDataCollector.repository.SensorReadingRepository;
+import ec.edu.espe.SensorDataCollector.rollup.RollupResolution;
+import ec.edu.espe.SensorDataCollector.timeseries.RecentReadingsStore;
+import ec.edu.espe.SensorDataCollector.timeseries.SeriesDownsampler;
+import ec.edu.espe.SensorDataCollector.validation.ReadingRuleEngine;
+import ec.edu.espe.SensorDataCollector.validation.ValidationResult;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor // Inyección de dependencias por constructor (Lombok)
@@ -22,66 +63,518 @@ public class SensorDataService {
 
     // Inyección de dependencias. @RequiredArgsConstructor crea el constructor.
     private final SensorReadingRepository sensorReadingRepository;
-    private final RabbitTemplate rabbitTemplate;
+    private final SensorReadingJdbcRepository sensorReadingJdbcRepository;
+    private final RollupJdbcRepository rollupJdbcRepository;
+    private final ReadingEventDispatcher readingEventDispatcher;
+    private final AcceptedReadingNotifier acceptedReadingNotifier;
+    private final LatestReadingsCache latestReadingsCache;
+    private final RecentReadingsStore recentReadingsStore;
+    private final ReadingArchive readingArchive;
+    private final Validator validator;
+    private final ReadingRuleEngine readingRuleEngine;
+    private final IngestMetrics ingestMetrics;
+    private final ReadingLogSampler readingLogSampler;
+    private final ReadingDeduplicator readingDeduplicator;
+    private final DeadbandCompressor deadbandCompressor;
+    private final TransactionTemplate transactionTemplate;
+    // Presente solo con app.ingest.mode=write-behind
+    private final Optional<WriteBehindIngestBuffer> writeBehindIngestBuffer;
 
-    @Value("${app.rabbitmq.exchange-name}")
-    private String exchangeName;
+    // Lecturas por transacción en la importación masiva
+    @Value("${app.ingest.import.chunk-size:5000}")
+    private int importChunkSize;
 
-    // Límite de validación para rechazar valores absurdos
-    private static final BigDecimal MAX_TEMP_VALUE = new BigDecimal("60.0");
-    private static final BigDecimal MIN_TEMP_VALUE = new BigDecimal("-40.0");
+    @Value("${app.ingest.import.max-reported-errors:100}")
+    private int maxReportedImportErrors;
 
+    // Filas que el driver trae por cada viaje a la base de datos al transmitir el historial
+    @Value("${app.query.stream.fetch-size:1000}")
+    private int streamFetchSize;
+
+    /**
+     * Guarda una lectura ya validada con validate. Los reenvíos de una lectura ya registrada
+     * (mismo readingId, o mismo sensorId y timestamp) no se guardan ni se publican de nuevo, y las que
+     * quedan dentro de la banda muerta de su sensor (DeadbandCompressor) solo se publican.
+     */
     @Transactional // Asegura que guardar en DB y enviar a RabbitMQ sea atómico (o casi)
-    public SensorReading processAndSaveReading(SensorReadingRequest request) {
-        // 1. Validar la lógica de negocio (más allá de las anotaciones del DTO)
-        if ("temperature".equalsIgnoreCase(request.getType())) {
-            if (request.getValue().compareTo(MAX_TEMP_VALUE) > 0 || request.getValue().compareTo(MIN_TEMP_VALUE) < 0) {
-                log.warn("Lectura de temperatura fuera de rango rechazada: {}", request.getValue());
-                // En un caso real, podrías lanzar una excepción personalizada aquí
-                throw new IllegalArgumentException("Temperatura fuera del rango aceptable (-40°C a 60°C).");
+    public IngestResult processAndSaveReading(SensorReadingRequest request) {
+        // 1. Mapear del DTO a la Entidad del modelo
+        SensorReading reading = toEntity(request);
+        reading.setId(ReadingIds.newId());
+
+        // 2. Descartar reenvíos: solo se consulta la base de datos si el filtro de Bloom ya vio la clave
+        UUID existingId = readingDeduplicator.findExisting(List.of(reading.getReadingKey())).get(reading.getReadingKey());
+        if (existingId != null) {
+            return IngestResult.duplicate(existingId);
+        }
+
+        // 3. Compresión: una lectura que no mueve la señal reconstruida va al bus de eventos sin guardarse
+        DeadbandCompressor.Decision decision = compress(reading);
+        if (decision != DeadbandCompressor.Decision.STORE) {
+            return publishWithoutStoring(reading, decision);
+        }
+
+        // 4. Guardar en la base de datos; el índice único de reading_key descarta el reenvío que el filtro no vio
+        long start = System.nanoTime();
+        boolean inserted = !sensorReadingJdbcRepository.insertAll(List.of(reading)).isEmpty();
+        ingestMetrics.recordSave(start);
+        if (!inserted) {
+            readingDeduplicator.recordDuplicates(1);
+            return IngestResult.duplicate(findExistingId(reading.getReadingKey()));
+        }
+        if (readingLogSampler.shouldLog()) {
+            log.info("Lectura de sensor guardada con ID: {} (sensor={}, tipo={}, valor={})", reading.getId(),
+                    reading.getSensorId(), reading.getType(), ScaledValues.toString(reading.getValue()));
+        }
+
+        // 5. Crear y publicar el evento en RabbitMQ (o dejarlo en el outbox)
+        readingEventDispatcher.dispatch(reading);
+        acceptedReadingNotifier.notifyAccepted(List.of(reading));
+
+        return IngestResult.created(reading.getId());
+    }
+
+    private IngestResult publishWithoutStoring(SensorReading reading, DeadbandCompressor.Decision decision) {
+        if (decision == DeadbandCompressor.Decision.REPEATED) {
+            return IngestResult.duplicate(null);
+        }
+        readingEventDispatcher.dispatch(reading);
+        // Después del commit, como el evento: rollups, caché, vivo y el registro de reintentos de la compresión
+        acceptedReadingNotifier.notifyPublished(List.of(reading));
+        return IngestResult.compressed();
+    }
+
+    public boolean isWriteBehindMode() {
+        return writeBehindIngestBuffer.isPresent();
+    }
+
+    /**
+     * Deja una lectura ya validada con validate en el buffer write-behind;
+     * el hilo escritor la guardará en un group commit.
+     * Un reenvío que aún está en el buffer se descarta al escribirse (ON CONFLICT), sin publicar su evento.
+     * @return El ID asignado, o el de la lectura original si ya estaba registrada.
+     * @throws IllegalStateException si el buffer está lleno o (en modo COMMITTED) la escritura falló.
+     */
+    public IngestResult enqueueReading(SensorReadingRequest request) {
+        WriteBehindIngestBuffer buffer = writeBehindIngestBuffer
+                .orElseThrow(() -> new IllegalStateException("El modo write-behind no está activo."));
+        SensorReading reading = toEntity(request);
+        reading.setId(ReadingIds.newId());
+        UUID existingId = readingDeduplicator.findExisting(List.of(reading.getReadingKey())).get(reading.getReadingKey());
+        if (existingId != null) {
+            return IngestResult.duplicate(existingId);
+        }
+        DeadbandCompressor.Decision decision = compress(reading);
+        if (decision != DeadbandCompressor.Decision.STORE) {
+            return publishWithoutStoring(reading, decision);
+        }
+        if (!buffer.enqueue(reading)) {
+            return IngestResult.duplicate(findExistingId(reading.getReadingKey()));
+        }
+        if (readingLogSampler.shouldLog()) {
+            log.info("Lectura {} encolada para escritura diferida (sensor={})", reading.getId(), reading.getSensorId());
+        }
+        return IngestResult.created(reading.getId());
+    }
+
+    public WriteBehindIngestBuffer.Durability getWriteBehindDurability() {
+        return writeBehindIngestBuffer.map(WriteBehindIngestBuffer::getDurability).orElse(null);
+    }
+
+    /**
+     * Procesa un lote de lecturas: valida cada elemento por separado, guarda las válidas
+     * con INSERT multi-fila y publica todos los eventos en un único paso.
+     * Los elementos inválidos se reportan en la respuesta sin afectar al resto del lote; los reenvíos
+     * (ya registrados o repetidos dentro del lote) se reportan como DUPLICATE con el ID original, y los
+     * que la compresión solo publica, como COMPRESSED.
+     */
+    @Transactional
+    public BatchIngestResponse processBatch(List<SensorReadingRequest> requests) {
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+        SensorReading[] readings = new SensorReading[requests.size()];
+        // Claves que se resuelven al final como creadas o duplicadas
+        String[] keys = new String[requests.size()];
+        // Primera aparición de cada clave a guardar en el lote
+        Map<String, SensorReading> candidates = new LinkedHashMap<>();
+        List<SensorReading> publishOnly = new ArrayList<>();
+        Set<String> batchKeys = new LinkedHashSet<>();
+        int rejected = 0;
+        int duplicates = 0;
+
+        for (int i = 0; i < requests.size(); i++) {
+            List<String> errors = validate(requests.get(i));
+            if (!errors.isEmpty()) {
+                results[i] = BatchItemResult.rejected(i, errors);
+                rejected++;
+                continue;
+            }
+            readings[i] = toEntity(requests.get(i));
+            readings[i].setId(ReadingIds.newId());
+            batchKeys.add(readings[i].getReadingKey());
+        }
+
+        // Los reenvíos se descartan antes de la compresión, para que no se vuelvan a publicar
+        Map<String, UUID> existing = new HashMap<>(readingDeduplicator.findExisting(batchKeys));
+        int foundByFilter = existing.size();
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < readings.length; i++) {
+            SensorReading reading = readings[i];
+            if (reading == null) {
+                continue;
+            }
+            String key = reading.getReadingKey();
+            if (existing.containsKey(key) || !seen.add(key)) {
+                keys[i] = key;
+                continue;
             }
+            DeadbandCompressor.Decision decision = compress(reading);
+            if (decision == DeadbandCompressor.Decision.REPEATED) {
+                results[i] = BatchItemResult.duplicate(i, null);
+                duplicates++;
+                continue;
+            }
+            if (decision == DeadbandCompressor.Decision.PUBLISH_ONLY) {
+                results[i] = BatchItemResult.compressed(i);
+                publishOnly.add(reading);
+                continue;
+            }
+            keys[i] = key;
+            candidates.put(key, reading);
         }
+        readingEventDispatcher.dispatchAll(publishOnly);
+        acceptedReadingNotifier.notifyPublished(publishOnly);
+
+        List<SensorReading> toInsert = new ArrayList<>(candidates.values());
 
-        // 2. Mapear del DTO a la Entidad del modelo
+        List<SensorReading> inserted = List.of();
+        if (!toInsert.isEmpty()) {
+            long start = System.nanoTime();
+            inserted = sensorReadingJdbcRepository.insertAll(toInsert);
+            ingestMetrics.recordBatchSave(start, toInsert.size());
+            if (inserted.size() < toInsert.size()) {
+                // Reenvíos que el filtro no detectó: los descartó el índice único
+                List<String> conflicting = new ArrayList<>();
+                Set<UUID> insertedIds = new HashSet<>();
+                inserted.forEach(reading -> insertedIds.add(reading.getId()));
+                for (SensorReading reading : toInsert) {
+                    if (!insertedIds.contains(reading.getId())) {
+                        conflicting.add(reading.getReadingKey());
+                    }
+                }
+                existing.putAll(sensorReadingJdbcRepository.findIdsByReadingKeys(conflicting));
+            }
+            if (readingLogSampler.shouldLog()) {
+                log.info("Lote de {} lecturas guardado ({} no guardadas)", inserted.size(), requests.size() - inserted.size());
+            }
+            readingEventDispatcher.dispatchAll(inserted);
+            acceptedReadingNotifier.notifyAccepted(inserted);
+        }
+
+        Map<String, UUID> created = new HashMap<>(inserted.size() * 2);
+        for (SensorReading reading : inserted) {
+            created.put(reading.getReadingKey(), reading.getId());
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == null) {
+                continue;
+            }
+            UUID createdId = created.remove(keys[i]); // Solo la primera aparición cuenta como creada
+            if (createdId != null) {
+                results[i] = BatchItemResult.created(i, createdId);
+            } else {
+                SensorReading candidate = candidates.get(keys[i]);
+                UUID originalId = existing.containsKey(keys[i]) ? existing.get(keys[i])
+                        : candidate != null ? candidate.getId() : null;
+                results[i] = BatchItemResult.duplicate(i, originalId);
+                duplicates++;
+            }
+        }
+        // findExisting ya contó los que encontró el filtro
+        readingDeduplicator.recordDuplicates(duplicates - foundByFilter);
+
+        return new BatchIngestResponse(requests.size(), inserted.size(), duplicates, publishOnly.size(), rejected,
+                Arrays.asList(results));
+    }
+
+    /**
+     * Importación masiva (backfill): consume los registros a medida que se leen y los guarda en bloques
+     * de app.ingest.import.chunk-size lecturas, cada uno en su propia transacción con INSERT multi-fila.
+     * Se validan igual que un lote, pero no pasan por la compresión (los datos históricos llegan fuera de
+     * orden) ni por el filtro de duplicados: el índice único de reading_key descarta los ya registrados.
+     * Las guardadas alimentan los rollups y el filtro de duplicados, pero no la caché de últimas lecturas, la
+     * transmisión en vivo ni la ventana de lecturas recientes (AcceptedReadingListener.onReadingsImported).
+     * @param publishEvents true para publicar los eventos de cada bloque en un solo envío; false para no publicarlos.
+     */
+    public ImportSummary importReadings(Iterator<ImportRow> rows, boolean publishEvents) {
+        long start = System.nanoTime();
+        long received = 0;
+        long imported = 0;
+        long rejected = 0;
+        List<String> errors = new ArrayList<>();
+        List<SensorReading> chunk = new ArrayList<>(importChunkSize);
+
+        while (rows.hasNext()) {
+            ImportRow row = rows.next();
+            received++;
+            List<String> rowErrors = row.error() != null ? List.of(row.error()) : validate(row.request());
+            if (!rowErrors.isEmpty()) {
+                rejected++;
+                if (errors.size() < maxReportedImportErrors) {
+                    errors.add("registro " + row.record() + ": " + String.join("; ", rowErrors));
+                }
+                continue;
+            }
+            SensorReading reading = toEntity(row.request());
+            reading.setId(ReadingIds.newId());
+            chunk.add(reading);
+            if (chunk.size() == importChunkSize) {
+                imported += importChunk(chunk, publishEvents);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            imported += importChunk(chunk, publishEvents);
+        }
+
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("Importación terminada: {} registros, {} guardados, {} rechazados en {} ms",
+                received, imported, rejected, elapsedMs);
+        return new ImportSummary(received, imported, received - imported - rejected, rejected, publishEvents,
+                elapsedMs, errors);
+    }
+
+    private int importChunk(List<SensorReading> chunk, boolean publishEvents) {
+        long start = System.nanoTime();
+        List<SensorReading> inserted = transactionTemplate.execute(status -> {
+            List<SensorReading> rows = sensorReadingJdbcRepository.insertAll(chunk);
+            if (publishEvents) {
+                readingEventDispatcher.dispatchAll(rows);
+            }
+            // Datos históricos: solo los rollups y el filtro de duplicados; no son lecturas en vivo ni recientes
+            acceptedReadingNotifier.notifyImported(rows);
+            return rows;
+        });
+        ingestMetrics.recordBatchSave(start, chunk.size());
+        return inserted.size();
+    }
+
+    /**
+     * Valida una lectura con las anotaciones del DTO y la tabla de reglas por tipo de sensor (app.validation),
+     * sin lanzar excepciones, y cuenta el rechazo en sensor.ingest.rejected. Debe llamarse antes de
+     * processAndSaveReading o enqueueReading; los lotes y la importación la aplican a cada elemento.
+     * @return Lista de errores, vacía si la lectura es válida.
+     */
+    public List<String> validate(SensorReadingRequest request) {
+        if (request == null) {
+            return List.of("La lectura no puede ser nula.");
+        }
+        List<String> errors = new ArrayList<>();
+        Set<ConstraintViolation<SensorReadingRequest>> violations = validator.validate(request);
+        for (ConstraintViolation<SensorReadingRequest> violation : violations) {
+            errors.add(violation.getMessage());
+        }
+        if (!errors.isEmpty()) {
+            ingestMetrics.recordConstraintRejected();
+        } else {
+            long start = System.nanoTime();
+            ValidationResult result = readingRuleEngine.evaluate(
+                    request.getSensorId(), request.getType(), request.getValue(), request.getTimestamp());
+            ingestMetrics.recordValidation(start);
+            if (!result.isValid()) {
+                errors.add(readingRuleEngine.describe(request.getType(), result));
+            }
+        }
+        return errors;
+    }
+
+    private SensorReading toEntity(SensorReadingRequest request) {
         SensorReading reading = new SensorReading();
         reading.setSensorId(request.getSensorId());
         reading.setType(request.getType());
         reading.setValue(request.getValue());
         reading.setTimestamp(request.getTimestamp());
+        reading.setReadingKey(ReadingKeys.of(request.getSensorId(), request.getReadingId(), request.getTimestamp()));
+        return reading;
+    }
+
+    private DeadbandCompressor.Decision compress(SensorReading reading) {
+        return deadbandCompressor.decide(reading.getSensorId(), reading.getType(), reading.getValue(), reading.getTimestamp());
+    }
+
+    private UUID findExistingId(String readingKey) {
+        return sensorReadingJdbcRepository.findIdsByReadingKeys(List.of(readingKey)).get(readingKey);
+    }
+
+    /**
+     * Todas las lecturas del sensor. Con FOLLOWER la consulta va por JDBC, porque JPA no puede
+     * emitir AS OF SYSTEM TIME.
+     */
+    public List<SensorReading> getReadingsBySensorId(String sensorId, ReadConsistency consistency) {
+        log.debug("Buscando lecturas para el sensor ID: {} ({})", sensorId, consistency);
+        if (consistency == ReadConsistency.FOLLOWER) {
+            return sensorReadingJdbcRepository.findBySensorId(sensorId, null, null, consistency);
+        }
+        return sensorReadingRepository.findBySensorIdOrderByTimestampDesc(sensorId);
+    }
 
-        // 3. Guardar en la base de datos
-        SensorReading savedReading = sensorReadingRepository.save(reading);
-        log.info("Lectura de sensor guardada con ID: {}", savedReading.getId());
+    /**
+     * Puntos del sensor con timestamp en [from, to), del más reciente al más antiguo. Si el rango cae dentro
+     * de la ventana del almacén de lecturas recientes se responde desde memoria; si no, desde la base de datos
+     * combinada con los segmentos del archivo frío (app.archive.enabled).
+     * @param to Límite superior exclusivo, o null.
+     */
+    public List<ReadingPoint> getReadingPoints(String sensorId, OffsetDateTime from, OffsetDateTime to,
+                                               ReadConsistency consistency) {
+        List<ReadingPoint> recent = recentReadingsStore.find(sensorId, from, to);
+        if (recent != null) {
+            return recent;
+        }
+        List<SensorReading> readings = sensorReadingJdbcRepository.findBySensorId(sensorId, from, to, consistency);
+        List<ReadingPoint> points = new ArrayList<>(readings.size());
+        for (SensorReading reading : readings) {
+            points.add(new ReadingPoint(reading.getType(), reading.getValue(), reading.getTimestamp()));
+        }
+        if (!readingArchive.isEnabled()) {
+            return points;
+        }
+        List<ReadingPoint> archived = readingArchive.find(sensorId, from, to);
+        if (archived.isEmpty()) {
+            return points;
+        }
+        points.addAll(archived);
+        return mergeArchived(points);
+    }
 
-        // 4. Crear y publicar el evento en RabbitMQ
-        publishNewReadingEvent(savedReading);
+    /**
+     * Puntos del sensor en [from, to) reducidos con LTTB a lo sumo maxPoints por tipo, para graficar rangos
+     * largos sin transferir cada lectura. Se alimenta en orden cronológico desde la ventana en memoria o, si
+     * no la cubre, mezclando el archivo frío con el cursor de la base de datos, sin acumular las lecturas.
+     * @param to Límite superior exclusivo, o null para hasta ahora.
+     * @throws IllegalArgumentException si maxPoints es menor que 3.
+     */
+    public List<ReadingPoint> getDownsampledPoints(String sensorId, OffsetDateTime from, OffsetDateTime to,
+                                                   int maxPoints, ReadConsistency consistency) {
+        SeriesDownsampler downsampler = new SeriesDownsampler(
+                EpochMicros.of(from), EpochMicros.of(to != null ? to : OffsetDateTime.now()), maxPoints);
+        List<ReadingPoint> recent = recentReadingsStore.find(sensorId, from, to);
+        if (recent != null) {
+            // La ventana en memoria entrega del más reciente al más antiguo
+            for (int i = recent.size() - 1; i >= 0; i--) {
+                ReadingPoint point = recent.get(i);
+                downsampler.add(point.getType(), EpochMicros.of(point.getTimestamp()), point.getValue());
+            }
+            return downsampler.finish();
+        }
+        // Mezcla en orden cronológico el archivo con el cursor de la tabla: antes de cada fila se entregan los
+        // puntos archivados con timestamp menor o igual (un día re-archivado o lecturas tardías se intercalan).
+        // Un punto que está a la vez en el archivo y en la tabla llega dos veces: SeriesDownsampler omite el repetido
+        ArchiveCursor archived = readingArchive.isEnabled() ? readingArchive.open(sensorId, from, to) : null;
+        // Transacción de solo lectura solo para el cursor: el driver respeta el fetch size dentro de una transacción
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnlyTransaction.setReadOnly(true);
+        readOnlyTransaction.executeWithoutResult(status -> sensorReadingJdbcRepository.streamChronological(
+                sensorId, from, to, streamFetchSize, consistency, reading -> {
+                    long timestamp = EpochMicros.of(reading.getTimestamp());
+                    addArchivedUpTo(archived, timestamp, downsampler);
+                    downsampler.add(reading.getType(), timestamp, reading.getValue());
+                }));
+        addArchivedUpTo(archived, Long.MAX_VALUE, downsampler);
+        if (downsampler.getDroppedCount() > 0) {
+            log.warn("Reducción del sensor {}: {} puntos fuera de orden descartados", sensorId, downsampler.getDroppedCount());
+        }
+        return downsampler.finish();
+    }
 
-        return savedReading;
+    private static void addArchivedUpTo(ArchiveCursor archived, long timestampMicros, SeriesDownsampler downsampler) {
+        if (archived == null) {
+            return;
+        }
+        while (archived.hasPoint() && archived.getTimestamp() <= timestampMicros) {
+            downsampler.add(archived.getType(), archived.getTimestamp(), archived.getValue());
+            archived.advance();
+        }
     }
 
-    private void publishNewReadingEvent(SensorReading reading) {
-        NewSensorReadingEvent event = new NewSensorReadingEvent(
-                "EVT-" + UUID.randomUUID().toString(),
-                reading.getSensorId(),
-                reading.getType(),
-                reading.getValue(),
-                reading.getTimestamp()
-        );
+    /**
+     * Ordena del más reciente al más antiguo y quita los puntos repetidos: un día puede estar a la vez en la
+     * tabla y en el archivo mientras se archiva, o en dos segmentos si el archivado se interrumpió.
+     */
+    private static List<ReadingPoint> mergeArchived(List<ReadingPoint> points) {
+        points.sort(Comparator.comparing(ReadingPoint::getTimestamp).reversed()
+                .thenComparing(ReadingPoint::getType)
+                .thenComparingLong(ReadingPoint::getValue));
+        List<ReadingPoint> merged = new ArrayList<>(points.size());
+        ReadingPoint previous = null;
+        for (ReadingPoint point : points) {
+            if (previous == null || !point.getTimestamp().isEqual(previous.getTimestamp())
+                    || !point.getType().equals(previous.getType()) || point.getValue() != previous.getValue()) {
+                merged.add(point);
+            }
+            previous = point;
+        }
+        return merged;
+    }
+
+    /**
+     * Instante hasta el cual (exclusivo) hay lecturas del sensor en [from, to) movidas al archivo frío, o null si
+     * el rango no toca el archivo. El historial paginado, el stream NDJSON y la consulta sin from solo leen
+     * sensor_readings: con esto avisan que el rango está incompleto.
+     * @param from Inicio del rango, o null para desde el principio.
+     */
+    public OffsetDateTime getArchivedUntil(String sensorId, OffsetDateTime from, OffsetDateTime to) {
+        return readingArchive.isEnabled() ? readingArchive.findArchivedUntil(sensorId, from, to) : null;
+    }
 
-        try {
-            // El routingKey es ignorado por un exchange Fanout, pero es buena práctica no dejarlo vacío.
-            rabbitTemplate.convertAndSend(exchangeName, "", event);
-            log.info("Evento NewSensorReadingEvent publicado para el sensor ID: {}", event.getSensorId());
-        } catch (Exception e) {
-            log.error("Error al publicar evento en RabbitMQ para sensor ID: {}. Error: {}", event.getSensorId(), e.getMessage());
-            // Aquí iría la lógica de resiliencia: guardar el evento localmente en SQLite.
-            // Lo implementaremos en un paso posterior para no complicar este.
-            throw new RuntimeException("Fallo al publicar evento", e); // Re-lanzar para que la transacción haga rollback
+    /**
+     * Devuelve una página del historial de un sensor usando paginación por keyset sobre (timestamp, id).
+     * @param cursor Cursor devuelto por la página anterior, o null para la primera.
+     * @throws IllegalArgumentException si el cursor no es válido.
+     */
+    public ReadingPage getReadingHistoryPage(String sensorId, OffsetDateTime from, OffsetDateTime to,
+                                             String cursor, int limit, ReadConsistency consistency) {
+        ReadingCursor after = cursor == null || cursor.isBlank() ? null : ReadingCursor.decode(cursor);
+        // Se pide una fila extra para saber si existe una página siguiente
+        List<SensorReading> rows = sensorReadingJdbcRepository.findPage(sensorId, from, to, after, limit + 1, consistency);
+        if (rows.size() <= limit) {
+            return new ReadingPage(rows, null);
         }
+        List<SensorReading> items = rows.subList(0, limit);
+        SensorReading last = items.get(limit - 1);
+        return new ReadingPage(items, new ReadingCursor(last.getTimestamp(), last.getId()).encode());
     }
 
-    public List<SensorReading> getReadingsBySensorId(String sensorId) {
-        log.debug("Buscando lecturas para el sensor ID: {}", sensorId);
-        return sensorReadingRepository.findBySensorIdOrderByTimestampDesc(sensorId);
+    /**
+     * Entrega el historial completo (o el rango indicado) lectura por lectura, con memoria constante.
+     * La transacción de solo lectura es necesaria para que el driver use un cursor con fetch size.
+     */
+    @Transactional(readOnly = true)
+    public void streamReadings(String sensorId, OffsetDateTime from, OffsetDateTime to, ReadConsistency consistency,
+                               Consumer<SensorReading> consumer) {
+        log.debug("Transmitiendo lecturas del sensor ID: {} (from={}, to={}, {})", sensorId, from, to, consistency);
+        sensorReadingJdbcRepository.streamRange(sensorId, from, to, streamFetchSize, consistency, consumer);
+    }
+
+    /**
+     * Últimas lecturas del sensor desde la caché en memoria (sin consultar la base de datos si están en caché).
+     */
+    public LatestReadingsCache.Snapshot getLatestReadings(String sensorId) {
+        return latestReadingsCache.getLatest(sensorId);
+    }
+
+    public String getLatestReadingsEtag(LatestReadingsCache.Snapshot snapshot) {
+        return latestReadingsCache.etag(snapshot.version());
+    }
+
+    /**
+     * Agregados del sensor a la resolución pedida, leídos de la tabla de rollups.
+     * Sin 'to' se usa el instante actual; sin 'from', el rango por defecto de la resolución.
+     * La ventana en curso puede no incluir las lecturas de los últimos segundos (app.rollups.flush-interval-ms).
+     */
+    public List<ReadingAggregate> getAggregates(String sensorId, RollupResolution resolution,
+                                                OffsetDateTime from, OffsetDateTime to,
+                                                ReadConsistency consistency) {
+        OffsetDateTime end = to != null ? to : OffsetDateTime.now(ZoneOffset.UTC);
+        OffsetDateTime start = from != null ? from : end.minus(resolution.getDefaultRange());
+        return rollupJdbcRepository.findRange(sensorId, resolution.name(), start, end, consistency);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,267 @@
+package ec.edu.espe.SensorDataCollector.service;
+
+import ec.edu.espe.SensorDataCollector.dedupe.ReadingDeduplicator;
+import ec.edu.espe.SensorDataCollector.model.SensorReading;
+import ec.edu.espe.SensorDataCollector.repository.SensorReadingJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffer de escritura diferida (write-behind) para la ingesta de lecturas.
+ * Las peticiones dejan la lectura en una cola acotada y un hilo escritor la guarda en
+ * sensor_readings junto con las de otras peticiones concurrentes (group commit), cuando se
+ * alcanza flush-size o vence flush-interval-ms, lo que ocurra primero.
+ * Solo se activa con app.ingest.mode=write-behind.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.ingest.mode", havingValue = "write-behind")
+public class WriteBehindIngestBuffer {
+
+    /**
+     * Momento en que se confirma la lectura al cliente.
+     * BUFFERED: al entrar al buffer (202); una caída del proceso puede perder lo que esté en memoria.
+     * COMMITTED: cuando su group commit termina en la base de datos (201).
+     */
+    public enum Durability { BUFFERED, COMMITTED }
+
+    private final SensorReadingJdbcRepository sensorReadingJdbcRepository;
+    private final ReadingEventDispatcher readingEventDispatcher;
+    private final AcceptedReadingNotifier acceptedReadingNotifier;
+    private final ReadingDeduplicator readingDeduplicator;
+    private final TransactionTemplate transactionTemplate;
+    private final ArrayBlockingQueue<PendingReading> queue;
+
+    private final Timer flushTimer;
+    private final DistributionSummary flushSize;
+    private final Counter rejectedCounter;
+    private final Counter droppedCounter;
+
+    @Value("${app.ingest.write-behind.flush-size:500}")
+    private int maxFlushSize;
+
+    @Value("${app.ingest.write-behind.flush-interval-ms:50}")
+    private long flushIntervalMs;
+
+    @Value("${app.ingest.write-behind.max-retries:3}")
+    private int maxRetries;
+
+    @Value("${app.ingest.write-behind.commit-timeout-ms:5000}")
+    private long commitTimeoutMs;
+
+    @Value("${app.ingest.write-behind.durability:BUFFERED}")
+    private Durability durability;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public WriteBehindIngestBuffer(SensorReadingJdbcRepository sensorReadingJdbcRepository,
+                                   ReadingEventDispatcher readingEventDispatcher,
+                                   AcceptedReadingNotifier acceptedReadingNotifier,
+                                   ReadingDeduplicator readingDeduplicator,
+                                   TransactionTemplate transactionTemplate,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.ingest.write-behind.capacity:10000}") int capacity) {
+        this.sensorReadingJdbcRepository = sensorReadingJdbcRepository;
+        this.readingEventDispatcher = readingEventDispatcher;
+        this.acceptedReadingNotifier = acceptedReadingNotifier;
+        this.readingDeduplicator = readingDeduplicator;
+        this.transactionTemplate = transactionTemplate;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+
+        Gauge.builder("sensor.ingest.buffer.depth", queue, ArrayBlockingQueue::size)
+                .description("Lecturas en espera de ser escritas")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("sensor.ingest.buffer.flush")
+                .description("Duración de cada group commit del buffer")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.flushSize = DistributionSummary.builder("sensor.ingest.buffer.flush.size")
+                .description("Lecturas por group commit")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("sensor.ingest.buffer.rejected")
+                .description("Lecturas rechazadas por buffer lleno")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("sensor.ingest.buffer.dropped")
+                .description("Lecturas descartadas tras agotar los reintentos de escritura")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        writerThread = new Thread(this::runWriter, "ingest-write-behind");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("Buffer write-behind iniciado (capacidad={}, flush-size={}, flush-interval={}ms, durabilidad={})",
+                queue.remainingCapacity(), maxFlushSize, flushIntervalMs, durability);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        writerThread.interrupt();
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    public Durability getDurability() {
+        return durability;
+    }
+
+    /**
+     * Encola una lectura (con su ID ya asignado). En modo COMMITTED espera a que su group commit termine.
+     * @return false si (en modo COMMITTED) la lectura resultó ser un reenvío y la base de datos la descartó.
+     * @throws IllegalStateException si el buffer está lleno o la escritura falló.
+     */
+    public boolean enqueue(SensorReading reading) {
+        CompletableFuture<Boolean> committed = durability == Durability.COMMITTED ? new CompletableFuture<>() : null;
+        if (!queue.offer(new PendingReading(reading, committed))) {
+            rejectedCounter.increment();
+            throw new IllegalStateException("Buffer de ingesta lleno, reintente más tarde.");
+        }
+        if (committed == null) {
+            return true;
+        }
+        try {
+            return committed.get(commitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando el group commit", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("La lectura no pudo confirmarse en la base de datos", e);
+        }
+    }
+
+    private void runWriter() {
+        List<PendingReading> batch = new ArrayList<>(maxFlushSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                collectBatch(batch);
+            } catch (InterruptedException e) {
+                // Apagado: se drena lo que quede sin esperar
+                queue.drainTo(batch, maxFlushSize - batch.size());
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Espera la primera lectura y sigue acumulando hasta llenar el lote o agotar el intervalo.
+     */
+    private void collectBatch(List<PendingReading> batch) throws InterruptedException {
+        PendingReading first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (batch.size() < maxFlushSize) {
+            queue.drainTo(batch, maxFlushSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxFlushSize || remaining <= 0) {
+                return;
+            }
+            PendingReading next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<PendingReading> batch) {
+        List<SensorReading> readings = new ArrayList<>(batch.size());
+        for (PendingReading pending : batch) {
+            readings.add(pending.reading());
+        }
+
+        Exception lastError = null;
+        for (int attempt = 0; attempt <= maxRetries; attempt++) {
+            long start = System.nanoTime();
+            try {
+                // Los reenvíos descartados por reading_key no se publican ni se notifican
+                List<SensorReading> inserted = transactionTemplate.execute(status -> {
+                    List<SensorReading> rows = sensorReadingJdbcRepository.insertAll(readings);
+                    readingEventDispatcher.dispatchAll(rows);
+                    acceptedReadingNotifier.notifyAccepted(rows);
+                    return rows;
+                });
+                flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                flushSize.record(readings.size());
+                completeAll(batch, inserted);
+                log.debug("Group commit de {} lecturas completado ({} duplicadas)",
+                        readings.size(), readings.size() - inserted.size());
+                return;
+            } catch (Exception e) {
+                lastError = e;
+                log.warn("Group commit de {} lecturas falló (intento {}/{}): {}",
+                        readings.size(), attempt + 1, maxRetries + 1, e.getMessage());
+                sleepBeforeRetry(attempt);
+            }
+        }
+
+        droppedCounter.increment(readings.size());
+        log.error("Se descartan {} lecturas tras agotar los reintentos de escritura", readings.size());
+        for (PendingReading pending : batch) {
+            pending.fail(lastError);
+        }
+    }
+
+    private void completeAll(List<PendingReading> batch, List<SensorReading> inserted) {
+        if (inserted.size() == batch.size()) {
+            batch.forEach(pending -> pending.complete(true));
+            return;
+        }
+        readingDeduplicator.recordDuplicates(batch.size() - inserted.size());
+        Set<UUID> insertedIds = new HashSet<>(inserted.size() * 2);
+        inserted.forEach(reading -> insertedIds.add(reading.getId()));
+        for (PendingReading pending : batch) {
+            pending.complete(insertedIds.contains(pending.reading().getId()));
+        }
+    }
+
+    private void sleepBeforeRetry(int attempt) {
+        try {
+            Thread.sleep(Math.min(1000L, 50L << attempt));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record PendingReading(SensorReading reading, CompletableFuture<Boolean> committed) {
+
+        void complete(boolean inserted) {
+            if (committed != null) {
+                committed.complete(inserted);
+            }
+        }
+
+        void fail(Exception error) {
+            if (committed != null) {
+                committed.completeExceptionally(error);
+            }
+        }
+    }
+}
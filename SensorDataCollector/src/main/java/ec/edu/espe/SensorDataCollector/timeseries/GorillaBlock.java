@@ -0,0 +1,218 @@
+package ec.edu.espe.SensorDataCollector.timeseries;
+
+import java.util.Arrays;
+
+/**
+ * Bloque comprimido de puntos (timestamp, valor) al estilo Gorilla, sobre un long[] que crece a medida
+ * que se agregan puntos:
+ * - Timestamps (microsegundos): el primero completo y luego el delta del delta, en 1 bit si el intervalo
+ *   se repite y en 9, 12 o 16 bits para variaciones chicas.
+ * - Valores (escalados x100): XOR con el anterior; 1 bit si se repite y si no solo los bits significativos,
+ *   reutilizando la ventana de ceros del valor anterior cuando cabe.
+ * Los puntos deben agregarse en orden de timestamp (puede repetirse). No es thread-safe.
+ */
+public class GorillaBlock {
+
+    private static final int INITIAL_WORDS = 4;
+
+    private long[] words = new long[INITIAL_WORDS];
+    private int bitLength;
+    private int count;
+
+    private long firstTimestamp;
+    private long lastTimestamp;
+    private long lastDelta;
+    private long lastValue;
+    // Ventana de bits significativos del último XOR escrito con encabezado; -1 si todavía no hay
+    private int lastLeading = -1;
+    private int lastTrailing;
+
+    /**
+     * @return false si el timestamp es anterior al último punto del bloque.
+     */
+    public boolean append(long timestampMicros, long value) {
+        if (count == 0) {
+            writeBits(timestampMicros, 64);
+            writeBits(value, 64);
+            firstTimestamp = timestampMicros;
+        } else {
+            if (timestampMicros < lastTimestamp) {
+                return false;
+            }
+            long delta = timestampMicros - lastTimestamp;
+            writeTimestamp(delta - lastDelta);
+            writeValue(value ^ lastValue);
+            lastDelta = delta;
+        }
+        lastTimestamp = timestampMicros;
+        lastValue = value;
+        count++;
+        return true;
+    }
+
+    private void writeTimestamp(long deltaOfDelta) {
+        if (deltaOfDelta == 0) {
+            writeBits(0b0, 1);
+        } else if (fits(deltaOfDelta, 9)) {
+            writeBits(0b10, 2);
+            writeBits(deltaOfDelta, 9);
+        } else if (fits(deltaOfDelta, 12)) {
+            writeBits(0b110, 3);
+            writeBits(deltaOfDelta, 12);
+        } else if (fits(deltaOfDelta, 16)) {
+            writeBits(0b1110, 4);
+            writeBits(deltaOfDelta, 16);
+        } else if (fits(deltaOfDelta, 32)) {
+            writeBits(0b11110, 5);
+            writeBits(deltaOfDelta, 32);
+        } else {
+            writeBits(0b11111, 5);
+            writeBits(deltaOfDelta, 64);
+        }
+    }
+
+    private void writeValue(long xor) {
+        if (xor == 0) {
+            writeBits(0b0, 1);
+            return;
+        }
+        int leading = Long.numberOfLeadingZeros(xor);
+        int trailing = Long.numberOfTrailingZeros(xor);
+        if (lastLeading >= 0 && leading >= lastLeading && trailing >= lastTrailing) {
+            writeBits(0b10, 2);
+            writeBits(xor >>> lastTrailing, 64 - lastLeading - lastTrailing);
+            return;
+        }
+        int significant = 64 - leading - trailing;
+        writeBits(0b11, 2);
+        writeBits(leading, 6);
+        writeBits(significant - 1, 6); // 1..64 en 6 bits
+        writeBits(xor >>> trailing, significant);
+        lastLeading = leading;
+        lastTrailing = trailing;
+    }
+
+    /**
+     * Recorre los puntos del bloque en orden de timestamp.
+     */
+    public void forEach(PointConsumer consumer) {
+        if (count == 0) {
+            return;
+        }
+        Reader reader = new Reader();
+        long timestamp = reader.read(64);
+        long value = reader.read(64);
+        consumer.accept(timestamp, value);
+        long delta = 0;
+        int leading = 0;
+        int trailing = 0;
+        for (int i = 1; i < count; i++) {
+            delta += reader.readDeltaOfDelta();
+            timestamp += delta;
+            if (reader.read(1) == 1) {
+                if (reader.read(1) == 1) {
+                    leading = (int) reader.read(6);
+                    trailing = 64 - leading - ((int) reader.read(6) + 1);
+                }
+                value ^= reader.read(64 - leading - trailing) << trailing;
+            }
+            consumer.accept(timestamp, value);
+        }
+    }
+
+    /**
+     * Ajusta el arreglo al tamaño usado; el bloque no debe recibir más puntos después.
+     */
+    public void seal() {
+        words = Arrays.copyOf(words, (bitLength + 63) >>> 6);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getFirstTimestamp() {
+        return firstTimestamp;
+    }
+
+    public long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    public int getSizeBytes() {
+        return words.length * Long.BYTES;
+    }
+
+    private static boolean fits(long value, int bits) {
+        long bound = 1L << (bits - 1);
+        return value >= -bound && value < bound;
+    }
+
+    /**
+     * Escribe los n bits menos significativos de value, del más significativo al menos significativo.
+     */
+    private void writeBits(long value, int n) {
+        if (n == 0) {
+            return;
+        }
+        int required = (bitLength + n + 63) >>> 6;
+        if (required > words.length) {
+            words = Arrays.copyOf(words, Math.max(required, words.length * 2));
+        }
+        if (n < 64) {
+            value &= (1L << n) - 1;
+        }
+        int index = bitLength >>> 6;
+        int free = 64 - (bitLength & 63);
+        if (n <= free) {
+            words[index] |= value << (free - n);
+        } else {
+            int spill = n - free;
+            words[index] |= value >>> spill;
+            words[index + 1] |= value << (64 - spill);
+        }
+        bitLength += n;
+    }
+
+    private final class Reader {
+
+        private int position;
+
+        long read(int n) {
+            if (n == 0) {
+                return 0;
+            }
+            int index = position >>> 6;
+            int used = position & 63;
+            int available = 64 - used;
+            long result;
+            if (n <= available) {
+                result = (words[index] << used) >>> (64 - n);
+            } else {
+                int spill = n - available;
+                long high = (words[index] << used) >>> used;
+                result = (high << spill) | (words[index + 1] >>> (64 - spill));
+            }
+            position += n;
+            return result;
+        }
+
+        long readDeltaOfDelta() {
+            int bits;
+            if (read(1) == 0) {
+                return 0;
+            } else if (read(1) == 0) {
+                bits = 9;
+            } else if (read(1) == 0) {
+                bits = 12;
+            } else if (read(1) == 0) {
+                bits = 16;
+            } else {
+                bits = read(1) == 0 ? 32 : 64;
+            }
+            long raw = read(bits);
+            // Extensión de signo del complemento a dos de 'bits' bits
+            return bits == 64 ? raw : (raw << (64 - bits)) >> (64 - bits);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package ec.edu.espe.SensorDataCollector.timeseries;
+
+import java.util.Arrays;
+
+/**
+ * Reducción Largest-Triangle-Three-Buckets en una sola pasada sobre puntos en orden cronológico, para
+ * dibujar una serie larga con a lo sumo maxPoints puntos conservando su forma (picos incluidos).
+ *
+ * Como la cantidad de puntos no se conoce al empezar a leer, los buckets son intervalos de tiempo iguales
+ * dentro de [from, to) en lugar de grupos con la misma cantidad de puntos. Se mantienen en arreglos
+ * primitivos solo dos buckets: el que falta elegir y el siguiente, cuyo promedio es el tercer vértice del
+ * triángulo. El primer y el último punto siempre se conservan. No es thread-safe.
+ */
+public class LttbDownsampler {
+
+    private final long from;
+    private final double bucketWidth;
+    private final long lastBucket;
+    private final PointConsumer output;
+
+    // Último punto elegido: primer vértice del triángulo
+    private long selectedTimestamp;
+    private long selectedValue;
+    private boolean started;
+
+    // Bucket pendiente de elegir
+    private Bucket pending = new Bucket();
+    // Bucket en curso (siguiente al pendiente)
+    private Bucket current = new Bucket();
+    private long currentIndex = Long.MIN_VALUE;
+
+    /**
+     * @param from Inicio inclusivo del rango consultado (microsegundos).
+     * @param to Fin exclusivo del rango consultado (microsegundos).
+     * @param maxPoints Máximo de puntos a entregar; al menos 3.
+     * @param output Recibe los puntos elegidos en orden cronológico.
+     */
+    public LttbDownsampler(long from, long to, int maxPoints, PointConsumer output) {
+        if (maxPoints < 3) {
+            throw new IllegalArgumentException("maxPoints debe ser al menos 3");
+        }
+        this.from = from;
+        // El primer y el último punto van aparte: quedan maxPoints - 2 buckets para el resto
+        this.bucketWidth = Math.max(1.0, (double) (to - from) / (maxPoints - 2));
+        this.lastBucket = maxPoints - 3;
+        this.output = output;
+    }
+
+    public void add(long timestampMicros, long value) {
+        if (!started) {
+            started = true;
+            selectedTimestamp = timestampMicros;
+            selectedValue = value;
+            output.accept(timestampMicros, value);
+            return;
+        }
+        // Acotado a los buckets del rango: un punto en to o después (to = ahora y relojes adelantados) cae en
+        // el último y no abre buckets de más
+        long index = Math.max(0, Math.min(lastBucket, (long) ((timestampMicros - from) / bucketWidth)));
+        if (index != currentIndex) {
+            if (pending.size > 0) {
+                select(pending, current.averageTimestamp(), current.averageValue());
+            }
+            Bucket completed = current;
+            current = pending;
+            current.clear();
+            pending = completed;
+            currentIndex = index;
+        }
+        current.add(timestampMicros, value);
+    }
+
+    /**
+     * Elige los puntos de los buckets restantes y entrega el último punto recibido.
+     */
+    public void finish() {
+        if (current.size == 0) {
+            // Un solo punto (ya entregado) o ninguno
+            return;
+        }
+        // El último punto se entrega siempre, así que sale del bucket en curso
+        current.size--;
+        long lastTimestamp = current.timestamps[current.size];
+        long lastValue = current.values[current.size];
+        current.timestampSum -= lastTimestamp - current.origin;
+        current.valueSum -= lastValue;
+        if (pending.size > 0) {
+            if (current.size > 0) {
+                select(pending, current.averageTimestamp(), current.averageValue());
+            } else {
+                select(pending, lastTimestamp, lastValue);
+            }
+        }
+        if (current.size > 0) {
+            select(current, lastTimestamp, lastValue);
+        }
+        output.accept(lastTimestamp, lastValue);
+    }
+
+    /**
+     * Entrega el punto del bucket que forma el triángulo de mayor área con el último elegido y el
+     * promedio (nextTimestamp, nextValue) del bucket siguiente.
+     */
+    private void select(Bucket bucket, double nextTimestamp, double nextValue) {
+        // Coordenadas relativas al último elegido para no perder precisión con timestamps en microsegundos
+        double nextX = nextTimestamp - selectedTimestamp;
+        double nextY = nextValue - selectedValue;
+        int best = 0;
+        double bestArea = -1;
+        for (int i = 0; i < bucket.size; i++) {
+            double x = bucket.timestamps[i] - selectedTimestamp;
+            double y = bucket.values[i] - selectedValue;
+            double area = Math.abs(x * nextY - nextX * y);
+            if (area > bestArea) {
+                bestArea = area;
+                best = i;
+            }
+        }
+        selectedTimestamp = bucket.timestamps[best];
+        selectedValue = bucket.values[best];
+        output.accept(selectedTimestamp, selectedValue);
+    }
+
+    private static final class Bucket {
+
+        private long[] timestamps = new long[64];
+        private long[] values = new long[64];
+        private int size;
+        // Las sumas de timestamps se llevan relativas al primero del bucket para no desbordar
+        private long origin;
+        private long timestampSum;
+        private long valueSum;
+
+        void add(long timestamp, long value) {
+            if (size == timestamps.length) {
+                timestamps = Arrays.copyOf(timestamps, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            if (size == 0) {
+                origin = timestamp;
+            }
+            timestamps[size] = timestamp;
+            values[size] = value;
+            timestampSum += timestamp - origin;
+            valueSum += value;
+            size++;
+        }
+
+        double averageTimestamp() {
+            return origin + (double) timestampSum / size;
+        }
+
+        double averageValue() {
+            return (double) valueSum / size;
+        }
+
+        void clear() {
+            size = 0;
+            timestampSum = 0;
+            valueSum = 0;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package ec.edu.espe.SensorDataCollector.timeseries;
+
+/**
+ * Recibe los puntos de una serie sin crear objetos por punto.
+ */
+@FunctionalInterface
+public interface PointConsumer {
+
+    /**
+     * @param timestampMicros Instante de la lectura en microsegundos desde epoch.
+     * @param value Valor escalado x100 (ver ScaledValues).
+     */
+    void accept(long timestampMicros, long value);
+}
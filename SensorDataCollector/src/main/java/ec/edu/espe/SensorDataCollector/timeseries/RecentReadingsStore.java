@@ -0,0 +1,335 @@
+package ec.edu.espe.SensorDataCollector.timeseries;
+
+import ec.edu.espe.SensorDataCollector.dto.ReadingPoint;
+import ec.edu.espe.SensorDataCollector.model.EpochMicros;
+import ec.edu.espe.SensorDataCollector.model.SensorReading;
+import ec.edu.espe.SensorDataCollector.repository.ReadConsistency;
+import ec.edu.espe.SensorDataCollector.repository.SensorReadingJdbcRepository;
+import ec.edu.espe.SensorDataCollector.service.AcceptedReadingListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Últimas horas de lecturas de cada sensor consultado, comprimidas en bloques Gorilla (GorillaBlock):
+ * unos pocos bytes por punto en lugar de una entidad por lectura. Atiende las consultas por rango de
+ * GET /sensor-readings/{sensorId} que caen dentro de la ventana sin ir a la base de datos.
+ *
+ * Como LatestReadingsCache, solo sigue a los sensores ya consultados: la primera consulta carga la
+ * ventana desde la base de datos y luego la ruta de escritura agrega las lecturas confirmadas. Una
+ * lectura más antigua que la última de su serie no se puede agregar al bloque: la serie queda marcada
+ * y se recarga en la siguiente consulta. Las lecturas de otras instancias del colector se incorporan
+ * al recargar cada serie tras reload-interval. Al llegar a max-sensors se descarta el sensor consultado
+ * hace más tiempo.
+ */
+@Component
+@EnableConfigurationProperties(RecentStoreProperties.class)
+public class RecentReadingsStore implements AcceptedReadingListener {
+
+    private final RecentStoreProperties properties;
+    private final SensorReadingJdbcRepository sensorReadingJdbcRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ConcurrentHashMap<String, SensorSeries> series = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter loads;
+    private final Counter fallbacks;
+
+    public RecentReadingsStore(RecentStoreProperties properties,
+                               SensorReadingJdbcRepository sensorReadingJdbcRepository,
+                               TransactionTemplate transactionTemplate,
+                               MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.sensorReadingJdbcRepository = sensorReadingJdbcRepository;
+        // La carga usa un cursor con fetch size, que el driver solo respeta dentro de una transacción
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+
+        Gauge.builder("sensor.timeseries.recent.sensors", series, ConcurrentHashMap::size)
+                .description("Sensores con su ventana reciente en memoria")
+                .register(meterRegistry);
+        Gauge.builder("sensor.timeseries.recent.points", this, store -> store.totals()[0])
+                .description("Puntos guardados en el almacén de lecturas recientes")
+                .register(meterRegistry);
+        Gauge.builder("sensor.timeseries.recent.bytes", this, store -> store.totals()[1])
+                .description("Memoria ocupada por los bloques comprimidos")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.hits = Counter.builder("sensor.timeseries.recent.requests").tag("result", "hit").register(meterRegistry);
+        this.loads = Counter.builder("sensor.timeseries.recent.requests").tag("result", "load").register(meterRegistry);
+        this.fallbacks = Counter.builder("sensor.timeseries.recent.requests").tag("result", "fallback")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Puntos del sensor con timestamp en [from, to), del más reciente al más antiguo.
+     * @param to Límite superior exclusivo, o null.
+     * @return null si el almacén está desactivado, el rango empieza antes de la ventana u otra petición
+     * todavía está cargando el sensor; la consulta debe resolverse entonces en la base de datos.
+     */
+    public List<ReadingPoint> find(String sensorId, OffsetDateTime from, OffsetDateTime to) {
+        long windowStart = windowStartMicros();
+        long fromMicros = EpochMicros.of(from);
+        if (!properties.isEnabled() || fromMicros < windowStart) {
+            fallbacks.increment();
+            return null;
+        }
+        SensorSeries current = series.get(sensorId);
+        boolean loaded = false;
+        if (current == null || current.needsReload(properties.getReloadInterval().toNanos())) {
+            // Se publica la serie vacía antes de leer: solo la petición que logra publicarla carga el sensor, y
+            // las lecturas confirmadas durante la carga quedan pendientes en ella y no se pierden
+            SensorSeries fresh = new SensorSeries();
+            loaded = current == null ? series.putIfAbsent(sensorId, fresh) == null : series.replace(sensorId, current, fresh);
+            if (loaded) {
+                load(sensorId, fresh, windowStart);
+                current = fresh;
+            } else {
+                // Otra petición la está cargando: su find devuelve null hasta terminar
+                current = series.get(sensorId);
+                if (current == null) {
+                    fallbacks.increment();
+                    return null;
+                }
+            }
+        }
+        current.touch();
+        List<ReadingPoint> points = current.find(fromMicros, to != null ? EpochMicros.of(to) : Long.MAX_VALUE, windowStart);
+        (points == null ? fallbacks : loaded ? loads : hits).increment();
+        return points;
+    }
+
+    @Override
+    public void onReadingsAccepted(List<SensorReading> readings) {
+        for (SensorReading reading : readings) {
+            // Solo se siguen los sensores ya cargados; los demás se cargan completos en la primera consulta
+            SensorSeries current = series.get(reading.getSensorId());
+            if (current != null) {
+                current.add(reading, properties.getBlockDuration().toNanos() / 1_000);
+            }
+        }
+    }
+
+    /**
+     * Una importación rara vez toca la ventana: solo las filas dentro de ella invalidan la serie ya cargada
+     * de su sensor, que se recarga en la próxima consulta. Las históricas se ignoran.
+     */
+    @Override
+    public void onReadingsImported(List<SensorReading> readings) {
+        long windowStart = windowStartMicros();
+        for (SensorReading reading : readings) {
+            SensorSeries current = series.get(reading.getSensorId());
+            if (current != null && EpochMicros.of(reading.getTimestamp()) >= windowStart) {
+                current.stale = true;
+            }
+        }
+    }
+
+    /**
+     * Descarta los bloques que salieron de la ventana y las series que ya deben recargarse.
+     */
+    @Scheduled(fixedDelayString = "${app.timeseries.recent.sweep-interval-ms:60000}")
+    void sweep() {
+        long windowStart = windowStartMicros();
+        long reloadNanos = properties.getReloadInterval().toNanos();
+        series.entrySet().removeIf(entry -> entry.getValue().trim(windowStart) || entry.getValue().needsReload(reloadNanos));
+    }
+
+    private void load(String sensorId, SensorSeries loaded, long windowStart) {
+        if (series.size() > properties.getMaxSensors()) {
+            evictLeastRecentlyUsed(loaded);
+        }
+        long blockMicros = properties.getBlockDuration().toNanos() / 1_000;
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> sensorReadingJdbcRepository.streamChronological(
+                    sensorId, EpochMicros.toOffsetDateTime(windowStart), null, properties.getLoadFetchSize(),
+                    ReadConsistency.STRONG, reading -> loaded.load(reading, blockMicros)));
+        } catch (RuntimeException e) {
+            series.remove(sensorId, loaded);
+            throw e;
+        }
+        loaded.finishLoad(blockMicros);
+    }
+
+    /**
+     * Descarta el sensor consultado hace más tiempo. Recorre todas las series, pero solo al cargar un
+     * sensor nuevo con el almacén lleno, y evita mantener un orden de acceso en cada consulta.
+     */
+    private void evictLeastRecentlyUsed(SensorSeries keep) {
+        Map.Entry<String, SensorSeries> oldest = null;
+        for (Map.Entry<String, SensorSeries> entry : series.entrySet()) {
+            if (entry.getValue() != keep
+                    && (oldest == null || entry.getValue().lastAccessNanos - oldest.getValue().lastAccessNanos < 0)) {
+                oldest = entry;
+            }
+        }
+        if (oldest != null) {
+            series.remove(oldest.getKey(), oldest.getValue());
+        }
+    }
+
+    private long[] totals() {
+        long[] totals = new long[2];
+        for (SensorSeries current : series.values()) {
+            current.addTotals(totals);
+        }
+        return totals;
+    }
+
+    private long windowStartMicros() {
+        return (System.currentTimeMillis() - properties.getWindow().toMillis()) * 1_000;
+    }
+
+    /**
+     * Series de un sensor, una por tipo de lectura (normalmente una sola).
+     */
+    private static final class SensorSeries {
+
+        private final long loadedAtNanos = System.nanoTime();
+        private volatile long lastAccessNanos = loadedAtNanos;
+        private final Map<String, TypeSeries> byType = new LinkedHashMap<>(2);
+        // Lecturas confirmadas mientras se carga la ventana; null una vez cargada
+        private List<SensorReading> pending = new ArrayList<>();
+        private volatile boolean stale;
+
+        void touch() {
+            lastAccessNanos = System.nanoTime();
+        }
+
+        boolean needsReload(long reloadNanos) {
+            return stale || (reloadNanos > 0 && System.nanoTime() - loadedAtNanos > reloadNanos);
+        }
+
+        // Solo desde el hilo que carga, antes de finishLoad
+        void load(SensorReading reading, long blockMicros) {
+            typeSeries(reading.getType()).append(EpochMicros.of(reading.getTimestamp()), reading.getValue(), blockMicros);
+        }
+
+        synchronized void finishLoad(long blockMicros) {
+            for (SensorReading reading : pending) {
+                TypeSeries target = typeSeries(reading.getType());
+                long timestamp = EpochMicros.of(reading.getTimestamp());
+                // Las que no son posteriores a la carga probablemente ya vinieron en ella
+                if (timestamp > target.lastTimestamp) {
+                    target.append(timestamp, reading.getValue(), blockMicros);
+                }
+            }
+            pending = null;
+        }
+
+        synchronized void add(SensorReading reading, long blockMicros) {
+            if (pending != null) {
+                pending.add(reading);
+                return;
+            }
+            if (!typeSeries(reading.getType()).append(EpochMicros.of(reading.getTimestamp()), reading.getValue(), blockMicros)) {
+                stale = true;
+            }
+        }
+
+        /**
+         * @return null mientras la ventana se está cargando.
+         */
+        synchronized List<ReadingPoint> find(long from, long to, long windowStart) {
+            if (pending != null) {
+                return null;
+            }
+            trim(windowStart);
+            List<ReadingPoint> points = new ArrayList<>();
+            for (Map.Entry<String, TypeSeries> entry : byType.entrySet()) {
+                String type = entry.getKey();
+                for (GorillaBlock block : entry.getValue().blocks) {
+                    if (block.getLastTimestamp() < from || block.getFirstTimestamp() >= to) {
+                        continue;
+                    }
+                    block.forEach((timestamp, value) -> {
+                        if (timestamp >= from && timestamp < to) {
+                            points.add(new ReadingPoint(type, value, EpochMicros.toOffsetDateTime(timestamp)));
+                        }
+                    });
+                }
+            }
+            // Cada bloque se decodifica en orden cronológico; la respuesta va del más reciente al más antiguo
+            points.sort(Comparator.comparing(ReadingPoint::getTimestamp).reversed());
+            return points;
+        }
+
+        /**
+         * @return true si la serie quedó vacía.
+         */
+        synchronized boolean trim(long windowStart) {
+            if (pending != null) {
+                return false;
+            }
+            byType.values().removeIf(typeSeries -> typeSeries.trim(windowStart));
+            return byType.isEmpty();
+        }
+
+        synchronized void addTotals(long[] totals) {
+            if (pending != null) {
+                return;
+            }
+            for (TypeSeries typeSeries : byType.values()) {
+                for (GorillaBlock block : typeSeries.blocks) {
+                    totals[0] += block.getCount();
+                    totals[1] += block.getSizeBytes();
+                }
+            }
+        }
+
+        private TypeSeries typeSeries(String type) {
+            return byType.computeIfAbsent(type, t -> new TypeSeries());
+        }
+    }
+
+    /**
+     * Bloques de un tipo en orden cronológico; solo el último recibe puntos.
+     */
+    private static final class TypeSeries {
+
+        private final ArrayDeque<GorillaBlock> blocks = new ArrayDeque<>();
+        private long lastTimestamp = Long.MIN_VALUE;
+
+        boolean append(long timestamp, long value, long blockMicros) {
+            GorillaBlock active = blocks.peekLast();
+            if (active == null || timestamp - active.getFirstTimestamp() >= blockMicros) {
+                if (timestamp < lastTimestamp) {
+                    return false;
+                }
+                if (active != null) {
+                    active.seal();
+                }
+                active = new GorillaBlock();
+                blocks.addLast(active);
+            }
+            if (!active.append(timestamp, value)) {
+                return false;
+            }
+            lastTimestamp = timestamp;
+            return true;
+        }
+
+        /**
+         * @return true si no quedan bloques.
+         */
+        boolean trim(long windowStart) {
+            while (!blocks.isEmpty() && blocks.peekFirst().getLastTimestamp() < windowStart) {
+                blocks.removeFirst();
+            }
+            return blocks.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package ec.edu.espe.SensorDataCollector.timeseries;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Almacén en memoria de lecturas recientes (app.timeseries.recent en application.yaml).
+ */
+@Data
+@ConfigurationProperties(prefix = "app.timeseries.recent")
+public class RecentStoreProperties {
+
+    private boolean enabled = true;
+
+    // Ventana que se conserva por sensor; las consultas que empiezan antes van a la base de datos
+    private Duration window = Duration.ofHours(24);
+
+    // Rango de tiempo cubierto por cada bloque comprimido; la ventana se recorta de a un bloque
+    private Duration blockDuration = Duration.ofHours(2);
+
+    // Antigüedad máxima de una serie antes de recargarla de la base de datos, para incluir las lecturas
+    // aceptadas por otras instancias del colector. Cero no recarga nunca (una sola instancia)
+    private Duration reloadInterval = Duration.ofMinutes(10);
+
+    private int maxSensors = 10000;
+
+    // Filas por viaje a la base de datos al cargar la ventana de un sensor
+    private int loadFetchSize = 5000;
+}
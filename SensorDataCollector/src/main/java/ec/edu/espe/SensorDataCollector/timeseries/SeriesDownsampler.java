@@ -0,0 +1,112 @@
+package ec.edu.espe.SensorDataCollector.timeseries;
+
+import ec.edu.espe.SensorDataCollector.dto.ReadingPoint;
+import ec.edu.espe.SensorDataCollector.model.EpochMicros;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reduce con LttbDownsampler las lecturas de un sensor por separado para cada tipo (cada tipo es una serie
+ * distinta en el gráfico), de modo que cada una entregue a lo sumo maxPoints puntos.
+ *
+ * Los puntos deben llegar en orden cronológico dentro de cada tipo. Un punto repetido (mismo tipo, timestamp y
+ * valor que otro ya recibido, por ejemplo uno del archivo que también sigue en la tabla) se omite aunque entre
+ * ambos haya llegado otro valor con el mismo timestamp; uno con timestamp anterior al último recibido se
+ * descarta y se cuenta en getDroppedCount(). No es thread-safe.
+ */
+public class SeriesDownsampler {
+
+    private final long from;
+    private final long to;
+    private final int maxPoints;
+    private final Map<String, Series> series = new HashMap<>();
+    private final List<ReadingPoint> points = new ArrayList<>();
+    private long droppedCount;
+
+    /**
+     * @param from Inicio inclusivo del rango consultado (microsegundos).
+     * @param to Fin exclusivo del rango consultado (microsegundos).
+     * @param maxPoints Máximo de puntos por tipo; al menos 3.
+     */
+    public SeriesDownsampler(long from, long to, int maxPoints) {
+        if (maxPoints < 3) {
+            throw new IllegalArgumentException("maxPoints debe ser al menos 3");
+        }
+        this.from = from;
+        this.to = to;
+        this.maxPoints = maxPoints;
+    }
+
+    public void add(String type, long timestampMicros, long value) {
+        Series current = series.computeIfAbsent(type, Series::new);
+        if (current.count > 0 && timestampMicros < current.lastTimestamp) {
+            droppedCount++;
+            return;
+        }
+        if (current.count > 0 && timestampMicros == current.lastTimestamp) {
+            if (current.seenAtLastTimestamp(value)) {
+                return;
+            }
+        } else {
+            current.lastTimestamp = timestampMicros;
+            current.valuesAtLast = 0;
+        }
+        current.count++;
+        current.rememberAtLastTimestamp(value);
+        current.downsampler.add(timestampMicros, value);
+    }
+
+    /**
+     * Puntos descartados por llegar fuera de orden.
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * Puntos elegidos de todos los tipos, del más reciente al más antiguo.
+     */
+    public List<ReadingPoint> finish() {
+        for (Series current : series.values()) {
+            current.downsampler.finish();
+        }
+        points.sort(Comparator.comparing(ReadingPoint::getTimestamp).reversed().thenComparing(ReadingPoint::getType));
+        return points;
+    }
+
+    private final class Series {
+
+        private final LttbDownsampler downsampler;
+        private long count;
+        private long lastTimestamp;
+        // Valores ya recibidos con lastTimestamp: los duplicados del archivo y la tabla no siempre son consecutivos
+        private long[] lastValues = new long[2];
+        private int valuesAtLast;
+
+        Series(String type) {
+            this.downsampler = new LttbDownsampler(from, to, maxPoints,
+                    (timestamp, value) -> points.add(new ReadingPoint(type, value, EpochMicros.toOffsetDateTime(timestamp))));
+        }
+
+        boolean seenAtLastTimestamp(long value) {
+            for (int i = 0; i < valuesAtLast; i++) {
+                if (lastValues[i] == value) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void rememberAtLastTimestamp(long value) {
+            if (valuesAtLast == lastValues.length) {
+                lastValues = Arrays.copyOf(lastValues, valuesAtLast * 2);
+            }
+            lastValues[valuesAtLast++] = value;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package ec.edu.espe.SensorDataCollector.validation;
+
+import ec.edu.espe.EnvironmentalEvents.util.ScaledValues;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Motor de validación por tabla: compila una vez las reglas de app.validation (rangos, tasa de cambio
+ * y desfase del timestamp por tipo de sensor) y evalúa cada lectura sobre valores escalados, sin crear
+ * objetos ni excepciones. Así un sensor defectuoso que envía miles de lecturas inválidas solo cuesta
+ * unas comparaciones por lectura.
+ */
+@Component
+@EnableConfigurationProperties(ReadingValidationProperties.class)
+public class ReadingRuleEngine {
+
+    private static final long NO_LIMIT = -1;
+
+    private final Map<String, CompiledRule> rules = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final CompiledRule defaultRule;
+    private final ConcurrentHashMap<String, LastReading> lastReadings = new ConcurrentHashMap<>();
+    private final int maxTrackedSensors;
+    private final EnumMap<ValidationResult, Counter> rejectedCounters = new EnumMap<>(ValidationResult.class);
+
+    public ReadingRuleEngine(ReadingValidationProperties properties, MeterRegistry meterRegistry) {
+        this.maxTrackedSensors = properties.getMaxTrackedSensors();
+        ReadingValidationProperties.TypeRule base = properties.getDefaultRule();
+        this.defaultRule = new CompiledRule("cualquier tipo", base, new ReadingValidationProperties.TypeRule(), properties);
+        properties.getRules().forEach((type, rule) -> rules.put(type, new CompiledRule(type, rule, base, properties)));
+        for (ValidationResult result : ValidationResult.values()) {
+            if (!result.isValid()) {
+                rejectedCounters.put(result, Counter.builder("sensor.ingest.rejected")
+                        .description("Lecturas rechazadas por las reglas de validación")
+                        .tag("reason", result.name())
+                        .register(meterRegistry));
+            }
+        }
+    }
+
+    public ValidationResult evaluate(String sensorId, String type, long value, OffsetDateTime timestamp) {
+        return evaluate(sensorId, type, value, timestamp, System.currentTimeMillis());
+    }
+
+    /**
+     * Evalúa la lectura. Si es válida, pasa a ser la referencia del sensor para la regla de tasa de cambio.
+     */
+    ValidationResult evaluate(String sensorId, String type, long value, OffsetDateTime timestamp, long nowMillis) {
+        CompiledRule rule = type == null ? defaultRule : rules.getOrDefault(type, defaultRule);
+        ValidationResult result = rule.check(value, toEpochMillis(timestamp), nowMillis);
+        if (result.isValid() && rule.maxRatePerSecond != NO_LIMIT) {
+            result = checkRateOfChange(sensorId, rule.maxRatePerSecond, value, toEpochMillis(timestamp));
+        }
+        if (!result.isValid()) {
+            rejectedCounters.get(result).increment();
+        }
+        return result;
+    }
+
+    /**
+     * Mensaje del rechazo para el tipo de sensor (precalculado al compilar las reglas).
+     */
+    public String describe(String type, ValidationResult result) {
+        CompiledRule rule = type == null ? defaultRule : rules.getOrDefault(type, defaultRule);
+        return rule.messages.get(result);
+    }
+
+    private ValidationResult checkRateOfChange(String sensorId, long maxRatePerSecond, long value, long epochMillis) {
+        LastReading last = lastReadings.get(sensorId);
+        if (last == null) {
+            if (lastReadings.size() >= maxTrackedSensors) {
+                return ValidationResult.VALID; // Sin memoria para más sensores: no se evalúa la tasa
+            }
+            last = lastReadings.computeIfAbsent(sensorId, id -> new LastReading());
+        }
+        return last.checkAndUpdate(maxRatePerSecond, value, epochMillis);
+    }
+
+    private static long toEpochMillis(OffsetDateTime timestamp) {
+        return timestamp.toEpochSecond() * 1000 + timestamp.getNano() / 1_000_000;
+    }
+
+    private static final class CompiledRule {
+        private final long min;
+        private final long max;
+        private final boolean hasMin;
+        private final boolean hasMax;
+        private final long maxRatePerSecond;
+        private final long maxFutureSkewMillis;
+        private final long maxPastAgeMillis;
+        private final EnumMap<ValidationResult, String> messages = new EnumMap<>(ValidationResult.class);
+
+        /**
+         * @param base Regla de la que se heredan los límites que rule no define (default-rule).
+         */
+        CompiledRule(String type, ReadingValidationProperties.TypeRule rule, ReadingValidationProperties.TypeRule base,
+                     ReadingValidationProperties global) {
+            BigDecimal ruleMin = or(rule.getMin(), base.getMin());
+            BigDecimal ruleMax = or(rule.getMax(), base.getMax());
+            BigDecimal ruleRate = or(rule.getMaxRatePerSecond(), base.getMaxRatePerSecond());
+            this.hasMin = ruleMin != null;
+            this.hasMax = ruleMax != null;
+            this.min = hasMin ? ScaledValues.fromBigDecimal(ruleMin) : 0;
+            this.max = hasMax ? ScaledValues.fromBigDecimal(ruleMax) : 0;
+            this.maxRatePerSecond = ruleRate != null ? ScaledValues.fromBigDecimal(ruleRate) : NO_LIMIT;
+            this.maxFutureSkewMillis = toMillis(or(rule.getMaxFutureSkew(), or(base.getMaxFutureSkew(), global.getMaxFutureSkew())));
+            this.maxPastAgeMillis = toMillis(or(rule.getMaxPastAge(), or(base.getMaxPastAge(), global.getMaxPastAge())));
+
+            messages.put(ValidationResult.VALID, "");
+            messages.put(ValidationResult.VALUE_OUT_OF_RANGE, "Valor fuera del rango aceptable para " + type + " ("
+                    + (hasMin ? ScaledValues.toString(min) : "-∞") + " a " + (hasMax ? ScaledValues.toString(max) : "∞") + ").");
+            messages.put(ValidationResult.RATE_OF_CHANGE_EXCEEDED, "El valor de " + type + " cambia demasiado rápido (máximo "
+                    + (maxRatePerSecond == NO_LIMIT ? "-" : ScaledValues.toString(maxRatePerSecond)) + " por segundo).");
+            messages.put(ValidationResult.TIMESTAMP_IN_FUTURE, "El timestamp está adelantado más de "
+                    + maxFutureSkewMillis / 1000 + " s respecto al servidor.");
+            messages.put(ValidationResult.TIMESTAMP_TOO_OLD, "El timestamp tiene más de "
+                    + maxPastAgeMillis / 1000 + " s de antigüedad.");
+        }
+
+        ValidationResult check(long value, long epochMillis, long nowMillis) {
+            if ((hasMin && value < min) || (hasMax && value > max)) {
+                return ValidationResult.VALUE_OUT_OF_RANGE;
+            }
+            if (maxFutureSkewMillis != NO_LIMIT && epochMillis - nowMillis > maxFutureSkewMillis) {
+                return ValidationResult.TIMESTAMP_IN_FUTURE;
+            }
+            if (maxPastAgeMillis != NO_LIMIT && nowMillis - epochMillis > maxPastAgeMillis) {
+                return ValidationResult.TIMESTAMP_TOO_OLD;
+            }
+            return ValidationResult.VALID;
+        }
+
+        private static <T> T or(T value, T fallback) {
+            return value != null ? value : fallback;
+        }
+
+        private static long toMillis(Duration duration) {
+            return duration == null ? NO_LIMIT : duration.toMillis();
+        }
+    }
+
+    /**
+     * Última lectura aceptada de un sensor. Se actualiza solo con lecturas válidas y más recientes.
+     */
+    private static final class LastReading {
+        private long epochMillis = Long.MIN_VALUE;
+        private long value;
+
+        synchronized ValidationResult checkAndUpdate(long maxRatePerSecond, long newValue, long newEpochMillis) {
+            if (epochMillis != Long.MIN_VALUE) {
+                // |Δvalor| / |Δt| > tasa máxima, sin divisiones: |Δvalor| * 1000 > tasa * |Δt en ms|
+                long elapsedMillis = Math.max(Math.abs(newEpochMillis - epochMillis), 1);
+                if (Math.abs(newValue - value) * 1000 > maxRatePerSecond * elapsedMillis) {
+                    return ValidationResult.RATE_OF_CHANGE_EXCEEDED;
+                }
+            }
+            if (newEpochMillis >= epochMillis) {
+                epochMillis = newEpochMillis;
+                value = newValue;
+            }
+            return ValidationResult.VALID;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package ec.edu.espe.SensorDataCollector.validation;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tabla de reglas de validación por tipo de sensor (app.validation en application.yaml).
+ * Una regla por tipo hereda de default-rule los límites que no define; los que no están en ninguna no se evalúan.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.validation")
+public class ReadingValidationProperties {
+
+    // Adelanto máximo del timestamp respecto al reloj del servidor (para todos los tipos)
+    private Duration maxFutureSkew;
+
+    // Antigüedad máxima del timestamp (para todos los tipos)
+    private Duration maxPastAge;
+
+    // Sensores cuyo último valor se recuerda para la regla de tasa de cambio
+    private int maxTrackedSensors = 100_000;
+
+    // Reglas por tipo de sensor; la clave no distingue mayúsculas
+    private Map<String, TypeRule> rules = new LinkedHashMap<>();
+
+    // Regla de los tipos sin regla propia y base de las demás; por defecto el rango genérico de -100 a 100
+    private TypeRule defaultRule = new TypeRule();
+
+    {
+        defaultRule.setMin(new BigDecimal("-100"));
+        defaultRule.setMax(new BigDecimal("100"));
+    }
+
+    @Data
+    public static class TypeRule {
+        private BigDecimal min;
+        private BigDecimal max;
+        // Variación máxima del valor por segundo entre lecturas consecutivas del mismo sensor
+        private BigDecimal maxRatePerSecond;
+        // Sobrescriben los límites globales de timestamp para este tipo
+        private Duration maxFutureSkew;
+        private Duration maxPastAge;
+    }
+}
@@ -0,0 +1,17 @@
+package ec.edu.espe.SensorDataCollector.validation;
+
+/**
+ * Resultado de evaluar una lectura contra la tabla de reglas (ver ReadingRuleEngine).
+ * Los rechazos se devuelven como código, sin excepciones: el mensaje se obtiene con ReadingRuleEngine.describe.
+ */
+public enum ValidationResult {
+    VALID,
+    VALUE_OUT_OF_RANGE,
+    RATE_OF_CHANGE_EXCEEDED,
+    TIMESTAMP_IN_FUTURE,
+    TIMESTAMP_TOO_OLD;
+
+    public boolean isValid() {
+        return this == VALID;
+    }
+}
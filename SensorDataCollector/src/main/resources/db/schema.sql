@@ -0,0 +1,53 @@
+-- -------------------------------------------
+-- Esquema gestionado de sensor_readings para CockroachDB
+-- Se ejecuta al iniciar (spring.sql.init) antes de que Hibernate valide/actualice las entidades.
+-- Todas las sentencias son idempotentes.
+-- -------------------------------------------
+
+-- Clave primaria UUID v4 aleatoria: las inserciones se reparten entre todos los rangos del
+-- clúster en lugar de concentrarse en el último rango, como ocurriría con un ID secuencial.
+CREATE TABLE IF NOT EXISTS sensor_readings (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    sensor_id VARCHAR(50) NOT NULL,
+    type VARCHAR(50) NOT NULL,
+    value DECIMAL(10,2) NOT NULL,
+    timestamp TIMESTAMPTZ NOT NULL,
+    created_at TIMESTAMPTZ DEFAULT now(),
+    CONSTRAINT sensor_readings_pkey PRIMARY KEY (id)
+);
+
+-- Índice para el historial por sensor (findBySensorIdOrderByTimestampDesc y consultas por rango).
+-- USING HASH reparte las escrituras del índice en buckets para que los sensores más activos,
+-- que siempre escriben al final de su rango de timestamps, no generen un punto caliente.
+-- STORING evita volver a la tabla principal para leer type y value.
+CREATE INDEX IF NOT EXISTS idx_sensor_readings_sensor_ts
+    ON sensor_readings (sensor_id, timestamp DESC) USING HASH
+    STORING (type, value);
+
+-- Clave de idempotencia (sensorId + readingId del cliente, o sensorId + timestamp): los reintentos
+-- de sensores y gateways se descartan con INSERT ... ON CONFLICT (reading_key) DO NOTHING.
+-- Es nula en las lecturas anteriores, que el índice único no compara entre sí.
+ALTER TABLE sensor_readings ADD COLUMN IF NOT EXISTS reading_key VARCHAR(160);
+
+-- La clave sin readingId termina en el timestamp: como en idx_sensor_readings_sensor_ts, USING HASH
+-- evita que las inserciones de cada sensor se acumulen al final de un solo rango del índice.
+CREATE UNIQUE INDEX IF NOT EXISTS uq_sensor_readings_reading_key_hash
+    ON sensor_readings (reading_key) USING HASH;
+
+-- Índice único sin hash de las versiones anteriores; el de arriba ya garantiza la unicidad
+DROP INDEX IF EXISTS sensor_readings@uq_sensor_readings_reading_key;
+
+-- Agregados por sensor y ventana de tiempo (minuto, hora, día), mantenidos de forma incremental
+-- por RollupAggregator con upserts periódicos. bucket_start es el inicio de la ventana en UTC.
+CREATE TABLE IF NOT EXISTS sensor_reading_rollups (
+    sensor_id VARCHAR(50) NOT NULL,
+    resolution VARCHAR(10) NOT NULL,
+    bucket_start TIMESTAMPTZ NOT NULL,
+    min_value DECIMAL(10,2) NOT NULL,
+    max_value DECIMAL(10,2) NOT NULL,
+    sum_value DECIMAL(20,2) NOT NULL,
+    count INT8 NOT NULL,
+    last_value DECIMAL(10,2) NOT NULL,
+    last_timestamp TIMESTAMPTZ NOT NULL,
+    CONSTRAINT sensor_reading_rollups_pkey PRIMARY KEY (sensor_id, resolution, bucket_start)
+);
@@ -0,0 +1,67 @@
+package ec.edu.espe.SensorDataCollector.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AimdLimitTest {
+
+	private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+
+	@Test
+	void rejectsBeyondLimitAndAdmitsAfterRelease() {
+		AimdLimit limit = new AimdLimit(2, 1, 10, 0.5, 100);
+		assertTrue(limit.tryAcquire());
+		assertTrue(limit.tryAcquire());
+		assertFalse(limit.tryAcquire());
+		limit.release(FAST, false);
+		assertTrue(limit.tryAcquire());
+	}
+
+	@Test
+	void growsAdditivelyWhileFastAndUsed() {
+		AimdLimit limit = new AimdLimit(4, 1, 10, 0.5, 100);
+		for (int round = 0; round < 20; round++) {
+			for (int i = 0; i < limit.getLimit(); i++) {
+				limit.tryAcquire();
+			}
+			while (limit.getInFlight() > 0) {
+				limit.release(FAST, false);
+			}
+		}
+		assertEquals(10, limit.getLimit());
+	}
+
+	@Test
+	void backsOffOncePerSlowRoundAndNotBelowMinimum() {
+		AimdLimit limit = new AimdLimit(100, 10, 1000, 0.5, 100);
+		for (int i = 0; i < 50; i++) {
+			limit.tryAcquire();
+		}
+		for (int i = 0; i < 50; i++) {
+			limit.release(TimeUnit.SECONDS.toNanos(1), false);
+		}
+		// Toda la ráfaga lenta llegó dentro de la misma latencia observada: una sola reducción
+		assertEquals(50, limit.getLimit());
+
+		AimdLimit failing = new AimdLimit(20, 10, 1000, 0.1, 0);
+		failing.tryAcquire();
+		failing.release(-1, true);
+		assertEquals(10, failing.getLimit());
+	}
+
+	@Test
+	void retryAfterFollowsBacklogAndLatency() {
+		AimdLimit limit = new AimdLimit(2, 1, 10, 0.5, 10_000);
+		limit.tryAcquire();
+		limit.release(TimeUnit.SECONDS.toNanos(3), false);
+		limit.tryAcquire();
+		limit.tryAcquire();
+		assertEquals(3, limit.retryAfterSeconds(30));
+		assertEquals(2, limit.retryAfterSeconds(2));
+	}
+}
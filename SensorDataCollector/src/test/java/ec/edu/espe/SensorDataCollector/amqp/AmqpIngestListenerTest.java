@@ -0,0 +1,56 @@
+package ec.edu.espe.SensorDataCollector.amqp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ec.edu.espe.SensorDataCollector.dto.BatchIngestResponse;
+import ec.edu.espe.SensorDataCollector.service.SensorDataService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AmqpIngestListenerTest {
+
+	private static Message text(String body) {
+		MessageProperties properties = new MessageProperties();
+		properties.setContentType(MessageProperties.CONTENT_TYPE_TEXT_PLAIN);
+		return new Message(body.getBytes(StandardCharsets.UTF_8), properties);
+	}
+
+	@Test
+	void failedChunkIsRetriedAloneAndThenDeadLettered() {
+		SensorDataService service = mock(SensorDataService.class);
+		BatchIngestResponse ok = new BatchIngestResponse(1, 1, 0, 0, 0, List.of());
+		// Primer tramo: se guarda. Segundo tramo: falla en todos sus intentos
+		when(service.processBatch(anyList()))
+				.thenReturn(ok)
+				.thenThrow(new IllegalStateException("base de datos caída"));
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		AmqpIngestListener listener = new AmqpIngestListener(service, new ObjectMapper(), registry);
+		ReflectionTestUtils.setField(listener, "maxBatchSize", 1);
+		ReflectionTestUtils.setField(listener, "maxAttempts", 3);
+		ReflectionTestUtils.setField(listener, "retryBackoffMs", 0L);
+
+		List<Message> batch = List.of(
+				text("S-001,temperature,23.4,1751371200000"),
+				text("S-002,humidity,40,1751371200000"));
+		assertThrows(AmqpRejectAndDontRequeueException.class, () -> listener.onReadings(batch));
+
+		// 1 vez el tramo guardado + 3 intentos del que falla; ninguno repite el primero
+		verify(service, times(4)).processBatch(anyList());
+		assertEquals(2.0, registry.get("sensor.ingest.amqp.readings").counter().count());
+		assertEquals(1.0, registry.get("sensor.ingest.amqp.failed").counter().count());
+	}
+}
@@ -0,0 +1,51 @@
+package ec.edu.espe.SensorDataCollector.amqp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import ec.edu.espe.SensorDataCollector.dto.SensorReadingRequest;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReadingMessageParserTest {
+
+	private final ReadingMessageParser parser = new ReadingMessageParser(new ObjectMapper().registerModule(new JavaTimeModule()));
+
+	private static byte[] bytes(String text) {
+		return text.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Test
+	void parsesSingleJsonReadingAndArrays() {
+		List<SensorReadingRequest> out = new ArrayList<>();
+
+		int malformed = parser.parse(bytes("{\"sensorId\":\"S-001\",\"type\":\"temperature\",\"value\":23.45,"
+				+ "\"timestamp\":\"2025-07-01T12:00:00Z\"}"), "application/json", out);
+		malformed += parser.parse(bytes(" [{\"sensorId\":\"S-002\",\"type\":\"humidity\",\"value\":40,"
+				+ "\"timestamp\":\"2025-07-01T12:00:00Z\",\"readingId\":\"r-1\"},"
+				+ "{\"sensorId\":\"S-003\",\"type\":\"humidity\",\"value\":41.5,\"timestamp\":\"2025-07-01T12:00:01Z\"}]"),
+				null, out);
+
+		assertEquals(0, malformed);
+		assertEquals(3, out.size());
+		assertEquals(2345L, out.get(0).getValue());
+		assertEquals("r-1", out.get(1).getReadingId());
+		assertEquals(4150L, out.get(2).getValue());
+	}
+
+	@Test
+	void parsesCompactLinesAndCountsMalformedInput() {
+		List<SensorReadingRequest> out = new ArrayList<>();
+
+		int malformed = parser.parse(bytes("S-001,temperature,23.45,1751371200000\nS-002,humidity\n"), "text/plain", out);
+		malformed += parser.parse(bytes("{\"sensorId\":"), "application/json", out);
+
+		assertEquals(2, malformed);
+		assertEquals(1, out.size());
+		assertEquals("S-001", out.get(0).getSensorId());
+	}
+}
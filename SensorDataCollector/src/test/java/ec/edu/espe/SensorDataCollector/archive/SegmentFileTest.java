@@ -0,0 +1,105 @@
+package ec.edu.espe.SensorDataCollector.archive;
+
+import ec.edu.espe.SensorDataCollector.model.EpochMicros;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SegmentFileTest {
+
+	private static final long DAY_START = 1_751_328_000_000_000L; // 2025-07-01T00:00:00Z en microsegundos
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void roundTripsSeveralBlocksAndFiltersByRange() throws Exception {
+		SegmentWriter writer = new SegmentWriter();
+		List<String> expected = new ArrayList<>();
+		for (int i = 0; i < 3000; i++) {
+			String type = i % 3 == 0 ? "humidity" : "temperature";
+			long timestamp = DAY_START + i * 10_000_000L + (i % 7) * 1_000;
+			long value = i % 5 == 0 ? -12_345 : 2_300 + i % 11;
+			writer.add(type, timestamp, value);
+			expected.add(type + "," + timestamp + "," + value);
+		}
+		Path target = dir.resolve("2025-07-01.seg");
+		writer.writeTo(target);
+
+		SegmentFile segment = SegmentFile.open(target);
+		List<String> all = new ArrayList<>();
+		segment.forEach(Long.MIN_VALUE, Long.MAX_VALUE, (type, timestamp, value) -> all.add(type + "," + timestamp + "," + value));
+		assertEquals(expected, all);
+
+		// Rango que empieza en el segundo bloque y termina en el tercero
+		long from = DAY_START + 1500 * 10_000_000L;
+		long to = DAY_START + 2100 * 10_000_000L;
+		List<String> range = new ArrayList<>();
+		segment.forEach(from, to, (type, timestamp, value) -> range.add(type + "," + timestamp + "," + value));
+		assertEquals(expected.subList(1500, 2100), range);
+
+		// Frente a 8 + 8 bytes por punto sin comprimir, aun con jitter y saltos de valor
+		assertTrue(Files.size(target) < 3000 * 6, "tamaño: " + Files.size(target));
+		assertFalse(Files.exists(dir.resolve("2025-07-01.seg.tmp")));
+	}
+
+	@Test
+	void archiveCursorInterleavesSegmentsOfTheSameDay() throws Exception {
+		SegmentWriter first = new SegmentWriter();
+		SegmentWriter second = new SegmentWriter();
+		for (int i = 0; i < 10; i++) {
+			(i % 2 == 0 ? first : second).add("temperature", DAY_START + i * 10_000_000L, i);
+		}
+		first.writeTo(dir.resolve("2025-07-01.seg"));
+		second.writeTo(dir.resolve("2025-07-01.1.seg"));
+
+		ArchiveCursor cursor = new ArchiveCursor(List.of(
+				SegmentFile.open(dir.resolve("2025-07-01.1.seg")).cursor(Long.MIN_VALUE, Long.MAX_VALUE),
+				SegmentFile.open(dir.resolve("2025-07-01.seg")).cursor(Long.MIN_VALUE, Long.MAX_VALUE)));
+		List<Long> values = new ArrayList<>();
+		for (; cursor.hasPoint(); cursor.advance()) {
+			values.add(cursor.getValue());
+		}
+		assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L), values);
+	}
+
+	@Test
+	void purgeRemovesExpiredTypesFromArchivedSegments() throws Exception {
+		ArchiveProperties properties = new ArchiveProperties();
+		properties.setEnabled(true);
+		properties.setDirectory(dir.toString());
+		ReadingArchive archive = new ReadingArchive(properties, new SimpleMeterRegistry());
+		OffsetDateTime day = EpochMicros.toOffsetDateTime(DAY_START);
+
+		SegmentWriter mixed = new SegmentWriter();
+		for (int i = 0; i < 10; i++) {
+			mixed.add(i % 2 == 0 ? "Temperature" : "co2", DAY_START + i * 10_000_000L, i);
+		}
+		mixed.writeTo(archive.newSegmentPath("S-001", day.toLocalDate()));
+		SegmentWriter onlyExpired = new SegmentWriter();
+		onlyExpired.add("temperature", DAY_START, 42);
+		Path expiredSegment = archive.newSegmentPath("S-002", day.toLocalDate());
+		onlyExpired.writeTo(expiredSegment);
+		assertEquals(day.plusDays(1), archive.findArchivedUntil("S-001", null, null));
+
+		// temperature vence después del día archivado; co2 (sin TTL ni default) se conserva
+		OffsetDateTime cutoff = day.plusDays(2);
+		long removed = archive.purgeExpired(cutoff, Map.of("temperature", cutoff), null);
+
+		assertEquals(6, removed);
+		assertFalse(Files.exists(expiredSegment));
+		List<Long> values = archive.find("S-001", day, null).stream().map(point -> point.getValue()).toList();
+		assertEquals(List.of(1L, 3L, 5L, 7L, 9L), values);
+	}
+}
@@ -0,0 +1,65 @@
+package ec.edu.espe.SensorDataCollector.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ImportReadersTest {
+
+	private static List<ImportRow> readAll(Iterator<ImportRow> rows) {
+		List<ImportRow> list = new ArrayList<>();
+		rows.forEachRemaining(list::add);
+		return list;
+	}
+
+	private static ByteArrayInputStream body(String text) {
+		return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void readsCsvSkippingHeaderAcrossBufferBoundaries() {
+		StringBuilder csv = new StringBuilder("sensorId,type,value,timestamp,readingId\n");
+		for (int i = 0; i < 5000; i++) {
+			csv.append("S-").append(i).append(",temperature,21.5,").append(1751371200000L + i).append('\n');
+		}
+		csv.append("S-x,temperature,no-es-numero,1751371200000");
+
+		List<ImportRow> rows = readAll(ImportReaders.csv(body(csv.toString())));
+
+		assertEquals(5001, rows.size());
+		assertEquals("S-4999", rows.get(4999).request().getSensorId());
+		assertEquals(2150L, rows.get(4999).request().getValue());
+		assertEquals(5001, rows.get(5000).record());
+		assertNotNull(rows.get(5000).error());
+	}
+
+	@Test
+	void readsNdjsonReportingInvalidLines() {
+		ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+		String ndjson = """
+				{"sensorId":"S-1","type":"humidity","value":45.25,"timestamp":"2025-07-01T12:00:00Z","readingId":"r-1"}
+
+				{"sensorId":"S-2",
+				{"sensorId":"S-3","type":"humidity","value":40,"timestamp":"2025-07-01T12:00:01Z"}
+				""";
+
+		List<ImportRow> rows = readAll(ImportReaders.ndjson(body(ndjson), mapper.reader()));
+
+		assertEquals(3, rows.size());
+		assertEquals(4525L, rows.get(0).request().getValue());
+		assertEquals("r-1", rows.get(0).request().getReadingId());
+		assertNull(rows.get(1).request());
+		assertEquals(3, rows.get(2).record());
+		assertEquals("S-3", rows.get(2).request().getSensorId());
+	}
+}
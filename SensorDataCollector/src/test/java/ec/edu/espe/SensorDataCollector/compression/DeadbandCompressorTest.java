@@ -0,0 +1,105 @@
+package ec.edu.espe.SensorDataCollector.compression;
+
+import ec.edu.espe.SensorDataCollector.model.SensorReading;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static ec.edu.espe.SensorDataCollector.compression.DeadbandCompressor.Decision.PUBLISH_ONLY;
+import static ec.edu.espe.SensorDataCollector.compression.DeadbandCompressor.Decision.REPEATED;
+import static ec.edu.espe.SensorDataCollector.compression.DeadbandCompressor.Decision.STORE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DeadbandCompressorTest {
+
+	private static final OffsetDateTime T0 = OffsetDateTime.of(2025, 7, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+	private static DeadbandCompressor compressor() {
+		CompressionProperties properties = new CompressionProperties();
+		properties.setMaxInterval(Duration.ofMinutes(5));
+		properties.getDeadband().put("temperature", new BigDecimal("0.5"));
+		properties.getDeadband().put("humidity", new BigDecimal("2"));
+		return new DeadbandCompressor(properties, new SimpleMeterRegistry());
+	}
+
+	// Decide y confirma la lectura guardada o solo publicada como lo haría el commit
+	private static DeadbandCompressor.Decision offer(DeadbandCompressor compressor, String type, long value,
+													 OffsetDateTime timestamp) {
+		DeadbandCompressor.Decision decision = compressor.decide("s1", type, value, timestamp);
+		if (decision == STORE) {
+			compressor.onReadingsAccepted(List.of(reading(type, value, timestamp)));
+		} else if (decision == PUBLISH_ONLY) {
+			compressor.onReadingsPublished(List.of(reading(type, value, timestamp)));
+		}
+		return decision;
+	}
+
+	private static SensorReading reading(String type, long value, OffsetDateTime timestamp) {
+		SensorReading reading = new SensorReading();
+		reading.setSensorId("s1");
+		reading.setType(type);
+		reading.setValue(value);
+		reading.setTimestamp(timestamp);
+		return reading;
+	}
+
+	@Test
+	void storesOnlyWhenLeavingTheBandAgainstLastStoredValue() {
+		DeadbandCompressor compressor = compressor();
+		assertEquals(STORE, offer(compressor, "temperature", 2000, T0));
+		assertEquals(PUBLISH_ONLY, offer(compressor, "Temperature", 2030, T0.plusSeconds(5)));
+		assertEquals(PUBLISH_ONLY, offer(compressor, "temperature", 2050, T0.plusSeconds(10)));
+		// La deriva lenta se mide contra el último valor guardado, no contra el anterior
+		assertEquals(STORE, offer(compressor, "temperature", 2051, T0.plusSeconds(15)));
+		assertEquals(PUBLISH_ONLY, offer(compressor, "temperature", 2010, T0.plusSeconds(20)));
+		assertEquals(STORE, offer(compressor, "pressure", 5000, T0.plusSeconds(20)));
+	}
+
+	@Test
+	void storesHeartbeatRetriesAndOutOfOrderReadings() {
+		DeadbandCompressor compressor = compressor();
+		assertEquals(STORE, offer(compressor, "temperature", 2000, T0));
+		assertEquals(PUBLISH_ONLY, offer(compressor, "temperature", 2000, T0.plusSeconds(30)));
+		assertEquals(PUBLISH_ONLY, offer(compressor, "temperature", 2010, T0.plusSeconds(40)));
+		// Reintento tardío de una lectura solo publicada, aunque no sea la última
+		assertEquals(REPEATED, offer(compressor, "temperature", 2000, T0.plusSeconds(30)));
+		assertEquals(STORE, offer(compressor, "temperature", 2000, T0));
+		assertEquals(STORE, offer(compressor, "temperature", 2000, T0.plusMinutes(5)));
+	}
+
+	@Test
+	void referenceMovesOnlyWithCommittedReadings() {
+		DeadbandCompressor compressor = compressor();
+		assertEquals(STORE, offer(compressor, "temperature", 2000, T0));
+		// Decidida STORE pero sin confirmar (INSERT fallido o rollback): la referencia sigue en 2000
+		assertEquals(STORE, compressor.decide("s1", "temperature", 2100, T0.plusSeconds(5)));
+		assertEquals(STORE, compressor.decide("s1", "temperature", 2090, T0.plusSeconds(10)));
+		assertEquals(PUBLISH_ONLY, compressor.decide("s1", "temperature", 2010, T0.plusSeconds(15)));
+	}
+
+	@Test
+	void publishedReadingIsRepeatedOnlyAfterItsEventWentOut() {
+		DeadbandCompressor compressor = compressor();
+		assertEquals(STORE, offer(compressor, "temperature", 2000, T0));
+		// Decidida PUBLISH_ONLY pero el lote hizo rollback: el reintento se publica otra vez
+		assertEquals(PUBLISH_ONLY, compressor.decide("s1", "temperature", 2010, T0.plusSeconds(5)));
+		assertEquals(PUBLISH_ONLY, offer(compressor, "temperature", 2010, T0.plusSeconds(5)));
+		assertEquals(REPEATED, compressor.decide("s1", "temperature", 2010, T0.plusSeconds(5)));
+	}
+
+	@Test
+	void eachTypeOfASensorHasItsOwnReference() {
+		DeadbandCompressor compressor = compressor();
+		assertEquals(STORE, offer(compressor, "temperature", 2000, T0));
+		assertEquals(STORE, offer(compressor, "humidity", 6000, T0.plusSeconds(1)));
+		// Cada tipo se compara con su último valor guardado, no con el de otro tipo del mismo sensor
+		assertEquals(PUBLISH_ONLY, offer(compressor, "temperature", 2020, T0.plusSeconds(5)));
+		assertEquals(PUBLISH_ONLY, offer(compressor, "humidity", 6100, T0.plusSeconds(6)));
+		assertEquals(STORE, offer(compressor, "HUMIDITY", 6300, T0.plusSeconds(7)));
+	}
+}
@@ -0,0 +1,60 @@
+package ec.edu.espe.SensorDataCollector.dedupe;
+
+import ec.edu.espe.SensorDataCollector.model.ReadingKeys;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RotatingBloomFilterTest {
+
+	@Test
+	void remembersKeysAndKeepsFalsePositivesNearTarget() {
+		RotatingBloomFilter filter = new RotatingBloomFilter(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filter.put("sensor-" + i);
+		}
+		for (int i = 0; i < 10_000; i++) {
+			assertTrue(filter.mightContain("sensor-" + i));
+		}
+		int falsePositives = 0;
+		for (int i = 0; i < 100_000; i++) {
+			if (filter.mightContain("other-" + i)) {
+				falsePositives++;
+			}
+		}
+		// Dos generaciones consultadas: hasta ~2 veces la tasa objetivo, con margen
+		assertTrue(falsePositives < 3_000, "falsos positivos: " + falsePositives);
+	}
+
+	@Test
+	void forgetsKeysAfterTwoRotations() {
+		RotatingBloomFilter filter = new RotatingBloomFilter(100, 0.001);
+		filter.put("old");
+		for (int i = 0; i < 99; i++) {
+			filter.put("first-" + i);
+		}
+		assertEquals(0, filter.getCurrentInsertions());
+		assertTrue(filter.mightContain("old"));
+
+		for (int i = 0; i < 100; i++) {
+			filter.put("second-" + i);
+		}
+		assertFalse(filter.mightContain("old"));
+		assertTrue(filter.mightContain("second-0"));
+	}
+
+	@Test
+	void readingKeysDistinguishClientIdFromTimestamp() {
+		OffsetDateTime ts = OffsetDateTime.of(2025, 7, 1, 12, 0, 0, 123_456_789, ZoneOffset.UTC);
+		assertEquals("2:s1@1751371200123456", ReadingKeys.of("s1", null, ts));
+		assertEquals(ReadingKeys.of("s1", null, ts), ReadingKeys.of("s1", " ", ts.withOffsetSameInstant(ZoneOffset.ofHours(-5))));
+		assertEquals("2:s1#r-9", ReadingKeys.of("s1", "r-9", ts));
+		assertNotEquals(ReadingKeys.of("a#b", "c", ts), ReadingKeys.of("a", "b#c", ts));
+	}
+}
@@ -0,0 +1,49 @@
+package ec.edu.espe.SensorDataCollector.live;
+
+import ec.edu.espe.SensorDataCollector.model.SensorReading;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConflatingBufferTest {
+
+	@Test
+	void keepsEveryReadingWhileThereIsRoom() {
+		ConflatingBuffer buffer = new ConflatingBuffer(3);
+		assertEquals(ConflatingBuffer.Offer.ADDED, buffer.offer(reading("s1", "temperature", 1)));
+		assertEquals(ConflatingBuffer.Offer.ADDED, buffer.offer(reading("s1", "temperature", 2)));
+
+		assertEquals(List.of(1L, 2L), values(buffer.drain()));
+		assertTrue(buffer.isEmpty());
+	}
+
+	@Test
+	void conflatesSameSeriesWhenFullOtherwiseDropsOldest() {
+		ConflatingBuffer buffer = new ConflatingBuffer(3);
+		buffer.offer(reading("s1", "temperature", 1));
+		buffer.offer(reading("s1", "humidity", 2));
+		buffer.offer(reading("s2", "temperature", 3));
+
+		// Reemplaza la pendiente de s1/humidity en su lugar
+		assertEquals(ConflatingBuffer.Offer.CONFLATED, buffer.offer(reading("s1", "humidity", 4)));
+		// Sin pendiente de s3: sale la más antigua
+		assertEquals(ConflatingBuffer.Offer.DROPPED_OLDEST, buffer.offer(reading("s3", "temperature", 5)));
+
+		assertEquals(List.of(4L, 3L, 5L), values(buffer.drain()));
+	}
+
+	private static SensorReading reading(String sensorId, String type, long value) {
+		SensorReading reading = new SensorReading();
+		reading.setSensorId(sensorId);
+		reading.setType(type);
+		reading.setValue(value);
+		return reading;
+	}
+
+	private static List<Long> values(List<SensorReading> readings) {
+		return readings.stream().map(SensorReading::getValue).toList();
+	}
+}
@@ -0,0 +1,89 @@
+package ec.edu.espe.SensorDataCollector.nio;
+
+import ec.edu.espe.SensorDataCollector.dto.BatchIngestResponse;
+import ec.edu.espe.SensorDataCollector.dto.BatchItemResult;
+import ec.edu.espe.SensorDataCollector.dto.SensorReadingRequest;
+import ec.edu.espe.SensorDataCollector.service.SensorDataService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NioIngestListenerTest {
+
+	private NioIngestListener listener;
+	private int port;
+
+	@BeforeEach
+	void start() throws Exception {
+		SensorDataService service = mock(SensorDataService.class);
+		when(service.processBatch(anyList())).thenAnswer(invocation -> {
+			List<SensorReadingRequest> requests = invocation.getArgument(0);
+			Thread.sleep(50); // La respuesta llega después del half-close del cliente
+			List<BatchItemResult> results = new ArrayList<>();
+			for (int i = 0; i < requests.size(); i++) {
+				results.add(BatchItemResult.created(i, UUID.randomUUID()));
+			}
+			return new BatchIngestResponse(requests.size(), requests.size(), 0, 0, 0, results);
+		});
+		try (ServerSocket probe = new ServerSocket(0)) {
+			port = probe.getLocalPort();
+		}
+		listener = new NioIngestListener(service, new SimpleMeterRegistry(), 1, 4);
+		ReflectionTestUtils.setField(listener, "bindAddress", "127.0.0.1");
+		ReflectionTestUtils.setField(listener, "tcpPort", port);
+		ReflectionTestUtils.setField(listener, "udpPort", 0);
+		ReflectionTestUtils.setField(listener, "bufferSize", 8192);
+		ReflectionTestUtils.setField(listener, "maxConnections", 10);
+		ReflectionTestUtils.setField(listener, "maxBatchSize", 1000);
+		listener.start();
+	}
+
+	@AfterEach
+	void stop() throws Exception {
+		listener.stop();
+	}
+
+	@Test
+	void halfCloseStillDeliversEveryReplyAndParsesTheLastLine() throws Exception {
+		try (Socket socket = new Socket("127.0.0.1", port)) {
+			socket.setSoTimeout(5000);
+			OutputStream output = socket.getOutputStream();
+			// La última línea no termina en salto de línea
+			output.write(("S-001,temperature,23.4,1751371200000\n"
+					+ "no es una lectura\n"
+					+ "S-002,humidity,40,1751371200000").getBytes(StandardCharsets.UTF_8));
+			output.flush();
+			socket.shutdownOutput();
+
+			BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+			List<String> replies = new ArrayList<>();
+			String line;
+			while ((line = reader.readLine()) != null) {
+				replies.add(line);
+			}
+
+			assertEquals(3, replies.size(), "respuestas: " + replies);
+			assertTrue(replies.get(0).startsWith("OK "), replies.get(0));
+			assertTrue(replies.get(1).startsWith("ERR "), replies.get(1));
+			assertTrue(replies.get(2).startsWith("OK "), replies.get(2));
+		}
+	}
+}
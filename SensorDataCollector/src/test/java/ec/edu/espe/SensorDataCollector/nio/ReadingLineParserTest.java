@@ -0,0 +1,59 @@
+package ec.edu.espe.SensorDataCollector.nio;
+
+import ec.edu.espe.SensorDataCollector.dto.SensorReadingRequest;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ReadingLineParserTest {
+
+	private static ByteBuffer direct(String text) {
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+		buffer.put(bytes).flip();
+		return buffer;
+	}
+
+	@Test
+	void parsesCompleteLinesAndKeepsPartialTail() {
+		ReadingLineParser parser = new ReadingLineParser();
+		ByteBuffer buffer = direct("S-001,temperature,23.456,1751371200000\r\n\nS-002,humidity,40,2025-07-01T12:00:00Z,r-7\nS-003,te");
+		List<ReadingLineParser.Line> lines = new ArrayList<>();
+
+		parser.parseLines(buffer, false, lines);
+
+		assertEquals(2, lines.size());
+		SensorReadingRequest first = lines.get(0).request();
+		assertEquals("S-001", first.getSensorId());
+		assertEquals("temperature", first.getType());
+		assertEquals(2346L, first.getValue());
+		assertEquals(OffsetDateTime.parse("2025-07-01T12:00:00Z").toInstant(), first.getTimestamp().toInstant());
+		assertNull(first.getReadingId());
+		assertEquals("r-7", lines.get(1).request().getReadingId());
+		assertEquals(4000L, lines.get(1).request().getValue());
+		assertEquals("S-003,te", StandardCharsets.UTF_8.decode(buffer).toString());
+	}
+
+	@Test
+	void reportsMalformedLinesWithoutStopping() {
+		ReadingLineParser parser = new ReadingLineParser();
+		List<ReadingLineParser.Line> lines = new ArrayList<>();
+
+		parser.parseLines(direct("S-001,temperature\nS-001,temperature,abc,1\nS-001,temperature,1,ayer\nS-004,seismic,2.5,1"),
+				true, lines);
+
+		assertEquals(4, lines.size());
+		assertNotNull(lines.get(0).error());
+		assertNotNull(lines.get(1).error());
+		assertEquals("Timestamp inválido: ayer", lines.get(2).error());
+		assertEquals(250L, lines.get(3).request().getValue());
+	}
+}
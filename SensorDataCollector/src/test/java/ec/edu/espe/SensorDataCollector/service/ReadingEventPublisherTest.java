@@ -0,0 +1,90 @@
+package ec.edu.espe.SensorDataCollector.service;
+
+import ec.edu.espe.EnvironmentalEvents.dto.NewSensorReadingEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReadingEventPublisherTest {
+
+	private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+	private final RabbitOperations operations = mock(RabbitOperations.class);
+	private final List<CorrelationData> sent = new ArrayList<>();
+
+	private ReadingEventPublisher newPublisher(int maxInFlight) {
+		when(rabbitTemplate.invoke(any())).thenAnswer(invocation ->
+				invocation.<RabbitOperations.OperationsCallback<?>>getArgument(0).doInRabbit(operations));
+		doAnswer(invocation -> sent.add(invocation.getArgument(3)))
+				.when(operations).convertAndSend(anyString(), eq(""), any(Object.class), any(CorrelationData.class));
+		ReadingEventPublisher publisher = new ReadingEventPublisher(rabbitTemplate, new SimpleMeterRegistry(), maxInFlight);
+		ReflectionTestUtils.setField(publisher, "exchangeName", "environmental.events.exchange");
+		ReflectionTestUtils.setField(publisher, "acquireTimeoutMs", 0L);
+		ReflectionTestUtils.setField(publisher, "confirmTimeoutMs", 5000L);
+		return publisher;
+	}
+
+	private static NewSensorReadingEvent event(String id) {
+		return new NewSensorReadingEvent(id, "sensor-001", "temperature", 2555, OffsetDateTime.now());
+	}
+
+	@Test
+	void completesEachFutureWithItsOwnConfirm() {
+		ReadingEventPublisher publisher = newPublisher(10);
+		List<CompletableFuture<Void>> confirms = publisher.publishAll(List.of(event("e1"), event("e2")));
+
+		assertEquals(2, sent.size());
+		assertFalse(confirms.get(0).isDone());
+		sent.get(1).getFuture().complete(new CorrelationData.Confirm(false, "rechazado"));
+		sent.get(0).getFuture().complete(new CorrelationData.Confirm(true, null));
+
+		assertTrue(confirms.get(0).isDone() && !confirms.get(0).isCompletedExceptionally());
+		assertTrue(confirms.get(1).isCompletedExceptionally());
+	}
+
+	@Test
+	void boundsInFlightPublishesAndReleasesOnConfirm() {
+		ReadingEventPublisher publisher = newPublisher(1);
+		CompletableFuture<Void> first = publisher.publish(event("e1"));
+		assertTrue(publisher.publish(event("e2")).isCompletedExceptionally());
+
+		sent.get(0).getFuture().complete(new CorrelationData.Confirm(true, null));
+		assertTrue(first.isDone());
+		assertFalse(publisher.publish(event("e3")).isCompletedExceptionally());
+	}
+
+	@Test
+	void overflowOfABatchFailsAtOnceInsteadOfWaitingPerEvent() {
+		ReadingEventPublisher publisher = newPublisher(2);
+		ReflectionTestUtils.setField(publisher, "acquireTimeoutMs", 200L);
+		List<CompletableFuture<Void>> first = publisher.publishAll(List.of(event("e1"), event("e2"), event("e3")));
+		assertEquals(2, sent.size());
+		assertTrue(first.get(2).isCompletedExceptionally());
+
+		// Ventana llena: una sola espera por lote, no una por evento (antes, 5 x 200 ms)
+		long start = System.nanoTime();
+		List<CompletableFuture<Void>> second = publisher.publishAll(
+				List.of(event("e4"), event("e5"), event("e6"), event("e7"), event("e8")));
+		long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+		assertTrue(second.stream().allMatch(CompletableFuture::isCompletedExceptionally));
+		assertTrue(elapsedMs < 600, "espera: " + elapsedMs + " ms");
+		assertEquals(2, sent.size());
+	}
+}
@@ -0,0 +1,73 @@
+package ec.edu.espe.SensorDataCollector.timeseries;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GorillaBlockTest {
+
+	private static long[][] decode(GorillaBlock block) {
+		List<long[]> points = new ArrayList<>();
+		block.forEach((timestamp, value) -> points.add(new long[] {timestamp, value}));
+		return points.toArray(new long[0][]);
+	}
+
+	@Test
+	void roundTripsIrregularTimestampsAndValues() {
+		Random random = new Random(42);
+		GorillaBlock block = new GorillaBlock();
+		long[][] expected = new long[5000][];
+		long timestamp = 1_751_371_200_000_000L;
+		long value = 2345;
+		for (int i = 0; i < expected.length; i++) {
+			// Intervalos regulares con jitter, huecos largos ocasionales y valores que a veces se repiten
+			timestamp += switch (i % 50) {
+				case 7 -> 3_600_000_000L;
+				case 13 -> 1;
+				default -> 10_000_000L + random.nextInt(2_000) - 1_000;
+			};
+			value = switch (i % 10) {
+				case 3 -> value;
+				case 8 -> random.nextLong();
+				default -> value + random.nextInt(21) - 10;
+			};
+			expected[i] = new long[] {timestamp, value};
+			assertTrue(block.append(timestamp, value));
+		}
+		block.seal();
+
+		assertArrayEquals(expected, decode(block));
+		assertEquals(expected.length, block.getCount());
+		assertEquals(expected[expected.length - 1][0], block.getLastTimestamp());
+	}
+
+	@Test
+	void regularSeriesUseAFewBitsPerPoint() {
+		GorillaBlock block = new GorillaBlock();
+		for (int i = 0; i < 720; i++) {
+			block.append(1_751_371_200_000_000L + i * 10_000_000L, i % 4 == 0 ? -1250 : -1240);
+		}
+		block.seal();
+
+		// 16 bytes de encabezado; el resto, pocos bits por punto frente a una entidad JPA por lectura
+		assertTrue(block.getSizeBytes() < 16 + 720, "tamaño: " + block.getSizeBytes());
+		assertEquals(-1240, decode(block)[719][1]);
+	}
+
+	@Test
+	void acceptsRepeatedTimestampsButNotOlderOnes() {
+		GorillaBlock block = new GorillaBlock();
+		assertTrue(block.append(100, 1));
+
+		assertTrue(block.append(100, 2));
+		assertFalse(block.append(99, 3));
+		assertArrayEquals(new long[][] {{100, 1}, {100, 2}}, decode(block));
+	}
+}
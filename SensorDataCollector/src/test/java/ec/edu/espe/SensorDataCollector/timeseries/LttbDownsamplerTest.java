@@ -0,0 +1,68 @@
+package ec.edu.espe.SensorDataCollector.timeseries;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LttbDownsamplerTest {
+
+	private static final long START = 1_751_328_000_000_000L; // 2025-07-01T00:00:00Z en microsegundos
+	private static final long STEP = 10_000_000L;
+
+	@Test
+	void keepsEndpointsAndSpikesWithinMaxPoints() {
+		List<long[]> selected = new ArrayList<>();
+		int count = 100_000;
+		LttbDownsampler downsampler = new LttbDownsampler(START, START + count * STEP, 1000,
+				(timestamp, value) -> selected.add(new long[]{timestamp, value}));
+		for (int i = 0; i < count; i++) {
+			long value = i == 54_321 ? 9_999 : 2_000 + i % 50;
+			downsampler.add(START + i * STEP, value);
+		}
+		downsampler.finish();
+
+		assertTrue(selected.size() <= 1000, "puntos: " + selected.size());
+		assertTrue(selected.size() > 900, "puntos: " + selected.size());
+		assertEquals(START, selected.get(0)[0]);
+		assertEquals(START + (count - 1) * STEP, selected.get(selected.size() - 1)[0]);
+		assertTrue(selected.stream().anyMatch(point -> point[1] == 9_999));
+		for (int i = 1; i < selected.size(); i++) {
+			assertTrue(selected.get(i)[0] > selected.get(i - 1)[0]);
+		}
+	}
+
+	@Test
+	void sparseSeriesIsReturnedUnchanged() {
+		List<long[]> selected = new ArrayList<>();
+		LttbDownsampler downsampler = new LttbDownsampler(START, START + 1000 * STEP, 100,
+				(timestamp, value) -> selected.add(new long[]{timestamp, value}));
+		for (int i = 0; i < 20; i++) {
+			downsampler.add(START + i * 50 * STEP, i);
+		}
+		downsampler.finish();
+
+		assertEquals(20, selected.size());
+		for (int i = 0; i < 20; i++) {
+			assertEquals(i, selected.get(i)[1]);
+		}
+	}
+
+	@Test
+	void pointsAfterToStayWithinMaxPoints() {
+		List<long[]> selected = new ArrayList<>();
+		LttbDownsampler downsampler = new LttbDownsampler(START, START + 1000 * STEP, 10,
+				(timestamp, value) -> selected.add(new long[]{timestamp, value}));
+		// 1000 puntos en el rango y 500 más allá de to (relojes adelantados con to = ahora)
+		for (int i = 0; i < 1500; i++) {
+			downsampler.add(START + i * STEP, i % 7);
+		}
+		downsampler.finish();
+
+		assertTrue(selected.size() <= 10, "puntos: " + selected.size());
+		assertEquals(START + 1499 * STEP, selected.get(selected.size() - 1)[0]);
+	}
+}
@@ -0,0 +1,32 @@
+package ec.edu.espe.SensorDataCollector.timeseries;
+
+import ec.edu.espe.SensorDataCollector.dto.ReadingPoint;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SeriesDownsamplerTest {
+
+	private static final long START = 1_751_328_000_000_000L; // 2025-07-01T00:00:00Z en microsegundos
+	private static final long STEP = 10_000_000L;
+
+	@Test
+	void skipsExactDuplicatesEvenWhenNotConsecutive() {
+		SeriesDownsampler downsampler = new SeriesDownsampler(START, START + 10 * STEP, 100);
+		// Archivo: dos valores de temperature con el mismo timestamp; luego la tabla repite el primero
+		downsampler.add("temperature", START, 2000);
+		downsampler.add("temperature", START, 2100);
+		downsampler.add("humidity", START, 4000);
+		downsampler.add("temperature", START, 2000);
+		downsampler.add("humidity", START, 4000);
+		downsampler.add("temperature", START + STEP, 2000);
+
+		List<ReadingPoint> points = downsampler.finish();
+
+		assertEquals(3, points.stream().filter(point -> point.getType().equals("temperature")).count());
+		assertEquals(1, points.stream().filter(point -> point.getType().equals("humidity")).count());
+		assertEquals(0, downsampler.getDroppedCount());
+	}
+}
@@ -0,0 +1,95 @@
+package ec.edu.espe.SensorDataCollector.validation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReadingRuleEngineTest {
+
+	private static final OffsetDateTime NOW = OffsetDateTime.of(2025, 7, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+	private static final long NOW_MILLIS = NOW.toInstant().toEpochMilli();
+
+	private static ReadingRuleEngine engine() {
+		ReadingValidationProperties properties = new ReadingValidationProperties();
+		properties.setMaxFutureSkew(Duration.ofMinutes(5));
+		properties.setMaxPastAge(Duration.ofDays(1));
+		ReadingValidationProperties.TypeRule temperature = new ReadingValidationProperties.TypeRule();
+		temperature.setMin(new BigDecimal("-40"));
+		temperature.setMax(new BigDecimal("60"));
+		temperature.setMaxRatePerSecond(new BigDecimal("2"));
+		properties.getRules().put("temperature", temperature);
+		ReadingValidationProperties.TypeRule co2 = new ReadingValidationProperties.TypeRule();
+		co2.setMaxRatePerSecond(new BigDecimal("50"));
+		properties.getRules().put("co2", co2);
+		return new ReadingRuleEngine(properties, new SimpleMeterRegistry());
+	}
+
+	@Test
+	void appliesRangeByTypeIgnoringCase() {
+		ReadingRuleEngine engine = engine();
+		assertEquals(ValidationResult.VALID, engine.evaluate("s1", "Temperature", 6000, NOW, NOW_MILLIS));
+		assertEquals(ValidationResult.VALUE_OUT_OF_RANGE, engine.evaluate("s2", "TEMPERATURE", 6001, NOW, NOW_MILLIS));
+		assertEquals(ValidationResult.VALID, engine.evaluate("s3", "humidity", 9000, NOW, NOW_MILLIS));
+		assertEquals("Valor fuera del rango aceptable para temperature (-40.00 a 60.00).",
+				engine.describe("temperature", ValidationResult.VALUE_OUT_OF_RANGE));
+	}
+
+	@Test
+	void defaultRuleBoundsTypesWithoutTheirOwnLimits() {
+		ReadingRuleEngine engine = engine();
+		assertEquals(ValidationResult.VALID, engine.evaluate("s1", "pressure", 10000, NOW, NOW_MILLIS));
+		assertEquals(ValidationResult.VALUE_OUT_OF_RANGE, engine.evaluate("s1", "pressure", -10001, NOW, NOW_MILLIS));
+		// co2 solo define la tasa: hereda el rango de default-rule
+		assertEquals(ValidationResult.VALUE_OUT_OF_RANGE, engine.evaluate("s2", "co2", 10001, NOW, NOW_MILLIS));
+		assertEquals("Valor fuera del rango aceptable para co2 (-100.00 a 100.00).",
+				engine.describe("co2", ValidationResult.VALUE_OUT_OF_RANGE));
+	}
+
+	@Test
+	void rejectsTimestampSkew() {
+		ReadingRuleEngine engine = engine();
+		assertEquals(ValidationResult.TIMESTAMP_IN_FUTURE, engine.evaluate("s1", "humidity", 100, NOW.plusMinutes(6), NOW_MILLIS));
+		assertEquals(ValidationResult.TIMESTAMP_TOO_OLD, engine.evaluate("s1", "humidity", 100, NOW.minusDays(2), NOW_MILLIS));
+	}
+
+	@Test
+	void limitsRateOfChangeAgainstLastAcceptedReading() {
+		ReadingRuleEngine engine = engine();
+		assertEquals(ValidationResult.VALID, engine.evaluate("s1", "temperature", 2000, NOW, NOW_MILLIS));
+		// +5 °C en 1 s con un máximo de 2 °C/s
+		assertEquals(ValidationResult.RATE_OF_CHANGE_EXCEEDED, engine.evaluate("s1", "temperature", 2500, NOW.plusSeconds(1), NOW_MILLIS));
+		// El rechazo no cambia la referencia: +5 °C en 3 s sí es aceptable
+		assertEquals(ValidationResult.VALID, engine.evaluate("s1", "temperature", 2500, NOW.plusSeconds(3), NOW_MILLIS));
+		assertEquals(ValidationResult.VALID, engine.evaluate("s2", "temperature", 5000, NOW.plusSeconds(1), NOW_MILLIS));
+	}
+
+	@Test
+	void rejectionPathDoesNotAllocate() {
+		ReadingRuleEngine engine = engine();
+		engine.evaluate("s1", "temperature", 2000, NOW, NOW_MILLIS);
+		OffsetDateTime next = NOW.plusSeconds(1);
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+
+		for (int i = 0; i < 20_000; i++) {
+			engine.evaluate("s1", "temperature", 9000, next, NOW_MILLIS);
+			engine.evaluate("s1", "temperature", 2500, next, NOW_MILLIS);
+		}
+		long before = threads.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < 100_000; i++) {
+			engine.evaluate("s1", "temperature", 9000, next, NOW_MILLIS);
+			engine.evaluate("s1", "temperature", 2500, next, NOW_MILLIS);
+		}
+		long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+		// Una sola asignación por evaluación sumaría varios MB
+		assertTrue(allocated < 64 * 1024, "Bytes asignados: " + allocated);
+	}
+}
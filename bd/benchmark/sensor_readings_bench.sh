@@ -0,0 +1,98 @@
+#!/usr/bin/env bash
+# -------------------------------------------
+# Benchmark del esquema de sensor_readings en el clúster de bd/docker-compose.yaml
+#
+# Compara el esquema anterior (solo PK UUID, sin índice secundario) con el esquema
+# gestionado de SensorDataCollector (src/main/resources/db/schema.sql):
+#   1. Throughput de inserción: CLIENTS clientes concurrentes, repartidos entre los 3 nodos,
+#      insertando lotes multi-fila.
+#   2. Throughput de consulta: historial de un sensor ordenado por timestamp DESC.
+#
+# Uso: docker compose -f bd/docker-compose.yaml up -d
+#      bash bd/benchmark/sensor_readings_bench.sh
+# -------------------------------------------
+set -euo pipefail
+
+DB=${DB:-bench_sensor_db}
+CLIENTS=${CLIENTS:-12}          # Clientes concurrentes de inserción
+BATCHES=${BATCHES:-50}          # Lotes por cliente
+ROWS_PER_BATCH=${ROWS_PER_BATCH:-500}
+SENSORS=${SENSORS:-200}         # Sensores distintos en los datos generados
+QUERIES=${QUERIES:-200}         # Consultas de historial por esquema
+NODES=(crdb-node1 crdb-node2 crdb-node3)
+
+sql() {
+  local node=$1; shift
+  docker exec -i "$node" cockroach sql --insecure --database="$DB" "$@"
+}
+
+now_ms() { date +%s%3N; }
+
+setup() {
+  docker exec -i crdb-node1 cockroach sql --insecure -e "CREATE DATABASE IF NOT EXISTS $DB"
+  sql crdb-node1 <<SQL
+DROP TABLE IF EXISTS readings_before;
+DROP TABLE IF EXISTS readings_after;
+
+-- Esquema anterior: tabla creada por Hibernate, sin índice por sensor
+CREATE TABLE readings_before (
+    id UUID NOT NULL DEFAULT gen_random_uuid() PRIMARY KEY,
+    sensor_id VARCHAR(50) NOT NULL,
+    type VARCHAR(50) NOT NULL,
+    value DECIMAL(10,2) NOT NULL,
+    timestamp TIMESTAMPTZ NOT NULL,
+    created_at TIMESTAMPTZ DEFAULT now()
+);
+
+-- Esquema gestionado: igual a db/schema.sql
+CREATE TABLE readings_after (LIKE readings_before INCLUDING ALL);
+CREATE INDEX ON readings_after (sensor_id, timestamp DESC) USING HASH STORING (type, value);
+SQL
+}
+
+# Un cliente inserta BATCHES lotes multi-fila con timestamps crecientes (como la ingesta real)
+insert_client() {
+  local table=$1 client=$2
+  local node=${NODES[$((client % ${#NODES[@]}))]}
+  for ((b = 0; b < BATCHES; b++)); do
+    echo "INSERT INTO $table (sensor_id, type, value, timestamp)
+          SELECT 'S-' || ((g + $client) % $SENSORS), 'temperature', (random() * 50)::DECIMAL(10,2),
+                 now() + ((($b * $ROWS_PER_BATCH) + g) || ' milliseconds')::INTERVAL
+          FROM generate_series(1, $ROWS_PER_BATCH) AS g;"
+  done | sql "$node" > /dev/null
+}
+
+bench_inserts() {
+  local table=$1
+  local start end total
+  start=$(now_ms)
+  for ((c = 0; c < CLIENTS; c++)); do
+    insert_client "$table" "$c" &
+  done
+  wait
+  end=$(now_ms)
+  total=$((CLIENTS * BATCHES * ROWS_PER_BATCH))
+  echo "  inserción: $total filas en $((end - start)) ms -> $((total * 1000 / (end - start + 1))) filas/s"
+}
+
+bench_queries() {
+  local table=$1
+  local start end
+  start=$(now_ms)
+  for ((q = 0; q < QUERIES; q++)); do
+    echo "SELECT id, type, value, timestamp FROM $table
+          WHERE sensor_id = 'S-$((q % SENSORS))' ORDER BY timestamp DESC LIMIT 100;"
+  done | sql crdb-node2 > /dev/null
+  end=$(now_ms)
+  echo "  consulta:  $QUERIES consultas en $((end - start)) ms -> $((QUERIES * 1000 / (end - start + 1))) consultas/s"
+}
+
+setup
+for table in readings_before readings_after; do
+  echo "== $table"
+  bench_inserts "$table"
+  bench_queries "$table"
+done
+
+echo "== Plan de la consulta de historial con el esquema gestionado"
+sql crdb-node1 -e "EXPLAIN SELECT id, type, value, timestamp FROM readings_after WHERE sensor_id = 'S-1' ORDER BY timestamp DESC LIMIT 100"
@@ -0,0 +1,95 @@
+#!/usr/bin/env bash
+# -------------------------------------------
+# Comparación de carga: hilos de plataforma vs hilos virtuales en SensorDataCollector
+#
+# Levanta el colector dos veces sobre la misma base de datos y RabbitMQ:
+#   1. platform: configuración por defecto (pool de 200 hilos de Tomcat)
+#   2. virtual:  perfil Spring virtual-threads (application-virtual-threads.yaml)
+# y en cada caso envía la misma carga de POST /sensor-readings con `hey`, a varios niveles de
+# concurrencia. Al final muestra throughput, latencias y los hilos vivos de la JVM.
+#
+# Requisitos: JDK 21 (JAVA_HOME), hey (https://github.com/rakyll/hey), la base de datos
+# de bd/docker-compose.yaml y RabbitMQ en marcha.
+#
+# Uso: docker compose -f bd/docker-compose.yaml up -d
+#      bash bd/benchmark/virtual_threads_compare.sh
+# -------------------------------------------
+set -euo pipefail
+
+ROOT=$(cd "$(dirname "$0")/../.." && pwd)
+PORT=${PORT:-8091}
+DURATION=${DURATION:-30s}              # Duración de cada corrida de carga
+CONCURRENCY_LEVELS=${CONCURRENCY_LEVELS:-"50 200 800 2000"}
+RESULTS=${RESULTS:-$ROOT/bd/benchmark/results}
+BASE_URL="http://localhost:$PORT"
+
+mkdir -p "$RESULTS"
+
+build() {
+  (cd "$ROOT/EnvironmentalEvents" && mvn -B -q install -DskipTests)
+  (cd "$ROOT/SensorDataCollector" && mvn -B -q -Pvirtual-threads package -DskipTests)
+  JAR=$(ls "$ROOT"/SensorDataCollector/target/SensorDataCollector-*.jar | grep -v original | head -1)
+}
+
+start_app() {
+  local profiles=$1
+  java -jar "$JAR" \
+    --server.port="$PORT" \
+    --eureka.client.enabled=false \
+    --spring.profiles.active="$profiles" \
+    --logging.level.root=WARN \
+    > "$RESULTS/app-${profiles:-platform}.log" 2>&1 &
+  APP_PID=$!
+  for _ in $(seq 1 60); do
+    if curl -sf "$BASE_URL/actuator/health" > /dev/null; then
+      return
+    fi
+    sleep 1
+  done
+  echo "El colector no arrancó; ver $RESULTS/app-${profiles:-platform}.log" >&2
+  exit 1
+}
+
+stop_app() {
+  kill "$APP_PID" 2>/dev/null || true
+  wait "$APP_PID" 2>/dev/null || true
+}
+
+live_threads() {
+  curl -s "$BASE_URL/actuator/metrics/jvm.threads.live" | sed -E 's/.*"value":([0-9.]+).*/\1/'
+}
+
+run_load() {
+  local mode=$1
+  for c in $CONCURRENCY_LEVELS; do
+    # Calentamiento corto para JIT y pool de conexiones
+    hey -z 5s -c "$c" -m POST -T application/json \
+      -d '{"sensorId":"VT-BENCH","type":"temperature","value":23.45,"timestamp":"2025-01-01T00:00:00Z"}' \
+      "$BASE_URL/sensor-readings" > /dev/null
+    hey -z "$DURATION" -c "$c" -m POST -T application/json \
+      -d '{"sensorId":"VT-BENCH","type":"temperature","value":23.45,"timestamp":"2025-01-01T00:00:00Z"}' \
+      "$BASE_URL/sensor-readings" > "$RESULTS/$mode-c$c.txt"
+    local threads
+    threads=$(live_threads)
+    local rps p50 p99 errors
+    rps=$(grep "Requests/sec" "$RESULTS/$mode-c$c.txt" | awk '{print $2}')
+    p50=$(grep "50% in" "$RESULTS/$mode-c$c.txt" | awk '{print $3}')
+    p99=$(grep "99% in" "$RESULTS/$mode-c$c.txt" | awk '{print $3}')
+    # La carga repite la misma lectura: tras la primera, el colector responde 200 (duplicada)
+    errors=$(grep -A20 "Status code distribution" "$RESULTS/$mode-c$c.txt" | grep -v "\[20[01]\]" | grep -c "responses" || true)
+    printf "%-9s %6s %12s %10s %10s %14s %8s\n" "$mode" "$c" "$rps" "$p50" "$p99" "$errors" "$threads" | tee -a "$RESULTS/summary.txt"
+  done
+}
+
+build
+printf "%-9s %6s %12s %10s %10s %14s %8s\n" "modo" "conc." "req/s" "p50 (s)" "p99 (s)" "códigos!=20x" "hilos" | tee "$RESULTS/summary.txt"
+
+start_app ""
+run_load platform
+stop_app
+
+start_app "virtual-threads"
+run_load virtual
+stop_app
+
+echo "Resultados detallados en $RESULTS"